@@ -0,0 +1,80 @@
+package ua.com.vertex.beans;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of a single bulk mailing. Sender threads update the counters while the admin page reads them,
+ * so all mutable state is atomic or volatile.
+ */
+public class BulkMailProgress {
+    private final String jobId;
+    private final int courseId;
+    private final int total;
+    private final LocalDateTime startTime = LocalDateTime.now();
+    private final AtomicInteger sent = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile boolean finished;
+
+    public BulkMailProgress(String jobId, int courseId, int total) {
+        this.jobId = jobId;
+        this.courseId = courseId;
+        this.total = total;
+    }
+
+    public void addSent(int count) {
+        sent.addAndGet(count);
+    }
+
+    public void addFailed(int count) {
+        failed.addAndGet(count);
+    }
+
+    public void finish() {
+        finished = true;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public int getSent() {
+        return sent.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public int getPercent() {
+        return total == 0 ? 100 : (getSent() + getFailed()) * 100 / total;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkMailProgress{" +
+                "jobId='" + jobId + '\'' +
+                ", courseId=" + courseId +
+                ", total=" + total +
+                ", sent=" + sent +
+                ", failed=" + failed +
+                ", finished=" + finished +
+                '}';
+    }
+}
@@ -0,0 +1,17 @@
+package ua.com.vertex.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A certificate together with the few holder fields shown on the public certificate page.
+ * The holder never carries the password, photo or passport scan.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CertificateWithHolder {
+    private Certificate certificate;
+    private User holder;
+}
@@ -0,0 +1,19 @@
+package ua.com.vertex.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Size;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseGraduation {
+    private int courseId;
+
+    @Size(min = 1, max = 255, message = "Language must be longer than 1 and less than 255 characters")
+    private String language;
+
+    private boolean debtFreeOnly;
+}
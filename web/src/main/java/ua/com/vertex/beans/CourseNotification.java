@@ -0,0 +1,22 @@
+package ua.com.vertex.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Size;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseNotification {
+    private int courseId;
+
+    @Size(min = 1, max = 256, message = "Subject must be longer than 1 and less than 256 characters")
+    private String subject;
+
+    @Size(min = 1, max = 5000, message = "Message must be longer than 1 and less than 5000 characters")
+    private String body;
+
+    private boolean debtorsOnly;
+}
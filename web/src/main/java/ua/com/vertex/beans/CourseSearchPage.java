@@ -0,0 +1,17 @@
+package ua.com.vertex.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSearchPage {
+    private List<Course> courses;
+    private int page;
+    private int pageCount;
+    private int total;
+}
@@ -1,5 +1,7 @@
 package ua.com.vertex.beans;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 public class DtoCourseUser {
@@ -7,6 +9,7 @@ public class DtoCourseUser {
     private int userId;
     private String searchType;
     private String searchParam;
+    private List<Integer> userIds = new ArrayList<>();
 
     public int getCourseId() {
         return courseId;
@@ -40,6 +43,14 @@ public class DtoCourseUser {
         this.searchParam = searchParam;
     }
 
+    public List<Integer> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<Integer> userIds) {
+        this.userIds = userIds;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -48,12 +59,13 @@ public class DtoCourseUser {
         return courseId == that.courseId &&
                 userId == that.userId &&
                 Objects.equals(searchType, that.searchType) &&
-                Objects.equals(searchParam, that.searchParam);
+                Objects.equals(searchParam, that.searchParam) &&
+                Objects.equals(userIds, that.userIds);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(courseId, userId, searchType, searchParam);
+        return Objects.hash(courseId, userId, searchType, searchParam, userIds);
     }
 
     @Override
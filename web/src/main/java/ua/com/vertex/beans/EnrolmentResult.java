@@ -0,0 +1,15 @@
+package ua.com.vertex.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrolmentResult {
+    private List<Integer> enrolled;
+    private List<Integer> alreadyEnrolled;
+}
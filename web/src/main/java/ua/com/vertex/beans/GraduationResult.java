@@ -0,0 +1,13 @@
+package ua.com.vertex.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GraduationResult {
+    private int issued;
+    private int alreadyCertified;
+}
@@ -0,0 +1,30 @@
+package ua.com.vertex.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxMail {
+    public static final String PENDING = "PENDING";
+    public static final String SENDING = "SENDING";
+    public static final String SENT = "SENT";
+    public static final String DEAD = "DEAD";
+
+    private long id;
+    private String sender;
+    private String recipient;
+    private String subject;
+    private String body;
+    private String status;
+    private int attempts;
+    private LocalDateTime nextAttemptTime;
+    private LocalDateTime creationTime;
+    private String lastError;
+}
@@ -0,0 +1,25 @@
+package ua.com.vertex.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentImportResult {
+    private int imported;
+    private int alreadyImported;
+    private List<StatementPayment> unmatched = new ArrayList<>();
+    private List<String> invalidLines = new ArrayList<>();
+
+    public void add(PaymentImportResult other) {
+        imported += other.getImported();
+        alreadyImported += other.getAlreadyImported();
+        unmatched.addAll(other.getUnmatched());
+        invalidLines.addAll(other.getInvalidLines());
+    }
+}
@@ -0,0 +1,26 @@
+package ua.com.vertex.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentLedgerEntry {
+    private int paymentId;
+    private LocalDateTime paymentDate;
+    private BigDecimal amount;
+    private String bankReference;
+    private int dealId;
+    private double debt;
+    private int courseId;
+    private String courseName;
+    private int userId;
+    private String email;
+    private String firstName;
+    private String lastName;
+}
@@ -0,0 +1,15 @@
+package ua.com.vertex.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentLedgerPage {
+    private List<PaymentLedgerEntry> entries;
+    private int nextBefore;
+}
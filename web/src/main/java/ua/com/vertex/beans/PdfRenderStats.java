@@ -0,0 +1,108 @@
+package ua.com.vertex.beans;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Counters of the asynchronous certificate rendering. Render threads update them while the admin page reads them,
+ * so all mutable state is atomic; queue depth and active renders are read from the executor on demand.
+ */
+public class PdfRenderStats {
+    private final IntSupplier queueDepth;
+    private final IntSupplier activeRenders;
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong totalRenderNanos = new AtomicLong();
+    private final AtomicLong maxRenderNanos = new AtomicLong();
+
+    public PdfRenderStats(IntSupplier queueDepth, IntSupplier activeRenders) {
+        this.queueDepth = queueDepth;
+        this.activeRenders = activeRenders;
+    }
+
+    public void addSubmitted() {
+        submitted.incrementAndGet();
+    }
+
+    public void addRejected() {
+        rejected.incrementAndGet();
+    }
+
+    public void addCompleted(long waitNanos, long renderNanos) {
+        completed.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        totalRenderNanos.addAndGet(renderNanos);
+        maxRenderNanos.accumulateAndGet(renderNanos, Math::max);
+    }
+
+    public void addFailed() {
+        failed.incrementAndGet();
+    }
+
+    public void addTimedOut() {
+        timedOut.incrementAndGet();
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getTimedOut() {
+        return timedOut.get();
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.getAsInt();
+    }
+
+    public int getActiveRenders() {
+        return activeRenders.getAsInt();
+    }
+
+    public double getAverageWaitMillis() {
+        return average(totalWaitNanos.get());
+    }
+
+    public double getAverageRenderMillis() {
+        return average(totalRenderNanos.get());
+    }
+
+    public double getMaxRenderMillis() {
+        return maxRenderNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private double average(long totalNanos) {
+        long count = completed.get();
+        return count == 0 ? 0 : totalNanos / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return "PdfRenderStats{" +
+                "submitted=" + submitted +
+                ", rejected=" + rejected +
+                ", completed=" + completed +
+                ", failed=" + failed +
+                ", timedOut=" + timedOut +
+                ", queueDepth=" + getQueueDepth() +
+                ", activeRenders=" + getActiveRenders() +
+                '}';
+    }
+}
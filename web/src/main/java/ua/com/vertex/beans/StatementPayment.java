@@ -0,0 +1,19 @@
+package ua.com.vertex.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementPayment {
+    private int line;
+    private String reference;
+    private int courseId;
+    private int userId;
+    private BigDecimal amount;
+    private int dealId;
+}
@@ -0,0 +1,39 @@
+package ua.com.vertex.context;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import ua.com.vertex.utils.EmbeddedSmtpServer;
+
+import java.util.Properties;
+
+/**
+ * Replaces the real SMTP server with an in-process sink, so the whole mail pipeline can run offline.
+ * Activate with the "embeddedSmtp" profile; mail.embedded.port=0 picks a free port.
+ */
+@Configuration
+@Profile("embeddedSmtp")
+public class EmbeddedSmtpConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public EmbeddedSmtpServer embeddedSmtpServer(@Value("${mail.embedded.port}") int port) {
+        return new EmbeddedSmtpServer(port);
+    }
+
+    @Bean(name = "mailSender")
+    public JavaMailSender getMailSender(EmbeddedSmtpServer embeddedSmtpServer) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(embeddedSmtpServer.getPort());
+
+        Properties javaMailProperties = new Properties();
+        javaMailProperties.put("mail.transport.protocol", "smtp");
+        javaMailProperties.put("mail.debug", "false");
+
+        mailSender.setJavaMailProperties(javaMailProperties);
+        return mailSender;
+    }
+}
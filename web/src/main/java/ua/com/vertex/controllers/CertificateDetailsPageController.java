@@ -6,13 +6,16 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
+import ua.com.vertex.controllers.exceptionHandling.exceptions.NoCertificateException;
 import ua.com.vertex.logic.interfaces.CertificateLogic;
 
 import java.util.Map;
+import java.util.regex.Pattern;
 
 @Controller
 public class CertificateDetailsPageController {
     private static final String CERTIFICATE_DETAILS = "certificateDetails";
+    private static final Pattern CERTIFICATE_UID_PATTERN = Pattern.compile("\\d{16}");
 
     private final CertificateLogic certLogic;
 
@@ -32,8 +35,11 @@ public class CertificateDetailsPageController {
     }
 
     private String process(String certificateUid, Model model) {
-        certificateUid = certificateUid.replaceAll("-", "");
-        Map<String, Object> attributes = certLogic.getUserAndCertificate(certificateUid);
+        String digits = certificateUid.replace("-", "");
+        if (!CERTIFICATE_UID_PATTERN.matcher(digits).matches()) {
+            throw new NoCertificateException();
+        }
+        Map<String, Object> attributes = certLogic.getUserAndCertificate(Long.parseLong(digits));
         model.addAllAttributes(attributes);
 
         return CERTIFICATE_DETAILS;
@@ -0,0 +1,77 @@
+package ua.com.vertex.controllers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import ua.com.vertex.beans.CertificateWithHolder;
+import ua.com.vertex.beans.User;
+import ua.com.vertex.logic.interfaces.CertificateLogic;
+import ua.com.vertex.logic.interfaces.UserLogic;
+import ua.com.vertex.utils.CertificateZipWriter;
+import ua.com.vertex.utils.EmailExtractor;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@Controller
+public class CertificatesZipController {
+    private static final Logger LOGGER = LogManager.getLogger(CertificatesZipController.class);
+
+    private final CertificateLogic certificateLogic;
+    private final UserLogic userLogic;
+    private final CertificateZipWriter certificateZipWriter;
+    private final EmailExtractor emailExtractor;
+
+    @GetMapping(value = "/myCertificatesZip")
+    @PreAuthorize("isAuthenticated()")
+    public void getMyCertificatesZip(HttpServletResponse response) throws IOException, InterruptedException {
+        String email = emailExtractor.getEmailFromAuthentication();
+        LOGGER.debug("Request to '/myCertificatesZip' with userEmail=" + email);
+
+        int userId = userLogic.getUserByEmail(email).map(User::getUserId).orElseThrow(NoSuchElementException::new);
+        writeZip(certificateLogic.getCertificatesWithHolderByUserId(userId), "certificates.zip", response);
+    }
+
+    @GetMapping(value = "/userCertificatesZip")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void getUserCertificatesZip(@RequestParam("userId") int userId, HttpServletResponse response)
+            throws IOException, InterruptedException {
+        LOGGER.debug("Request to '/userCertificatesZip' with userId=" + userId);
+
+        writeZip(certificateLogic.getCertificatesWithHolderByUserId(userId),
+                String.format("user_%d_certificates.zip", userId), response);
+    }
+
+    @GetMapping(value = "/courseCertificatesZip")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void getCourseCertificatesZip(@RequestParam("courseId") int courseId, HttpServletResponse response)
+            throws IOException, InterruptedException {
+        LOGGER.debug("Request to '/courseCertificatesZip' with courseId=" + courseId);
+
+        writeZip(certificateLogic.getCertificatesWithHolderByCourseId(courseId),
+                String.format("course_%d_certificates.zip", courseId), response);
+    }
+
+    private void writeZip(List<CertificateWithHolder> certificates, String fileName, HttpServletResponse response)
+            throws IOException, InterruptedException {
+        response.setContentType("application/zip");
+        response.addHeader("Content-Disposition", "attachment; filename=" + fileName);
+
+        certificateZipWriter.writeZip(certificates, response.getOutputStream());
+    }
+
+    @Autowired
+    public CertificatesZipController(CertificateLogic certificateLogic, UserLogic userLogic,
+                                     CertificateZipWriter certificateZipWriter, EmailExtractor emailExtractor) {
+        this.certificateLogic = certificateLogic;
+        this.userLogic = userLogic;
+        this.certificateZipWriter = certificateZipWriter;
+        this.emailExtractor = emailExtractor;
+    }
+}
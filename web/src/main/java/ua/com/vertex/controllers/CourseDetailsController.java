@@ -14,11 +14,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 import ua.com.vertex.beans.Course;
+import ua.com.vertex.beans.CourseSearchPage;
 import ua.com.vertex.logic.interfaces.CourseLogic;
 import ua.com.vertex.logic.interfaces.UserLogic;
 
 import javax.validation.Valid;
-import java.util.List;
 import java.util.NoSuchElementException;
 
 import static ua.com.vertex.controllers.AdminController.ADMIN_JSP;
@@ -32,6 +32,8 @@ public class CourseDetailsController {
     static final String COURSE_DATA = "courseForInfo";
     static final String COURSE = "course";
     static final String COURSES = "courses";
+    static final String SEARCH_PAGE = "searchPage";
+    static final int SEARCH_PAGE_SIZE = 20;
     private static final String COURSE_ID = "courseId";
     static final String TEACHERS = "teachers";
 
@@ -49,18 +51,20 @@ public class CourseDetailsController {
 
     @PostMapping(value = "/searchCourse")
     @PreAuthorize("hasRole('ADMIN')")
-    public String searchCourse(@Validated @ModelAttribute(COURSE_DATA) Course course,
-                               BindingResult bindingResult, Model model) {
-        LOGGER.debug(String.format("Search user by name - (%s) and finished - (%s).",
-                course.getName(), course.isFinished()));
+    public String searchCourse(@Validated @ModelAttribute(COURSE_DATA) Course course, BindingResult bindingResult,
+                               @RequestParam(value = "page", defaultValue = "1") int page, Model model) {
+        LOGGER.debug(String.format("Search user by name - (%s) and finished - (%s), page - (%d).",
+                course.getName(), course.isFinished(), page));
 
         if (!bindingResult.hasErrors()) {
-            List<Course> courses = courseLogic.searchCourseByNameAndStatus(course.getName(), course.isFinished());
-            if (courses.isEmpty()) {
+            CourseSearchPage searchPage = courseLogic.searchCourseByNameAndStatus(course.getName(),
+                    course.isFinished(), page, SEARCH_PAGE_SIZE);
+            if (searchPage.getCourses().isEmpty()) {
                 model.addAttribute(MSG, String.format("Course with name - '(%s)' not found. " +
                         "Please check the data and try it again.", course.getName()));
             } else {
-                model.addAttribute("courses", courses);
+                model.addAttribute(COURSES, searchPage.getCourses());
+                model.addAttribute(SEARCH_PAGE, searchPage);
             }
         }
 
@@ -0,0 +1,80 @@
+package ua.com.vertex.controllers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import ua.com.vertex.beans.BulkMailProgress;
+import ua.com.vertex.beans.CourseNotification;
+import ua.com.vertex.logic.interfaces.CourseNotificationLogic;
+
+import javax.validation.Valid;
+import java.util.Optional;
+
+import static ua.com.vertex.controllers.AdminController.ADMIN_JSP;
+import static ua.com.vertex.controllers.CreateCertificateAndUserController.MSG;
+
+@Controller
+public class CourseNotificationController {
+    private static final Logger LOGGER = LogManager.getLogger(CourseNotificationController.class);
+
+    static final String COURSE_NOTIFICATION_JSP = "courseNotification";
+    static final String NOTIFICATION_PROGRESS_JSP = "courseNotificationProgress";
+    static final String NOTIFICATION = "courseNotification";
+    static final String PROGRESS = "progress";
+
+    private final CourseNotificationLogic courseNotificationLogic;
+
+    @GetMapping(value = "/courseNotification")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String showNotificationForm(@RequestParam("courseId") int courseId, Model model) {
+        LOGGER.debug("Show notification form for course id={}", courseId);
+
+        CourseNotification notification = new CourseNotification();
+        notification.setCourseId(courseId);
+        model.addAttribute(NOTIFICATION, notification);
+
+        return COURSE_NOTIFICATION_JSP;
+    }
+
+    @PostMapping(value = "/sendCourseNotification")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String sendNotification(@Valid @ModelAttribute(NOTIFICATION) CourseNotification notification,
+                                   BindingResult bindingResult, Model model) {
+        LOGGER.debug("Send notification to users of course id={}", notification.getCourseId());
+
+        if (bindingResult.hasErrors()) {
+            return COURSE_NOTIFICATION_JSP;
+        }
+
+        model.addAttribute(PROGRESS, courseNotificationLogic.notifyCourseUsers(notification));
+        return NOTIFICATION_PROGRESS_JSP;
+    }
+
+    @GetMapping(value = "/courseNotificationProgress")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String showProgress(@RequestParam("jobId") String jobId, Model model) {
+        LOGGER.debug("Show progress of notification job id={}", jobId);
+
+        Optional<BulkMailProgress> progress = courseNotificationLogic.getProgress(jobId);
+        if (!progress.isPresent()) {
+            model.addAttribute(MSG, "Notification was not found, it may have finished too long ago");
+            return ADMIN_JSP;
+        }
+
+        model.addAttribute(PROGRESS, progress.get());
+        return NOTIFICATION_PROGRESS_JSP;
+    }
+
+    @Autowired
+    public CourseNotificationController(CourseNotificationLogic courseNotificationLogic) {
+        this.courseNotificationLogic = courseNotificationLogic;
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import ua.com.vertex.beans.Course;
 import ua.com.vertex.beans.DtoCourseUser;
+import ua.com.vertex.beans.EnrolmentResult;
 import ua.com.vertex.beans.User;
 import ua.com.vertex.logic.interfaces.CourseLogic;
 
@@ -26,6 +27,7 @@ public class CourseUsersController {
     private static final String SEARCH = "search";
     private static final String DTO = "dtoCourseUser";
     private static final String SELECTION = "selection";
+    private static final String ENROLMENT = "enrolment";
     private static final String[] SELECTION_PARAMS = {"First Name", "Last Name", "Email"};
 
     private final CourseLogic courseLogic;
@@ -84,6 +86,28 @@ public class CourseUsersController {
         return COURSE_USERS;
     }
 
+    @PostMapping(value = "/assignUsers")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String assignUsersToCourse(@ModelAttribute DtoCourseUser dtoCourseUser, Model model) {
+
+        LOGGER.debug(String.format("Assign users=%s to course id=%d", dtoCourseUser.getUserIds(),
+                dtoCourseUser.getCourseId()));
+
+        EnrolmentResult enrolment = courseLogic.assignUsersToCourse(dtoCourseUser.getCourseId(),
+                dtoCourseUser.getUserIds());
+        List<User> assignedUsers = courseLogic.getUsersAssignedToCourse(dtoCourseUser.getCourseId());
+        List<User> freeUsers = courseLogic.searchForUsersToAssign(dtoCourseUser);
+
+        model.addAttribute(ENROLMENT, enrolment);
+        model.addAttribute(ASSIGNED_USERS, assignedUsers);
+        model.addAttribute(FREE_USERS, freeUsers);
+        model.addAttribute(DTO, dtoCourseUser);
+        model.addAttribute(SEARCH, true);
+        model.addAttribute(SELECTION, SELECTION_PARAMS);
+
+        return COURSE_USERS;
+    }
+
     @GetMapping(value = "/searchForUsersToAssign")
     @PreAuthorize("hasRole('ADMIN')")
     public String searchForUsersToAssign(@ModelAttribute DtoCourseUser dtoCourseUser, Model model) {
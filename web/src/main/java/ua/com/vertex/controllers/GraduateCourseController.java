@@ -0,0 +1,59 @@
+package ua.com.vertex.controllers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PostMapping;
+import ua.com.vertex.beans.CourseGraduation;
+import ua.com.vertex.beans.GraduationResult;
+import ua.com.vertex.logic.interfaces.CertificateLogic;
+
+import javax.validation.Valid;
+import java.util.NoSuchElementException;
+
+import static ua.com.vertex.controllers.AdminController.ADMIN_JSP;
+import static ua.com.vertex.controllers.CreateCertificateAndUserController.MSG;
+
+@Controller
+public class GraduateCourseController {
+    private static final Logger LOGGER = LogManager.getLogger(GraduateCourseController.class);
+
+    static final String GRADUATION = "courseGraduation";
+
+    private final CertificateLogic certificateLogic;
+
+    @PostMapping(value = "/graduateCourse")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String graduateCourse(@Valid @ModelAttribute(GRADUATION) CourseGraduation graduation,
+                                 BindingResult bindingResult, Model model) {
+        LOGGER.debug(String.format("Graduate course id=%d, debt free users only - %s", graduation.getCourseId(),
+                graduation.isDebtFreeOnly()));
+
+        if (bindingResult.hasErrors()) {
+            model.addAttribute(MSG, "Certificate language must be longer than 1 and less than 255 characters. " +
+                    "No certificates were issued.");
+        } else {
+            try {
+                GraduationResult result = certificateLogic.graduateCourse(graduation);
+                model.addAttribute(MSG, String.format("%d certificates were issued for course with id - (%d), " +
+                        "%d users already had one.", result.getIssued(), graduation.getCourseId(),
+                        result.getAlreadyCertified()));
+            } catch (NoSuchElementException e) {
+                LOGGER.warn(e);
+                model.addAttribute(MSG, String.format("Course with id - (%d) not found. No certificates were issued.",
+                        graduation.getCourseId()));
+            }
+        }
+        return ADMIN_JSP;
+    }
+
+    @Autowired
+    public GraduateCourseController(CertificateLogic certificateLogic) {
+        this.certificateLogic = certificateLogic;
+    }
+}
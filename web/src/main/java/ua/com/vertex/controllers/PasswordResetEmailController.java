@@ -10,8 +10,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import ua.com.vertex.beans.PasswordResetDto;
 import ua.com.vertex.logic.interfaces.EmailLogic;
+import ua.com.vertex.logic.interfaces.MailOutboxLogic;
 import ua.com.vertex.logic.interfaces.UserLogic;
-import ua.com.vertex.utils.MailService;
 import ua.com.vertex.utils.ReCaptchaService;
 
 import javax.servlet.http.HttpServletRequest;
@@ -30,15 +30,15 @@ public class PasswordResetEmailController {
     static final String CAPTCHA_MISSED = "captcha";
 
     private final ReCaptchaService reCaptchaService;
-    private final MailService mailService;
+    private final MailOutboxLogic mailOutboxLogic;
     private final EmailLogic emailLogic;
     private final UserLogic userLogic;
 
     @Autowired
-    public PasswordResetEmailController(ReCaptchaService reCaptchaService, MailService mailService,
+    public PasswordResetEmailController(ReCaptchaService reCaptchaService, MailOutboxLogic mailOutboxLogic,
                                         EmailLogic emailLogic, UserLogic userLogic) {
         this.reCaptchaService = reCaptchaService;
-        this.mailService = mailService;
+        this.mailOutboxLogic = mailOutboxLogic;
         this.emailLogic = emailLogic;
         this.userLogic = userLogic;
     }
@@ -67,9 +67,10 @@ public class PasswordResetEmailController {
             emailNotValidatedOrCaptchaMissed(email, CAPTCHA_MISSED, "", model);
 
         } else {
-            mailService.sendMail(OUR_EMAIL, email, "Reset Your Password", emailLogic.createPasswordResetMessage(email));
+            mailOutboxLogic.addMail(OUR_EMAIL, email, "Reset Your Password",
+                    emailLogic.createPasswordResetMessage(email));
             view = EMAIL_SENT;
-            LOGGER.debug("Email to change the password was sent to " + email);
+            LOGGER.debug("Email to change the password was queued for " + email);
         }
         return view;
     }
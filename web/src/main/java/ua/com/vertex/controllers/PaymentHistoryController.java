@@ -0,0 +1,123 @@
+package ua.com.vertex.controllers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.ModelAndView;
+import ua.com.vertex.beans.PaymentLedgerEntry;
+import ua.com.vertex.beans.PaymentLedgerPage;
+import ua.com.vertex.logic.interfaces.PaymentLogic;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Payment history. Ledger pages of a student or of a course go from the newest payment back and are keyed by the
+ * last payment id shown. The CSV export of a date range is written to the response while the payments are read.
+ */
+@Controller
+@RequestMapping(value = "/paymentHistory")
+public class PaymentHistoryController {
+    private static final Logger LOGGER = LogManager.getLogger(PaymentHistoryController.class);
+
+    static final String PAYMENT_HISTORY_JSP = "paymentHistory";
+    static final String LEDGER = "ledger";
+    static final String LEDGER_URL = "ledgerUrl";
+    static final int LEDGER_PAGE_SIZE = 20;
+    private static final String BEFORE = "before";
+    private static final String CSV_HEADER = "payment_id,payment_date,amount,bank_reference,deal_id,course_id," +
+            "course_name,user_id,email,first_name,last_name";
+    private static final String CSV_LINE_END = "\r\n";
+
+    private final PaymentLogic paymentLogic;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public String showPaymentHistory() {
+        LOGGER.debug("Request to '/paymentHistory'");
+        return PAYMENT_HISTORY_JSP;
+    }
+
+    @GetMapping(value = "/user")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ModelAndView getUserLedger(@RequestParam("userId") int userId,
+                                      @RequestParam(value = BEFORE, defaultValue = "0") int before) {
+        LOGGER.debug("Request to '/paymentHistory/user' with userId={}, before={}", userId, before);
+        return getLedgerModelAndView(paymentLogic.getUserLedger(userId, before, LEDGER_PAGE_SIZE),
+                "/paymentHistory/user?userId=" + userId);
+    }
+
+    @GetMapping(value = "/course")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ModelAndView getCourseLedger(@RequestParam("courseId") int courseId,
+                                        @RequestParam(value = BEFORE, defaultValue = "0") int before) {
+        LOGGER.debug("Request to '/paymentHistory/course' with courseId={}, before={}", courseId, before);
+        return getLedgerModelAndView(paymentLogic.getCourseLedger(courseId, before, LEDGER_PAGE_SIZE),
+                "/paymentHistory/course?courseId=" + courseId);
+    }
+
+    @GetMapping(value = "/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportPayments(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                               @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                               HttpServletResponse response) throws IOException {
+        LOGGER.debug("Request to '/paymentHistory/export' from {} to {}", from, to);
+
+        response.setContentType("text/csv;charset=UTF-8");
+        response.addHeader("Content-Disposition", String.format("attachment; filename=payments_%s_%s.csv", from, to));
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER + CSV_LINE_END);
+        try {
+            paymentLogic.forEachPayment(from, to, entry -> writeCsvLine(writer, entry));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private ModelAndView getLedgerModelAndView(PaymentLedgerPage ledger, String ledgerUrl) {
+        ModelAndView modelAndView = new ModelAndView(PAYMENT_HISTORY_JSP);
+        modelAndView.addObject(LEDGER, ledger);
+        modelAndView.addObject(LEDGER_URL, ledgerUrl);
+        return modelAndView;
+    }
+
+    private void writeCsvLine(Writer writer, PaymentLedgerEntry entry) {
+        try {
+            writer.write(String.join(",", String.valueOf(entry.getPaymentId()),
+                    entry.getPaymentDate() == null ? "" : entry.getPaymentDate().toString(),
+                    entry.getAmount().toPlainString(),
+                    toCsvField(entry.getBankReference()), String.valueOf(entry.getDealId()),
+                    String.valueOf(entry.getCourseId()), toCsvField(entry.getCourseName()),
+                    String.valueOf(entry.getUserId()), toCsvField(entry.getEmail()),
+                    toCsvField(entry.getFirstName()), toCsvField(entry.getLastName())));
+            writer.write(CSV_LINE_END);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String toCsvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    @Autowired
+    public PaymentHistoryController(PaymentLogic paymentLogic) {
+        this.paymentLogic = paymentLogic;
+    }
+}
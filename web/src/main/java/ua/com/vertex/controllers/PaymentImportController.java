@@ -0,0 +1,55 @@
+package ua.com.vertex.controllers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.ModelAndView;
+import ua.com.vertex.beans.PaymentImportResult;
+import ua.com.vertex.utils.PaymentStatementImporter;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Controller
+public class PaymentImportController {
+    private static final Logger LOGGER = LogManager.getLogger(PaymentImportController.class);
+
+    static final String PAYMENT_IMPORT_JSP = "paymentImport";
+    static final String IMPORT_RESULT = "importResult";
+    private static final String STATEMENT = "statement";
+
+    private final PaymentStatementImporter paymentStatementImporter;
+
+    @GetMapping(value = "/importPayments")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String showPaymentImport() {
+        LOGGER.debug("Request to '/importPayments'");
+        return PAYMENT_IMPORT_JSP;
+    }
+
+    @PostMapping(value = "/importPayments")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ModelAndView importPayments(@RequestPart(value = STATEMENT) MultipartFile statement) throws IOException {
+        LOGGER.debug("Importing bank statement {}, {} bytes", statement.getOriginalFilename(), statement.getSize());
+
+        PaymentImportResult result;
+        try (InputStream inputStream = statement.getInputStream()) {
+            result = paymentStatementImporter.importStatement(inputStream);
+        }
+
+        ModelAndView modelAndView = new ModelAndView(PAYMENT_IMPORT_JSP);
+        modelAndView.addObject(IMPORT_RESULT, result);
+        return modelAndView;
+    }
+
+    @Autowired
+    public PaymentImportController(PaymentStatementImporter paymentStatementImporter) {
+        this.paymentStatementImporter = paymentStatementImporter;
+    }
+}
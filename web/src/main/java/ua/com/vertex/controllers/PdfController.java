@@ -3,48 +3,68 @@ package ua.com.vertex.controllers;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.context.request.async.DeferredResult;
 import ua.com.vertex.beans.PdfDto;
-import ua.com.vertex.utils.EmailExtractor;
 import ua.com.vertex.utils.PdfDownloader;
 import ua.com.vertex.utils.PdfGenerator;
+import ua.com.vertex.utils.PdfRenderExecutor;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.File;
 
 @Controller
 public class PdfController {
     private static final Logger LOGGER = LogManager.getLogger(PdfController.class);
+
+    static final String PDF_RENDER_STATS_JSP = "pdfRenderStats";
+    static final String STATS = "stats";
+    static final String RENDERED_PDFS = "renderedPdfs";
+    static final String AVERAGE_PDF_BYTES = "averagePdfBytes";
+
     private final PdfGenerator pdfGenerator;
     private final PdfDownloader pdfDownloader;
-    private final EmailExtractor emailExtractor;
+    private final PdfRenderExecutor pdfRenderExecutor;
+    private final boolean async;
 
     @PostMapping(value = "/generatePdf")
     @PreAuthorize("(principal.username).equals(#dto.email)")
-    public void generatePdf(@ModelAttribute PdfDto dto, HttpServletResponse response) throws Exception {
+    public DeferredResult<ResponseEntity<byte[]>> generatePdf(@ModelAttribute PdfDto dto, HttpServletRequest request,
+                                                              HttpServletResponse response) throws Exception {
 
         LOGGER.debug("GeneratePdf page accessed");
-        String pdfFileName = emailExtractor.getEmailFromAuthentication() + "_certificate.pdf";
-        File pdfFile = new File(pdfFileName);
-
-        try {
-            pdfGenerator.generatePdf(pdfFileName, dto);
-            pdfDownloader.downloadPdf(pdfFileName, response);
-        } finally {
-            if (pdfFile.exists()) {
-                //noinspection ResultOfMethodCallIgnored
-                pdfFile.delete();
-            }
+        if (!async) {
+            pdfDownloader.downloadPdf(dto, request, response);
+            return null;
+        }
+        if (pdfDownloader.sendCachedPdf(dto, request, response)) {
+            return null;
         }
+        return pdfRenderExecutor.render(dto);
+    }
+
+    @GetMapping(value = "/pdfRenderStats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String showRenderStats(Model model) {
+        model.addAttribute(STATS, pdfRenderExecutor.getStats());
+        model.addAttribute(RENDERED_PDFS, pdfGenerator.getRenderedPdfs());
+        model.addAttribute(AVERAGE_PDF_BYTES, pdfGenerator.getAverageBytesPerPdf());
+        return PDF_RENDER_STATS_JSP;
     }
 
     @Autowired
-    public PdfController(PdfGenerator pdfGenerator, PdfDownloader pdfDownloader, EmailExtractor emailExtractor) {
+    public PdfController(PdfGenerator pdfGenerator, PdfDownloader pdfDownloader, PdfRenderExecutor pdfRenderExecutor,
+                         @Value("${pdf.render.async}") boolean async) {
         this.pdfGenerator = pdfGenerator;
         this.pdfDownloader = pdfDownloader;
-        this.emailExtractor = emailExtractor;
+        this.pdfRenderExecutor = pdfRenderExecutor;
+        this.async = async;
     }
 }
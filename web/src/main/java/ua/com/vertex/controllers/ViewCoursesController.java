@@ -1,55 +1,83 @@
 package ua.com.vertex.controllers;
 
+import com.google.common.hash.Hashing;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedCredentialsNotFoundException;
+import org.springframework.security.web.csrf.CsrfToken;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.SessionAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.ModelAndView;
 import ua.com.vertex.beans.Course;
 import ua.com.vertex.beans.User;
 import ua.com.vertex.logic.interfaces.CourseLogic;
 import ua.com.vertex.logic.interfaces.UserLogic;
+import ua.com.vertex.utils.CourseTableCache;
 import ua.com.vertex.utils.DataNavigator;
 import ua.com.vertex.utils.EmailExtractor;
 
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.List;
-
+import java.util.function.Supplier;
+
+/**
+ * Course listings. The course table is rendered once per page, page size, teacher and course version and reused
+ * from {@link CourseTableCache}, so a repeat view skips both the course query and the table rendering. The ETag
+ * covers the table, the paging state, the role and the CSRF token of the page, and a matching If-None-Match gets
+ * 304 Not Modified.
+ */
 @Controller
 @SessionAttributes(value = "viewCourses")
 @RequestMapping(value = "/viewCourses")
 public class ViewCoursesController {
     private static final String PAGE_JSP = "viewCourses";
+    private static final String TABLE_JSP = "/WEB-INF/views/viewCoursesTable.jsp";
+    static final String COURSES = "courses";
+    static final String COURSE_TABLE = "courseTable";
+    private static final int ALL_TEACHERS = 0;
 
     private static final Logger LOGGER = LogManager.getLogger(ViewCoursesController.class);
 
     private final CourseLogic courseLogic;
     private final UserLogic userLogic;
     private final EmailExtractor emailExtractor;
+    private final CourseTableCache courseTableCache;
 
     @Autowired
-    public ViewCoursesController(CourseLogic courseLogic, UserLogic userLogic, EmailExtractor emailExtractor) {
+    public ViewCoursesController(CourseLogic courseLogic, UserLogic userLogic, EmailExtractor emailExtractor,
+                                 CourseTableCache courseTableCache) {
         this.courseLogic = courseLogic;
         this.userLogic = userLogic;
         this.emailExtractor = emailExtractor;
+        this.courseTableCache = courseTableCache;
     }
 
     @GetMapping(value = "/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ModelAndView viewAllCourses(@ModelAttribute DataNavigator dataNavigator) throws SQLException {
+    public ModelAndView viewAllCourses(@ModelAttribute DataNavigator dataNavigator, ServletWebRequest webRequest)
+            throws SQLException, ServletException, IOException {
         int quantityCourses = courseLogic.getQuantityCourses();
 
         dataNavigator.updateDataNavigator(quantityCourses);
         dataNavigator.setCurrentNamePage("viewCourses/all");
-        List<Course> courses = courseLogic.getCoursesPerPage(dataNavigator);
 
-        ModelAndView modelAndView = getModelAndViewForCourses(dataNavigator, courses);
+        ModelAndView modelAndView = getModelAndViewForCourses(dataNavigator, ALL_TEACHERS,
+                () -> courseLogic.getCoursesPerPage(dataNavigator), webRequest);
 
         LOGGER.debug("Received a list of all courses and transferred to the model");
 
@@ -58,16 +86,17 @@ public class ViewCoursesController {
 
     @GetMapping(value = "/teacher")
     @PreAuthorize("hasAnyRole('ADMIN','TEACHER')")
-    public ModelAndView viewTeacherCourses(@ModelAttribute DataNavigator dataNavigator) throws SQLException {
+    public ModelAndView viewTeacherCourses(@ModelAttribute DataNavigator dataNavigator, ServletWebRequest webRequest)
+            throws SQLException, ServletException, IOException {
         User currentUser = userLogic.getUserByEmail(emailExtractor.getEmailFromAuthentication())
                 .orElseThrow(() -> new PreAuthenticatedCredentialsNotFoundException("Not logged in: failed to get login details"));
         int quantityCourses = courseLogic.getQuantityCourses(currentUser);
 
         dataNavigator.updateDataNavigator(quantityCourses);
         dataNavigator.setCurrentNamePage("viewCourses/teacher");
-        List<Course> courses = courseLogic.getCoursesPerPage(dataNavigator, currentUser);
 
-        ModelAndView modelAndView = getModelAndViewForCourses(dataNavigator, courses);
+        ModelAndView modelAndView = getModelAndViewForCourses(dataNavigator, currentUser.getUserId(),
+                () -> courseLogic.getCoursesPerPage(dataNavigator, currentUser), webRequest);
 
         LOGGER.debug(String.format("Received a list of teacher %s courses and transferred to the model", currentUser));
 
@@ -79,14 +108,74 @@ public class ViewCoursesController {
         return new DataNavigator("viewCourses");
     }
 
-    private ModelAndView getModelAndViewForCourses(DataNavigator dataNavigator, List<Course> courses) {
+    private ModelAndView getModelAndViewForCourses(DataNavigator dataNavigator, int teacherId,
+                                                   Supplier<List<Course>> courses, ServletWebRequest webRequest)
+            throws ServletException, IOException {
         ModelAndView modelAndView = new ModelAndView();
+        HttpServletRequest request = webRequest.getRequest();
+        HttpServletResponse response = webRequest.getResponse();
+
+        String key = courseTableCache.getKey(teacherId, dataNavigator.getCurrentNumberPage(),
+                dataNavigator.getRowPerPage());
+        CourseTableCache.Fragment table = courseTableCache.get(key).orElse(null);
+        if (table == null) {
+            List<Course> page = courses.get();
+            modelAndView.addObject(COURSES, page);
+            table = courseTableCache.put(key, renderTable(page, request, response));
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (webRequest.checkNotModified(getETag(table, dataNavigator, request))) {
+            LOGGER.debug("Course table {} was not modified", key);
+            return null;
+        }
 
         modelAndView.addObject("viewCourses", dataNavigator);
-        modelAndView.addObject("courses", courses);
+        modelAndView.addObject(COURSE_TABLE, table.getHtml());
         modelAndView.setViewName(PAGE_JSP);
 
         return modelAndView;
     }
-}
 
+    private String renderTable(List<Course> courses, HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        StringWriter html = new StringWriter();
+        PrintWriter writer = new PrintWriter(html);
+        HttpServletResponseWrapper buffer = new HttpServletResponseWrapper(response) {
+            @Override
+            public PrintWriter getWriter() {
+                return writer;
+            }
+
+            @Override
+            public void flushBuffer() {
+                writer.flush();
+            }
+
+            @Override
+            public String encodeURL(String url) {
+                return url;
+            }
+        };
+
+        request.setAttribute(COURSES, courses);
+        try {
+            request.getRequestDispatcher(TABLE_JSP).include(request, buffer);
+        } finally {
+            request.removeAttribute(COURSES);
+        }
+        writer.flush();
+        return html.toString();
+    }
+
+    private String getETag(CourseTableCache.Fragment table, DataNavigator dataNavigator, HttpServletRequest request) {
+        CsrfToken csrfToken = (CsrfToken) request.getAttribute(CsrfToken.class.getName());
+        return Hashing.sha256().newHasher()
+                .putString(table.getHash(), StandardCharsets.UTF_8)
+                .putInt(dataNavigator.getCurrentNumberPage()).putInt(dataNavigator.getTotalPages())
+                .putInt(dataNavigator.getRowPerPage()).putInt(dataNavigator.getDataSize())
+                .putBoolean(request.isUserInRole("ADMIN"))
+                .putString(csrfToken == null ? "" : csrfToken.getToken(), StandardCharsets.UTF_8)
+                .hash().toString().substring(0, 32);
+    }
+}
@@ -16,7 +16,10 @@ import ua.com.vertex.beans.User;
 import ua.com.vertex.dao.interfaces.AccountingDaoInf;
 
 import javax.sql.DataSource;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static ua.com.vertex.dao.UserDaoImpl.*;
 
@@ -25,8 +28,11 @@ public class AccountingDaoImpl implements AccountingDaoInf {
 
     static final String COURSE_ID = "course_id";
     static final String USER_ID = "user_id";
+    private static final String DEAL_ID = "deal_id";
     private static final String COURSE_COAST = "course_coast";
     private static final String DEBT = "debt";
+    private static final String DEBT_TOTAL = "debt_total";
+    private static final String DEBTORS = "debtors";
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
     private static final Logger LOGGER = LogManager.getLogger(AccountingDaoImpl.class);
@@ -47,6 +53,21 @@ public class AccountingDaoImpl implements AccountingDaoInf {
                         setLastName(resultSet.getString(LAST_NAME)).getInstance());
     }
 
+    @Override
+    public List<User> getCourseDebtors(int courseId) {
+
+        LOGGER.debug(String.format("Try select users with debt by course id = (%s), from db.Accounting", courseId));
+
+        String query = "SELECT u.user_id, u.email, u.first_name, u.last_name FROM Users u" +
+                "  INNER JOIN Accounting a ON u.user_id = a.user_id WHERE course_id = :course_id AND debt > 0";
+        return jdbcTemplate.query(query, new MapSqlParameterSource(COURSE_ID, courseId),
+                (resultSet, i) -> new User.Builder().
+                        setUserId(resultSet.getInt(USER_ID)).
+                        setEmail(resultSet.getString(EMAIL)).
+                        setFirstName(resultSet.getString(FIRST_NAME)).
+                        setLastName(resultSet.getString(LAST_NAME)).getInstance());
+    }
+
     @Override
     @Transactional(propagation = Propagation.MANDATORY)
     public void updateUserDept(int courseId, int userId, double amount) {
@@ -59,9 +80,20 @@ public class AccountingDaoImpl implements AccountingDaoInf {
         source.addValue(COURSE_ID, courseId);
         source.addValue(USER_ID, userId);
 
+        List<Double> debts = jdbcTemplate.queryForList("SELECT debt FROM Accounting " +
+                "WHERE course_id = :course_id AND user_id = :user_id FOR UPDATE", source, Double.class);
+
         LOGGER.debug(String.format("Try update user dept by course id = (%s) and user id = (%s), from db.Accounting",
                 courseId, userId));
         jdbcTemplate.update(query, source);
+
+        double debtChange = 0;
+        int debtorsChange = 0;
+        for (double debt : debts) {
+            debtChange += getOutstanding(debt - amount) - getOutstanding(debt);
+            debtorsChange += getDebtors(debt - amount) - getDebtors(debt);
+        }
+        changeDebtSummary(courseId, debtChange, debtorsChange);
     }
 
     @Override
@@ -81,10 +113,158 @@ public class AccountingDaoImpl implements AccountingDaoInf {
         LOGGER.debug("Try to create accounting row with course id = ({}), user id = ({}), course coast and debt({})",
                 accounting.getCourseId(), accounting.getUserId(), accounting.getCourseCoast());
         jdbcTemplate.update(query, source, keyHolder);
+        changeDebtSummary(accounting.getCourseId(), getOutstanding(accounting.getCourseCoast()),
+                getDebtors(accounting.getCourseCoast()));
 
         return keyHolder.getKey().intValue();
     }
 
+    /**
+     * Opens the deal of the user with the course price as cost and debt. The price is copied by INSERT ... SELECT
+     * instead of being read from the course first. Returns false, with nothing written, when there is no such course.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean insertAccountingRowAtCoursePrice(int userId, int courseId) {
+        LOGGER.debug("Call - accountingDaoInf.insertAccountingRowAtCoursePrice({}, {});", userId, courseId);
+
+        String query = "INSERT INTO Accounting (user_id, course_id, course_coast, debt) " +
+                "SELECT :user_id, id, price, price FROM Courses WHERE id = :course_id";
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        MapSqlParameterSource source = new MapSqlParameterSource(USER_ID, userId);
+        source.addValue(COURSE_ID, courseId);
+
+        if (jdbcTemplate.update(query, source, keyHolder) == 0) {
+            LOGGER.debug("No course with id = ({}), accounting row was not created", courseId);
+            return false;
+        }
+        double debt = jdbcTemplate.queryForObject("SELECT debt FROM Accounting WHERE deal_id = :deal_id",
+                new MapSqlParameterSource(DEAL_ID, keyHolder.getKey().intValue()), Double.class);
+        changeDebtSummary(courseId, getOutstanding(debt), getDebtors(debt));
+        return true;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void insertAccountingRows(List<Accounting> accountings) {
+        LOGGER.debug("Call - accountingDaoInf.insertAccountingRows(), {} rows", accountings.size());
+
+        String query = "INSERT INTO  Accounting (user_id, course_id, course_coast, debt) " +
+                "VALUES (:user_id, :course_id, :course_coast, :debt)";
+
+        jdbcTemplate.batchUpdate(query, accountings.stream().map(accounting -> {
+            MapSqlParameterSource source = new MapSqlParameterSource(DEBT, accounting.getDebt());
+            source.addValue(COURSE_COAST, accounting.getCourseCoast());
+            source.addValue(COURSE_ID, accounting.getCourseId());
+            source.addValue(USER_ID, accounting.getUserId());
+            return source;
+        }).toArray(MapSqlParameterSource[]::new));
+
+        Map<Integer, List<Double>> debtsByCourse = accountings.stream().collect(Collectors.groupingBy(
+                Accounting::getCourseId, Collectors.mapping(Accounting::getDebt, Collectors.toList())));
+        debtsByCourse.forEach((courseId, debts) -> changeDebtSummary(courseId,
+                debts.stream().mapToDouble(this::getOutstanding).sum(),
+                debts.stream().mapToInt(this::getDebtors).sum()));
+    }
+
+    /**
+     * Returns the deals of the given users on the given courses. The result may also hold deals of other pairs of
+     * these courses and users, the caller picks the pairs it needs.
+     */
+    @Override
+    public List<Accounting> getDeals(Collection<Integer> courseIds, Collection<Integer> userIds) {
+        LOGGER.debug("Call - accountingDaoInf.getDeals(), {} courses, {} users", courseIds.size(), userIds.size());
+
+        String query = "SELECT deal_id, user_id, course_id, course_coast, debt FROM Accounting " +
+                "WHERE course_id IN (:course_id) AND user_id IN (:user_id)";
+
+        MapSqlParameterSource source = new MapSqlParameterSource(COURSE_ID, courseIds);
+        source.addValue(USER_ID, userIds);
+        return jdbcTemplate.query(query, source, (resultSet, i) -> new Accounting(resultSet.getInt(DEAL_ID),
+                resultSet.getInt(USER_ID), resultSet.getInt(COURSE_ID), resultSet.getDouble(COURSE_COAST),
+                resultSet.getDouble(DEBT)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void decreaseDebts(Map<Integer, Double> amountsByDeal) {
+        LOGGER.debug("Call - accountingDaoInf.decreaseDebts(), {} deals", amountsByDeal.size());
+
+        String query = "SELECT deal_id, course_id, debt FROM Accounting WHERE deal_id IN (:deal_id) FOR UPDATE";
+        List<Accounting> deals = jdbcTemplate.query(query, new MapSqlParameterSource(DEAL_ID, amountsByDeal.keySet()),
+                (resultSet, i) -> new Accounting(resultSet.getInt(DEAL_ID), 0, resultSet.getInt(COURSE_ID), 0,
+                        resultSet.getDouble(DEBT)));
+
+        jdbcTemplate.batchUpdate("UPDATE Accounting SET debt = debt - :debt WHERE deal_id = :deal_id",
+                deals.stream().map(deal -> {
+                    MapSqlParameterSource source = new MapSqlParameterSource(DEAL_ID, deal.getDealId());
+                    source.addValue(DEBT, amountsByDeal.get(deal.getDealId()));
+                    return source;
+                }).toArray(MapSqlParameterSource[]::new));
+
+        deals.stream().collect(Collectors.groupingBy(Accounting::getCourseId)).forEach((courseId, courseDeals) -> {
+            double debtChange = 0;
+            int debtorsChange = 0;
+            for (Accounting deal : courseDeals) {
+                double debt = deal.getDebt() - amountsByDeal.get(deal.getDealId());
+                debtChange += getOutstanding(debt) - getOutstanding(deal.getDebt());
+                debtorsChange += getDebtors(debt) - getDebtors(deal.getDebt());
+            }
+            changeDebtSummary(courseId, debtChange, debtorsChange);
+        });
+    }
+
+    /**
+     * Adds summary rows of courses that have none and recounts every course from Accounting. Repairs drift from
+     * rows written outside the application and from rounding of the incremental updates.
+     */
+    @Override
+    @Transactional
+    public void reconcileDebtSummary() {
+        String insertQuery = "INSERT INTO Course_debt_summary (course_id, debt_total, debtors) " +
+                "SELECT c.id, 0, 0 FROM Courses c " +
+                "WHERE NOT EXISTS (SELECT 1 FROM Course_debt_summary s WHERE s.course_id = c.id)";
+        String updateQuery = "UPDATE Course_debt_summary SET " +
+                "debt_total = (SELECT COALESCE(SUM(a.debt), 0) FROM Accounting a " +
+                "WHERE a.course_id = Course_debt_summary.course_id AND a.debt > 0), " +
+                "debtors = (SELECT COUNT(*) FROM Accounting a " +
+                "WHERE a.course_id = Course_debt_summary.course_id AND a.debt > 0)";
+
+        int inserted = jdbcTemplate.update(insertQuery, new MapSqlParameterSource());
+        int updated = jdbcTemplate.update(updateQuery, new MapSqlParameterSource());
+        LOGGER.debug("Course debt summary reconciled, {} rows added, {} rows updated", inserted, updated);
+    }
+
+    /**
+     * Applies a change of the outstanding debt and of the number of debts to the summary row of the course, in the
+     * transaction that changed Accounting. A missing row is created from Accounting, which already holds the change.
+     */
+    private void changeDebtSummary(int courseId, double debtChange, int debtorsChange) {
+        if (debtChange == 0 && debtorsChange == 0) {
+            return;
+        }
+        MapSqlParameterSource source = new MapSqlParameterSource(COURSE_ID, courseId);
+        source.addValue(DEBT_TOTAL, debtChange);
+        source.addValue(DEBTORS, debtorsChange);
+
+        String query = "UPDATE Course_debt_summary SET debt_total = debt_total + :debt_total, " +
+                "debtors = debtors + :debtors WHERE course_id = :course_id";
+        if (jdbcTemplate.update(query, source) == 0) {
+            jdbcTemplate.update("INSERT INTO Course_debt_summary (course_id, debt_total, debtors) " +
+                    "SELECT :course_id, COALESCE(SUM(debt), 0), COUNT(*) FROM Accounting " +
+                    "WHERE course_id = :course_id AND debt > 0", source);
+        }
+    }
+
+    private double getOutstanding(double debt) {
+        return debt > 0 ? debt : 0;
+    }
+
+    private int getDebtors(double debt) {
+        return debt > 0 ? 1 : 0;
+    }
+
     @Autowired
     public AccountingDaoImpl(@Qualifier(value = "DS") DataSource dataSource) {
         this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
@@ -4,16 +4,20 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ua.com.vertex.beans.Certificate;
+import ua.com.vertex.beans.CertificateWithHolder;
+import ua.com.vertex.beans.User;
 import ua.com.vertex.dao.interfaces.CertificateDaoInf;
 
 import javax.sql.DataSource;
@@ -22,8 +26,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.LongConsumer;
 
 import static ua.com.vertex.dao.UserDaoImpl.EMAIL;
+import static ua.com.vertex.dao.UserDaoImpl.FIRST_NAME;
+import static ua.com.vertex.dao.UserDaoImpl.LAST_NAME;
 
 @Repository
 public class CertificateDaoImpl implements CertificateDaoInf {
@@ -34,6 +41,8 @@ public class CertificateDaoImpl implements CertificateDaoInf {
     private static final String COURSE_NAME = "course_name";
     private static final String LANGUAGE = "language";
     private static final String CERTIFICATE_UID = "certificate_uid";
+    private static final String HOLDER_ID = "holder_id";
+    private static final String COURSE_ID = "course_id";
 
     private static final Logger LOGGER = LogManager.getLogger(CertificateDaoImpl.class);
     private final NamedParameterJdbcTemplate jdbcTemplate;
@@ -76,6 +85,19 @@ public class CertificateDaoImpl implements CertificateDaoInf {
         return keyHolder.getKey().intValue();
     }
 
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addCertificates(List<Certificate> certificates) {
+        LOGGER.debug("Call - certificateDao.addCertificates(), {} certificates", certificates.size());
+
+        String query = "INSERT INTO Certificate (user_id, certification_date, course_name, language, certificate_uid)" +
+                "VALUES ( :user_id, :certification_date, :course_name, :language, :certificate_uid)";
+
+        jdbcTemplate.batchUpdate(query, certificates.stream()
+                .map(this::addParameterToMapSqlParameterSourceFromCertificate)
+                .toArray(MapSqlParameterSource[]::new));
+    }
+
     @Override
     public List<Certificate> getAllCertificatesByUserIdFullData(int userId) {
 
@@ -87,6 +109,16 @@ public class CertificateDaoImpl implements CertificateDaoInf {
         return jdbcTemplate.query(query, new MapSqlParameterSource(USER_ID, userId), new CertificateRowMapper());
     }
 
+    @Override
+    public List<Integer> getCertificateHolderIds(String courseName) {
+
+        String query = "SELECT DISTINCT user_id FROM Certificate WHERE course_name =:course_name AND user_id IS NOT NULL";
+
+        LOGGER.debug("Retrieved ids of users certified for course name=" + courseName);
+
+        return jdbcTemplate.queryForList(query, new MapSqlParameterSource(COURSE_NAME, courseName), Integer.class);
+    }
+
     @Override
     public Optional<Certificate> getCertificateById(int certificateId) {
 
@@ -106,7 +138,7 @@ public class CertificateDaoImpl implements CertificateDaoInf {
 
 
     @Override
-    public Optional<Certificate> getCertificateByUid(String certificateUid) {
+    public Optional<Certificate> getCertificateByUid(long certificateUid) {
 
         String query = "SELECT certification_id, certificate_uid, user_id, certification_date, course_name, language "
                 + "FROM Certificate WHERE certificate_uid =:certificate_uid";
@@ -115,7 +147,7 @@ public class CertificateDaoImpl implements CertificateDaoInf {
         try {
             certificate = jdbcTemplate.queryForObject(query,
                     new MapSqlParameterSource(CERTIFICATE_UID, certificateUid), new CertificateRowMapper());
-        } catch (IncorrectResultSizeDataAccessException | DataIntegrityViolationException e) {
+        } catch (IncorrectResultSizeDataAccessException e) {
             LOGGER.debug("No certificate in DB, UID = " + certificateUid);
         }
 
@@ -124,6 +156,76 @@ public class CertificateDaoImpl implements CertificateDaoInf {
         return Optional.ofNullable(certificate);
     }
 
+    @Override
+    public Optional<CertificateWithHolder> getCertificateWithHolderByUid(long certificateUid) {
+
+        String query = "SELECT c.certification_id, c.certificate_uid, c.user_id, c.certification_date, c.course_name, " +
+                "c.language, u.user_id AS holder_id, u.email, u.first_name, u.last_name " +
+                "FROM Certificate c LEFT JOIN Users u ON c.user_id = u.user_id WHERE c.certificate_uid =:certificate_uid";
+
+        CertificateWithHolder certificateWithHolder = null;
+        try {
+            certificateWithHolder = jdbcTemplate.queryForObject(query,
+                    new MapSqlParameterSource(CERTIFICATE_UID, certificateUid), new CertificateWithHolderRowMapper());
+        } catch (IncorrectResultSizeDataAccessException e) {
+            LOGGER.debug("No certificate in DB, UID = " + certificateUid);
+        }
+
+        LOGGER.debug("Retrieved certificate with holder, UID=" + certificateUid);
+
+        return Optional.ofNullable(certificateWithHolder);
+    }
+
+    @Override
+    public List<CertificateWithHolder> getCertificatesWithHolderByUserId(int userId) {
+
+        String query = "SELECT c.certification_id, c.certificate_uid, c.user_id, c.certification_date, c.course_name, " +
+                "c.language, u.user_id AS holder_id, u.email, u.first_name, u.last_name " +
+                "FROM Certificate c INNER JOIN Users u ON c.user_id = u.user_id WHERE c.user_id =:user_id " +
+                "ORDER BY c.certification_id";
+
+        LOGGER.debug("Retrieved all certificates with holder by user id=" + userId);
+
+        return jdbcTemplate.query(query, new MapSqlParameterSource(USER_ID, userId),
+                new CertificateWithHolderRowMapper());
+    }
+
+    @Override
+    public List<CertificateWithHolder> getCertificatesWithHolderByCourseId(int courseId) {
+
+        String query = "SELECT c.certification_id, c.certificate_uid, c.user_id, c.certification_date, c.course_name, " +
+                "c.language, u.user_id AS holder_id, u.email, u.first_name, u.last_name " +
+                "FROM Courses co INNER JOIN Course_users cu ON cu.course_id = co.id " +
+                "INNER JOIN Certificate c ON c.user_id = cu.user_id AND c.course_name = co.name " +
+                "INNER JOIN Users u ON c.user_id = u.user_id WHERE co.id =:course_id ORDER BY c.certification_id";
+
+        LOGGER.debug("Retrieved all certificates with holder by course id=" + courseId);
+
+        return jdbcTemplate.query(query, new MapSqlParameterSource(COURSE_ID, courseId),
+                new CertificateWithHolderRowMapper());
+    }
+
+    @Override
+    public void forEachCertificateUid(LongConsumer consumer) {
+        String query = "SELECT certificate_uid FROM Certificate";
+
+        jdbcTemplate.query(query,
+                (RowCallbackHandler) resultSet -> consumer.accept(resultSet.getLong(CERTIFICATE_UID)));
+        LOGGER.debug("All certificate UIDs were processed");
+    }
+
+    private static final class CertificateWithHolderRowMapper implements RowMapper<CertificateWithHolder> {
+        public CertificateWithHolder mapRow(ResultSet resultSet, int i) throws SQLException {
+            return new CertificateWithHolder(new CertificateRowMapper().mapRow(resultSet, i),
+                    new User.Builder()
+                            .setUserId(resultSet.getInt(HOLDER_ID))
+                            .setEmail(resultSet.getString(EMAIL))
+                            .setFirstName(resultSet.getString(FIRST_NAME))
+                            .setLastName(resultSet.getString(LAST_NAME))
+                            .getInstance());
+        }
+    }
+
     private static final class CertificateRowMapper implements RowMapper<Certificate> {
         public Certificate mapRow(ResultSet resultSet, int i) throws SQLException {
             return new Certificate.Builder()
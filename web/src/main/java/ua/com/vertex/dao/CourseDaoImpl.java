@@ -5,11 +5,13 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ua.com.vertex.beans.Course;
 import ua.com.vertex.beans.DtoCourseUser;
@@ -19,10 +21,15 @@ import ua.com.vertex.dao.interfaces.DaoUtilInf;
 import ua.com.vertex.utils.DataNavigator;
 
 import javax.sql.DataSource;
+import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static ua.com.vertex.dao.UserDaoImpl.*;
@@ -108,6 +115,18 @@ public class CourseDaoImpl implements CourseDaoInf {
     }
 
     @Override
+    public Map<Integer, Integer> getQuantityCoursesPerTeacher() {
+        LOGGER.debug("Get count courses per teacher");
+        String query = "SELECT teacher_id, count(*) AS quantity FROM Courses GROUP BY teacher_id";
+
+        Map<Integer, Integer> quantities = new HashMap<>();
+        jdbcTemplate.query(query, (RowCallbackHandler) resultSet ->
+                quantities.put(resultSet.getInt(TEACHER_ID), resultSet.getInt("quantity")));
+        return quantities;
+    }
+
+    @Override
+    @Transactional
     public int addCourse(Course course) {
         LOGGER.debug("Call - CourseDaoImpl.addCourse({})", course);
 
@@ -119,6 +138,8 @@ public class CourseDaoImpl implements CourseDaoInf {
         jdbcTemplate.update(query, getCourseParameters(course), keyHolder);
 
         Number id = keyHolder.getKey();
+        jdbcTemplate.update("INSERT INTO Course_debt_summary (course_id, debt_total, debtors) VALUES (:id, 0, 0)",
+                new MapSqlParameterSource(ID, id.intValue()));
         return id.intValue();
     }
 
@@ -138,9 +159,9 @@ public class CourseDaoImpl implements CourseDaoInf {
     public List<Course> getAllCoursesWithDept() {
         LOGGER.debug("Call - courseDaoInf.getAllCoursesWithDept()");
 
-        String query = "SELECT DISTINCT c.id, c.name, c.start, c.finished, c.price, c.teacher_id, c.notes, u.first_name," +
-                " u.last_name, u.email FROM Courses c  INNER JOIN Users u ON u.user_id = c.teacher_id " +
-                "INNER JOIN Accounting a ON  a.course_id = c.id WHERE a.debt > 0";
+        String query = "SELECT c.id, c.name, c.start, c.finished, c.price, c.teacher_id, c.notes, u.first_name, " +
+                "u.last_name, u.email FROM Course_debt_summary s INNER JOIN Courses c ON c.id = s.course_id " +
+                "INNER JOIN Users u ON u.user_id = c.teacher_id WHERE s.debtors > 0";
 
         LOGGER.debug("Try select all courses where user has dept.");
         return jdbcTemplate.query(query, (resultSet, i) -> new Course.Builder()
@@ -158,17 +179,30 @@ public class CourseDaoImpl implements CourseDaoInf {
     }
 
     @Override
-    public List<Course> searchCourseByNameAndStatus(String name, boolean isFinished) {
-        LOGGER.debug("Call courseDaoInf.searchCourseByNameAndStatus({}, {})", name, isFinished);
+    public List<Course> getCoursesByIds(List<Integer> courseIds) {
+        LOGGER.debug("Call courseDaoInf.getCoursesByIds({})", courseIds);
 
         String query = "SELECT c.id, c.name, c.start, c.finished, c.price, c.teacher_id, c.schedule, c.notes, " +
                 "u.first_name, u.last_name, u.email FROM Courses c INNER JOIN Users u ON c.teacher_id = u.user_id " +
-                "WHERE c.finished = :finished AND c.name LIKE :courseName";
-        MapSqlParameterSource source = new MapSqlParameterSource(FINISHED, isFinished ? 1 : 0);
-        source.addValue("courseName", "%" + name + "%");
+                "WHERE c.id IN (:courseIds)";
 
-        LOGGER.debug(String.format("Search course by name - (%s) and finished - (%s).", name, isFinished));
-        return jdbcTemplate.query(query, source, (resultSet, i) -> mapCourses(resultSet));
+        return jdbcTemplate.query(query, new MapSqlParameterSource("courseIds", courseIds),
+                (resultSet, i) -> mapCourses(resultSet));
+    }
+
+    @Override
+    public void forEachCourse(Consumer<Course> consumer) {
+        String query = "SELECT id, name, start, finished FROM Courses";
+
+        jdbcTemplate.query(query, (RowCallbackHandler) resultSet -> {
+            Date start = resultSet.getDate(START);
+            consumer.accept(new Course.Builder()
+                    .setId(resultSet.getInt(ID))
+                    .setName(resultSet.getString(NAME))
+                    .setStart(start == null ? null : start.toLocalDate())
+                    .setFinished(resultSet.getInt(FINISHED) == 1).getInstance());
+        });
+        LOGGER.debug("All courses were processed");
     }
 
     @Override
@@ -191,6 +225,15 @@ public class CourseDaoImpl implements CourseDaoInf {
         return jdbcTemplate.update(query, source);
     }
 
+    @Override
+    public boolean lockCourse(int courseId) {
+        LOGGER.debug("Call courseDaoInf.lockCourse({})", courseId);
+
+        String query = "SELECT id FROM Courses WHERE id=:id FOR UPDATE";
+
+        return !jdbcTemplate.queryForList(query, new MapSqlParameterSource(ID, courseId), Integer.class).isEmpty();
+    }
+
     @Override
     public Optional<Course> getCourseById(int courseId) {
         LOGGER.debug("Call courseDaoInf.getCourseById({})", courseId);
@@ -247,6 +290,20 @@ public class CourseDaoImpl implements CourseDaoInf {
         return users;
     }
 
+    @Override
+    public List<User> getUsersAssignedToCourse(int courseId, List<Integer> userIds) {
+        LOGGER.debug("Retrieving users id=({}) assigned to the course id={}", userIds, courseId);
+
+        String query = "SELECT cu.user_id, u.email, u.first_name, u.last_name, u.phone FROM Course_users cu " +
+                "INNER JOIN Users u ON cu.user_id=u.user_id WHERE cu.course_id=:courseId AND cu.user_id IN (:userIds)";
+
+        MapSqlParameterSource mapSqlParameterSource = new MapSqlParameterSource();
+        mapSqlParameterSource.addValue(COURSE_ID, courseId);
+        mapSqlParameterSource.addValue("userIds", userIds);
+
+        return jdbcTemplate.query(query, mapSqlParameterSource, this::mapUser);
+    }
+
     private User mapUser(ResultSet resultSet, int i) throws SQLException {
         return new User.Builder()
                 .setUserId(resultSet.getInt("user_id"))
@@ -294,41 +351,58 @@ public class CourseDaoImpl implements CourseDaoInf {
     }
 
     @Override
-    public List<User> searchForUsersToAssign(DtoCourseUser dto) {
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void assignUsersToCourse(int courseId, List<Integer> userIds) {
+        LOGGER.debug("Assigning users id=({}) to the course id={}", userIds, courseId);
+
+        String query = "INSERT INTO Course_users (course_id, user_id) VALUES (:courseId, :userId)";
+
+        jdbcTemplate.batchUpdate(query, userIds.stream().map(userId -> {
+            MapSqlParameterSource mapSqlParameterSource = new MapSqlParameterSource();
+            mapSqlParameterSource.addValue(COURSE_ID, courseId);
+            mapSqlParameterSource.addValue(USER_ID, userId);
+            return mapSqlParameterSource;
+        }).toArray(MapSqlParameterSource[]::new));
+
+        LOGGER.debug("{} users were assigned to the course", userIds.size());
+    }
+
+    @Override
+    public List<User> searchUsers(DtoCourseUser dto) {
         LOGGER.debug("Searching for users to assign to the course by search param={}",
                 dto.getSearchParam());
 
         List<User> users;
-        String query = "";
+        String column = "";
         switch (dto.getSearchType()) {
             case "First Name":
-                query = "SELECT u.user_id, u.email, u.first_name, u.last_name, u.phone FROM Users u " +
-                        "WHERE u.first_name LIKE :searchParam AND " +
-                        "(SELECT count(*) FROM Course_users cu " +
-                        "WHERE cu.course_id=:courseId AND cu.user_id=u.user_id) = 0";
+                column = "first_name";
                 break;
             case "Last Name":
-                query = "SELECT u.user_id, u.email, u.first_name, u.last_name, u.phone FROM Users u " +
-                        "WHERE u.last_name LIKE :searchParam AND " +
-                        "(SELECT count(*) FROM Course_users cu " +
-                        "WHERE cu.course_id=:courseId AND cu.user_id=u.user_id) = 0";
+                column = "last_name";
                 break;
             case "Email":
-                query = "SELECT u.user_id, u.email, u.first_name, u.last_name, u.phone FROM Users u " +
-                        "WHERE u.email LIKE :searchParam AND " +
-                        "(SELECT count(*) FROM Course_users cu " +
-                        "WHERE cu.course_id=:courseId AND cu.user_id=u.user_id) = 0";
+                column = "email";
         }
-        MapSqlParameterSource mapSqlParameterSource = new MapSqlParameterSource();
-        mapSqlParameterSource.addValue(SEARCH_PARAM, "%" + dto.getSearchParam() + "%");
-        mapSqlParameterSource.addValue(COURSE_ID, dto.getCourseId());
+        String query = "SELECT u.user_id, u.email, u.first_name, u.last_name, u.phone FROM Users u " +
+                "WHERE u." + column + " LIKE :searchParam";
 
-        users = jdbcTemplate.query(query, mapSqlParameterSource, this::mapUser);
+        users = jdbcTemplate.query(query, new MapSqlParameterSource(SEARCH_PARAM, "%" + dto.getSearchParam() + "%"),
+                this::mapUser);
         LOGGER.debug("Users retrieved with email=({})", userIdsToString(users));
 
         return users;
     }
 
+    @Override
+    public void forEachCourseUser(BiConsumer<Integer, Integer> consumer) {
+        String query = "SELECT course_id, user_id FROM Course_users";
+
+        jdbcTemplate.query(query, (RowCallbackHandler) resultSet ->
+                consumer.accept(resultSet.getInt("course_id"), resultSet.getInt("user_id")));
+        LOGGER.debug("All course users were processed");
+    }
+
     @Autowired
     public CourseDaoImpl(@Qualifier(value = "DS") DataSource dataSource, DaoUtilInf daoUtil) {
         this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
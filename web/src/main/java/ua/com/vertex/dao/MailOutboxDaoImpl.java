@@ -0,0 +1,168 @@
+package ua.com.vertex.dao;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import ua.com.vertex.beans.OutboxMail;
+import ua.com.vertex.dao.interfaces.MailOutboxDaoInf;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static ua.com.vertex.beans.OutboxMail.*;
+
+@Repository
+public class MailOutboxDaoImpl implements MailOutboxDaoInf {
+    private static final Logger LOGGER = LogManager.getLogger(MailOutboxDaoImpl.class);
+
+    private static final String ID = "id";
+    private static final String SENDER = "sender";
+    private static final String RECIPIENT = "recipient";
+    private static final String SUBJECT = "subject";
+    private static final String BODY = "body";
+    private static final String STATUS = "status";
+    private static final String ATTEMPTS = "attempts";
+    private static final String NEXT_ATTEMPT_TIME = "next_attempt_time";
+    private static final String CREATION_TIME = "creation_time";
+    private static final String LAST_ERROR = "last_error";
+    private static final String CLAIMED_TIME = "claimed_time";
+    private static final int MAX_ERROR_LENGTH = 999;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public long addMail(OutboxMail mail) {
+        LOGGER.debug("Call - mailOutboxDao.addMail({}) ;", mail.getRecipient());
+
+        String query = "INSERT INTO Mail_outbox (sender, recipient, subject, body, status, attempts, " +
+                "next_attempt_time, creation_time) VALUES (:sender, :recipient, :subject, :body, :status, 0, " +
+                ":next_attempt_time, :creation_time)";
+
+        LocalDateTime now = LocalDateTime.now();
+        MapSqlParameterSource source = new MapSqlParameterSource();
+        source.addValue(SENDER, mail.getSender());
+        source.addValue(RECIPIENT, mail.getRecipient());
+        source.addValue(SUBJECT, mail.getSubject());
+        source.addValue(BODY, mail.getBody());
+        source.addValue(STATUS, PENDING);
+        source.addValue(NEXT_ATTEMPT_TIME, now);
+        source.addValue(CREATION_TIME, now);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(query, source, keyHolder);
+
+        return keyHolder.getKey().longValue();
+    }
+
+    @Override
+    public List<OutboxMail> getMailsReadyToSend(LocalDateTime now, int limit) {
+        String query = "SELECT id, sender, recipient, subject, body, status, attempts, next_attempt_time, " +
+                "creation_time, last_error FROM Mail_outbox WHERE status = :status AND next_attempt_time <= :now " +
+                "ORDER BY next_attempt_time LIMIT :limit";
+
+        MapSqlParameterSource source = new MapSqlParameterSource(STATUS, PENDING);
+        source.addValue("now", now);
+        source.addValue("limit", limit);
+
+        return jdbcTemplate.query(query, source, this::mapOutboxMail);
+    }
+
+    @Override
+    public boolean claimMail(long id) {
+        String query = "UPDATE Mail_outbox SET status = :status, claimed_time = :claimed_time " +
+                "WHERE id = :id AND status = :expected";
+
+        MapSqlParameterSource source = new MapSqlParameterSource(ID, id);
+        source.addValue(STATUS, SENDING);
+        source.addValue(CLAIMED_TIME, LocalDateTime.now());
+        source.addValue("expected", PENDING);
+
+        return jdbcTemplate.update(query, source) == 1;
+    }
+
+    @Override
+    public void markSent(long id) {
+        String query = "UPDATE Mail_outbox SET status = :status, attempts = attempts + 1, last_error = NULL " +
+                "WHERE id = :id";
+
+        MapSqlParameterSource source = new MapSqlParameterSource(ID, id);
+        source.addValue(STATUS, SENT);
+
+        jdbcTemplate.update(query, source);
+        LOGGER.debug("Outbox mail id={} was sent", id);
+    }
+
+    @Override
+    public void markForRetry(long id, int attempts, LocalDateTime nextAttemptTime, String error) {
+        String query = "UPDATE Mail_outbox SET status = :status, attempts = :attempts, " +
+                "next_attempt_time = :next_attempt_time, last_error = :last_error WHERE id = :id";
+
+        MapSqlParameterSource source = new MapSqlParameterSource(ID, id);
+        source.addValue(STATUS, PENDING);
+        source.addValue(ATTEMPTS, attempts);
+        source.addValue(NEXT_ATTEMPT_TIME, nextAttemptTime);
+        source.addValue(LAST_ERROR, truncateError(error));
+
+        jdbcTemplate.update(query, source);
+        LOGGER.debug("Outbox mail id={} will be retried at {}", id, nextAttemptTime);
+    }
+
+    @Override
+    public void markDead(long id, int attempts, String error) {
+        String query = "UPDATE Mail_outbox SET status = :status, attempts = :attempts, last_error = :last_error " +
+                "WHERE id = :id";
+
+        MapSqlParameterSource source = new MapSqlParameterSource(ID, id);
+        source.addValue(STATUS, DEAD);
+        source.addValue(ATTEMPTS, attempts);
+        source.addValue(LAST_ERROR, truncateError(error));
+
+        jdbcTemplate.update(query, source);
+        LOGGER.warn("Outbox mail id={} moved to dead letters after {} attempts", id, attempts);
+    }
+
+    @Override
+    public int releaseClaimedMails(LocalDateTime claimedBefore) {
+        String query = "UPDATE Mail_outbox SET status = :status, claimed_time = NULL " +
+                "WHERE status = :claimed AND claimed_time < :claimed_time";
+
+        MapSqlParameterSource source = new MapSqlParameterSource(STATUS, PENDING);
+        source.addValue("claimed", SENDING);
+        source.addValue(CLAIMED_TIME, claimedBefore);
+
+        return jdbcTemplate.update(query, source);
+    }
+
+    private String truncateError(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    private OutboxMail mapOutboxMail(ResultSet resultSet, int i) throws SQLException {
+        return OutboxMail.builder()
+                .id(resultSet.getLong(ID))
+                .sender(resultSet.getString(SENDER))
+                .recipient(resultSet.getString(RECIPIENT))
+                .subject(resultSet.getString(SUBJECT))
+                .body(resultSet.getString(BODY))
+                .status(resultSet.getString(STATUS))
+                .attempts(resultSet.getInt(ATTEMPTS))
+                .nextAttemptTime(resultSet.getTimestamp(NEXT_ATTEMPT_TIME).toLocalDateTime())
+                .creationTime(resultSet.getTimestamp(CREATION_TIME).toLocalDateTime())
+                .lastError(resultSet.getString(LAST_ERROR))
+                .build();
+    }
+
+    @Autowired
+    public MailOutboxDaoImpl(@Qualifier(value = "DS") DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+}
@@ -5,21 +5,33 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ua.com.vertex.beans.Payment;
+import ua.com.vertex.beans.PaymentLedgerEntry;
+import ua.com.vertex.beans.StatementPayment;
 import ua.com.vertex.dao.interfaces.PaymentDaoInf;
 
 import javax.sql.DataSource;
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
 
 import static ua.com.vertex.dao.AccountingDaoImpl.COURSE_ID;
 import static ua.com.vertex.dao.AccountingDaoImpl.USER_ID;
+import static ua.com.vertex.dao.UserDaoImpl.*;
 
 @Repository
 public class PaymentDaoImpl implements PaymentDaoInf {
@@ -28,6 +40,17 @@ public class PaymentDaoImpl implements PaymentDaoInf {
     private static final String PAYMENT_ID = "payment_id";
     private static final String DEAL_ID = "deal_id";
     private static final String AMOUNT = "amount";
+    private static final String BANK_REFERENCE = "bank_reference";
+    private static final String PAYMENT_DATE = "payment_date";
+    private static final String BEFORE = "before";
+    private static final String LIMIT = "limit";
+    private static final String MYSQL = "MySQL";
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final String LEDGER_QUERY = "SELECT p.payment_id, p.payment_date, p.amount, p.bank_reference, " +
+            "a.deal_id, a.debt, a.course_id, c.name, a.user_id, u.email, u.first_name, u.last_name " +
+            "FROM Payments p INNER JOIN Accounting a ON a.deal_id = p.deal_id " +
+            "INNER JOIN Courses c ON c.id = a.course_id INNER JOIN Users u ON u.user_id = a.user_id ";
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
@@ -71,6 +94,90 @@ public class PaymentDaoImpl implements PaymentDaoInf {
         return Optional.ofNullable(result);
     }
 
+    @Override
+    public Set<String> getImportedReferences(Collection<String> references) {
+        LOGGER.debug("Call - paymentDaoInf.getImportedReferences(), {} references", references.size());
+        String query = "SELECT bank_reference FROM Payments WHERE bank_reference IN (:bank_reference)";
+
+        return new HashSet<>(jdbcTemplate.queryForList(query, new MapSqlParameterSource(BANK_REFERENCE, references),
+                String.class));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void insertStatementPayments(List<StatementPayment> payments) {
+        LOGGER.debug("Call - paymentDaoInf.insertStatementPayments(), {} payments", payments.size());
+        String query = "INSERT INTO Payments (deal_id, amount, bank_reference) " +
+                "VALUES (:deal_id, :amount, :bank_reference)";
+
+        jdbcTemplate.batchUpdate(query, payments.stream().map(payment -> {
+            MapSqlParameterSource source = new MapSqlParameterSource(DEAL_ID, payment.getDealId());
+            source.addValue(AMOUNT, payment.getAmount().doubleValue());
+            source.addValue(BANK_REFERENCE, payment.getReference());
+            return source;
+        }).toArray(MapSqlParameterSource[]::new));
+    }
+
+    @Override
+    public List<PaymentLedgerEntry> getUserPayments(int userId, int beforePaymentId, int limit) {
+        LOGGER.debug("Call - paymentDaoInf.getUserPayments({}, {}, {})", userId, beforePaymentId, limit);
+        String query = LEDGER_QUERY + "WHERE a.user_id = :user_id AND p.payment_id < :before " +
+                "ORDER BY p.payment_id DESC LIMIT :limit";
+
+        MapSqlParameterSource source = new MapSqlParameterSource(USER_ID, userId);
+        source.addValue(BEFORE, beforePaymentId);
+        source.addValue(LIMIT, limit);
+        return jdbcTemplate.query(query, source, new PaymentLedgerEntryRowMapper());
+    }
+
+    @Override
+    public List<PaymentLedgerEntry> getCoursePayments(int courseId, int beforePaymentId, int limit) {
+        LOGGER.debug("Call - paymentDaoInf.getCoursePayments({}, {}, {})", courseId, beforePaymentId, limit);
+        String query = LEDGER_QUERY + "WHERE a.course_id = :course_id AND p.payment_id < :before " +
+                "ORDER BY p.payment_id DESC LIMIT :limit";
+
+        MapSqlParameterSource source = new MapSqlParameterSource(COURSE_ID, courseId);
+        source.addValue(BEFORE, beforePaymentId);
+        source.addValue(LIMIT, limit);
+        return jdbcTemplate.query(query, source, new PaymentLedgerEntryRowMapper());
+    }
+
+    /**
+     * Passes payments of {@code from <= payment_date < to} to the consumer one by one while they are read. The
+     * statement is forward-only and read-only; on MySQL it streams rows from the server, elsewhere it fetches them
+     * in small batches, so the result is never held in memory as a whole.
+     */
+    @Override
+    public void forEachPayment(LocalDateTime from, LocalDateTime to, Consumer<PaymentLedgerEntry> consumer) {
+        LOGGER.debug("Call - paymentDaoInf.forEachPayment({}, {})", from, to);
+        String query = LEDGER_QUERY + "WHERE p.payment_date >= ? AND p.payment_date < ? " +
+                "ORDER BY p.payment_date, p.payment_id";
+        RowMapper<PaymentLedgerEntry> rowMapper = new PaymentLedgerEntryRowMapper();
+
+        jdbcTemplate.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(MYSQL.equals(connection.getMetaData().getDatabaseProductName())
+                    ? Integer.MIN_VALUE : EXPORT_FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(to));
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(rowMapper.mapRow(resultSet, 0)));
+        LOGGER.debug("All payments from {} to {} were processed", from, to);
+    }
+
+    private static final class PaymentLedgerEntryRowMapper implements RowMapper<PaymentLedgerEntry> {
+        public PaymentLedgerEntry mapRow(ResultSet resultSet, int i) throws SQLException {
+            Timestamp paymentDate = resultSet.getTimestamp(PAYMENT_DATE);
+            return new PaymentLedgerEntry(resultSet.getInt(PAYMENT_ID),
+                    paymentDate == null ? null : paymentDate.toLocalDateTime(),
+                    BigDecimal.valueOf(resultSet.getDouble(AMOUNT)), resultSet.getString(BANK_REFERENCE),
+                    resultSet.getInt(DEAL_ID), resultSet.getDouble("debt"), resultSet.getInt(COURSE_ID),
+                    resultSet.getString("name"), resultSet.getInt(USER_ID), resultSet.getString(EMAIL),
+                    resultSet.getString(FIRST_NAME), resultSet.getString(LAST_NAME));
+        }
+    }
+
     @Autowired
     public PaymentDaoImpl(@Qualifier(value = "DS") DataSource dataSource) {
         this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
@@ -3,12 +3,26 @@ package ua.com.vertex.dao.interfaces;
 import ua.com.vertex.beans.Accounting;
 import ua.com.vertex.beans.User;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface AccountingDaoInf {
     List<User> getCourseUsers(int courseId);
 
+    List<User> getCourseDebtors(int courseId);
+
     void updateUserDept(int courseId, int userId, double amount);
 
     int insertAccountingRow(Accounting accounting);
+
+    boolean insertAccountingRowAtCoursePrice(int userId, int courseId);
+
+    void insertAccountingRows(List<Accounting> accountings);
+
+    List<Accounting> getDeals(Collection<Integer> courseIds, Collection<Integer> userIds);
+
+    void decreaseDebts(Map<Integer, Double> amountsByDeal);
+
+    void reconcileDebtSummary();
 }
@@ -1,20 +1,34 @@
 package ua.com.vertex.dao.interfaces;
 
 import ua.com.vertex.beans.Certificate;
+import ua.com.vertex.beans.CertificateWithHolder;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.LongConsumer;
 
 public interface CertificateDaoInf {
 
     Optional<Certificate> getCertificateById(int certificateId);
 
-    Optional<Certificate> getCertificateByUid(String certificateUid);
+    Optional<Certificate> getCertificateByUid(long certificateUid);
+
+    Optional<CertificateWithHolder> getCertificateWithHolderByUid(long certificateUid);
 
     List<Certificate> getAllCertificatesByUserEmail(String eMail);
 
     int addCertificate(Certificate certificate);
 
+    void addCertificates(List<Certificate> certificates);
+
     List<Certificate> getAllCertificatesByUserIdFullData(int userId);
 
+    List<Integer> getCertificateHolderIds(String courseName);
+
+    List<CertificateWithHolder> getCertificatesWithHolderByUserId(int userId);
+
+    List<CertificateWithHolder> getCertificatesWithHolderByCourseId(int courseId);
+
+    void forEachCertificateUid(LongConsumer consumer);
+
 }
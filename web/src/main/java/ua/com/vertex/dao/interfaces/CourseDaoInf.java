@@ -6,7 +6,10 @@ import ua.com.vertex.beans.User;
 import ua.com.vertex.utils.DataNavigator;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public interface CourseDaoInf {
 
@@ -18,22 +21,34 @@ public interface CourseDaoInf {
 
     int getQuantityCourses(User teacher);
 
+    Map<Integer, Integer> getQuantityCoursesPerTeacher();
+
     int addCourse(Course course);
 
     List<Course> getAllCoursesWithDept();
 
-    List<Course> searchCourseByNameAndStatus(String name, boolean isFinished);
+    List<Course> getCoursesByIds(List<Integer> courseIds);
+
+    void forEachCourse(Consumer<Course> consumer);
 
     int updateCourseExceptPrice(Course course);
 
     Optional<Course> getCourseById(int courseId);
 
+    boolean lockCourse(int courseId);
+
     List<User> getUsersAssignedToCourse(int courseId);
 
+    List<User> getUsersAssignedToCourse(int courseId, List<Integer> userIds);
+
     void removeUserFromCourse(DtoCourseUser dto);
 
     void assignUserToCourse(DtoCourseUser dto);
 
-    List<User> searchForUsersToAssign(DtoCourseUser dto);
+    void assignUsersToCourse(int courseId, List<Integer> userIds);
+
+    List<User> searchUsers(DtoCourseUser dto);
+
+    void forEachCourseUser(BiConsumer<Integer, Integer> consumer);
 
 }
@@ -0,0 +1,23 @@
+package ua.com.vertex.dao.interfaces;
+
+import ua.com.vertex.beans.OutboxMail;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MailOutboxDaoInf {
+
+    long addMail(OutboxMail mail);
+
+    List<OutboxMail> getMailsReadyToSend(LocalDateTime now, int limit);
+
+    boolean claimMail(long id);
+
+    void markSent(long id);
+
+    void markForRetry(long id, int attempts, LocalDateTime nextAttemptTime, String error);
+
+    void markDead(long id, int attempts, String error);
+
+    int releaseClaimedMails(LocalDateTime claimedBefore);
+}
@@ -1,12 +1,29 @@
 package ua.com.vertex.dao.interfaces;
 
 import ua.com.vertex.beans.Payment;
+import ua.com.vertex.beans.PaymentLedgerEntry;
+import ua.com.vertex.beans.StatementPayment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface PaymentDaoInf {
 
     int createNewPayment(int courseId, int userId, Payment payment);
 
     Optional<Payment> getPaymentByIdWithOutDate(int paymentId);
+
+    Set<String> getImportedReferences(Collection<String> references);
+
+    void insertStatementPayments(List<StatementPayment> payments);
+
+    List<PaymentLedgerEntry> getUserPayments(int userId, int beforePaymentId, int limit);
+
+    List<PaymentLedgerEntry> getCoursePayments(int courseId, int beforePaymentId, int limit);
+
+    void forEachPayment(LocalDateTime from, LocalDateTime to, Consumer<PaymentLedgerEntry> consumer);
 }
@@ -7,13 +7,24 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ua.com.vertex.beans.Certificate;
+import ua.com.vertex.beans.CertificateWithHolder;
+import ua.com.vertex.beans.Course;
+import ua.com.vertex.beans.CourseGraduation;
+import ua.com.vertex.beans.GraduationResult;
 import ua.com.vertex.beans.User;
 import ua.com.vertex.controllers.exceptionHandling.exceptions.NoCertificateException;
+import ua.com.vertex.dao.interfaces.AccountingDaoInf;
 import ua.com.vertex.dao.interfaces.CertificateDaoInf;
+import ua.com.vertex.dao.interfaces.CourseDaoInf;
 import ua.com.vertex.dao.interfaces.UserDaoInf;
 import ua.com.vertex.logic.interfaces.CertificateLogic;
+import ua.com.vertex.utils.CertificateUidGenerator;
+import ua.com.vertex.utils.CertificateVerificationCache;
+import ua.com.vertex.utils.RowCounts;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 public class CertificateLogicImpl implements CertificateLogic {
@@ -22,6 +33,11 @@ public class CertificateLogicImpl implements CertificateLogic {
 
     private final UserDaoInf userDaoInf;
     private final CertificateDaoInf certificateDaoInf;
+    private final CourseDaoInf courseDaoInf;
+    private final AccountingDaoInf accountingDaoInf;
+    private final CertificateUidGenerator certificateUidGenerator;
+    private final CertificateVerificationCache verificationCache;
+    private final RowCounts rowCounts;
 
     private static final String USER = "user";
     private static final String CERTIFICATE = "certificate";
@@ -37,6 +53,18 @@ public class CertificateLogicImpl implements CertificateLogic {
         return certificateDaoInf.getAllCertificatesByUserIdFullData(userId);
     }
 
+    @Override
+    public List<CertificateWithHolder> getCertificatesWithHolderByUserId(int userId) {
+        LOGGER.debug(String.format("Call - certificateDao.getCertificatesWithHolderByUserId(%d);", userId));
+        return certificateDaoInf.getCertificatesWithHolderByUserId(userId);
+    }
+
+    @Override
+    public List<CertificateWithHolder> getCertificatesWithHolderByCourseId(int courseId) {
+        LOGGER.debug(String.format("Call - certificateDao.getCertificatesWithHolderByCourseId(%d);", courseId));
+        return certificateDaoInf.getCertificatesWithHolderByCourseId(courseId);
+    }
+
     public Optional<Certificate> getCertificateById(int certificateId) {
         LOGGER.debug(String.format("Call - certificateDao.getCertificateById(%s);", Integer.toString(certificateId)));
         return certificateDaoInf.getCertificateById(certificateId);
@@ -44,46 +72,117 @@ public class CertificateLogicImpl implements CertificateLogic {
 
     public int addCertificate(Certificate certificate) {
         LOGGER.debug(String.format("Call - certificateDaoInf.addCertificate(%s) ;", certificate));
-        certificate.setCertificateUid(generateCertificateUid());
-        return certificateDaoInf.addCertificate(certificate);
+        long certificateUid = certificateUidGenerator.nextUid();
+        certificate.setCertificateUid(String.valueOf(certificateUid));
+        int certificateId = certificateDaoInf.addCertificate(certificate);
+        verificationCache.register(certificateUid);
+        return certificateId;
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
     public int addCertificateAndCreateUser(Certificate certificate, User user) {
         LOGGER.debug(String.format("Call - userDaoInf.addUserForCreateCertificate(%s) ;", user));
         int userID = userDaoInf.addUserForCreateCertificate(user);
+        rowCounts.userAdded();
         certificate.setUserId(userID);
-        certificate.setCertificateUid(generateCertificateUid());
+        long certificateUid = certificateUidGenerator.nextUid();
+        certificate.setCertificateUid(String.valueOf(certificateUid));
 
         LOGGER.debug(String.format("Call - certificateDaoInf.addCertificate(%s) ;", certificate));
-        return certificateDaoInf.addCertificate(certificate);
+        int certificateId = certificateDaoInf.addCertificate(certificate);
+        verificationCache.register(certificateUid);
+        return certificateId;
     }
 
     @Override
-    public String generateCertificateUid() {
-        String part1 = String.valueOf(System.currentTimeMillis());
-        String part2 = String.valueOf(100 + new Random().nextInt(900));
+    @Transactional
+    public GraduationResult graduateCourse(CourseGraduation graduation) {
+        LOGGER.debug("Call - certificateLogic.graduateCourse({}) ;", graduation);
+
+        // The course row is locked before anything is read, so a repeated submit waits for the first one and then
+        // sees its certificates.
+        if (!courseDaoInf.lockCourse(graduation.getCourseId())) {
+            throw new NoSuchElementException("No course with selected id");
+        }
+        Course course = courseDaoInf.getCourseById(graduation.getCourseId())
+                .orElseThrow(() -> new NoSuchElementException("No course with selected id"));
+
+        Set<Integer> certified = new HashSet<>(certificateDaoInf.getCertificateHolderIds(course.getName()));
+        List<User> assigned = courseDaoInf.getUsersAssignedToCourse(course.getId());
+        List<User> users = assigned.stream().filter(user -> !certified.contains(user.getUserId()))
+                .collect(Collectors.toList());
+        int alreadyCertified = assigned.size() - users.size();
+        if (graduation.isDebtFreeOnly()) {
+            Set<Integer> debtors = accountingDaoInf.getCourseDebtors(course.getId()).stream()
+                    .map(User::getUserId).collect(Collectors.toSet());
+            users = users.stream().filter(user -> !debtors.contains(user.getUserId())).collect(Collectors.toList());
+        }
+
+        LocalDate today = LocalDate.now();
+        long[] uids = new long[users.size()];
+        List<Certificate> certificates = new ArrayList<>(users.size());
+        for (int i = 0; i < uids.length; i++) {
+            uids[i] = certificateUidGenerator.nextUid();
+            certificates.add(new Certificate.Builder()
+                    .setUserId(users.get(i).getUserId())
+                    .setCertificationDate(today)
+                    .setCourseName(course.getName())
+                    .setLanguage(graduation.getLanguage())
+                    .setCertificateUid(String.valueOf(uids[i]))
+                    .getInstance());
+        }
+
+        certificateDaoInf.addCertificates(certificates);
+        for (long uid : uids) {
+            verificationCache.register(uid);
+        }
+
+        LOGGER.debug("{} certificates were issued for course id={}, {} users already had one", certificates.size(),
+                course.getId(), alreadyCertified);
+        return new GraduationResult(certificates.size(), alreadyCertified);
+    }
 
-        return (part1 + part2).substring(0, 16);
+    @Override
+    public String generateCertificateUid() {
+        return String.valueOf(certificateUidGenerator.nextUid());
     }
 
     @Override
-    public Map<String, Object> getUserAndCertificate(String certificateUid) {
+    public Map<String, Object> getUserAndCertificate(long certificateUid) {
         LOGGER.debug("Processing request with certificateId=" + certificateUid);
 
+        if (!verificationCache.mightExist(certificateUid)) {
+            LOGGER.debug("Certificate UID=" + certificateUid + " was never issued");
+            throw new NoCertificateException();
+        }
+
+        CertificateWithHolder certificateWithHolder = verificationCache.get(certificateUid)
+                .orElseGet(() -> loadCertificateWithHolder(certificateUid));
+
         Map<String, Object> attributes = new HashMap<>();
-        Certificate certificate = certificateDaoInf.getCertificateByUid(certificateUid)
-                .orElseThrow(NoCertificateException::new);
-        User user = userDaoInf.getUser(certificate.getUserId()).orElse(new User());
-        attributes.put(CERTIFICATE, certificate);
-        attributes.put(USER, user);
+        attributes.put(CERTIFICATE, certificateWithHolder.getCertificate());
+        attributes.put(USER, certificateWithHolder.getHolder());
 
         return attributes;
     }
 
+    private CertificateWithHolder loadCertificateWithHolder(long certificateUid) {
+        CertificateWithHolder certificateWithHolder = certificateDaoInf.getCertificateWithHolderByUid(certificateUid)
+                .orElseThrow(NoCertificateException::new);
+        verificationCache.put(certificateUid, certificateWithHolder);
+        return certificateWithHolder;
+    }
+
     @Autowired
-    public CertificateLogicImpl(UserDaoInf userDaoInf, CertificateDaoInf certificateDaoInf) {
+    public CertificateLogicImpl(UserDaoInf userDaoInf, CertificateDaoInf certificateDaoInf, CourseDaoInf courseDaoInf,
+                                AccountingDaoInf accountingDaoInf, CertificateUidGenerator certificateUidGenerator,
+                                CertificateVerificationCache verificationCache, RowCounts rowCounts) {
         this.userDaoInf = userDaoInf;
         this.certificateDaoInf = certificateDaoInf;
+        this.courseDaoInf = courseDaoInf;
+        this.accountingDaoInf = accountingDaoInf;
+        this.certificateUidGenerator = certificateUidGenerator;
+        this.verificationCache = verificationCache;
+        this.rowCounts = rowCounts;
     }
 }
@@ -6,37 +6,56 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ua.com.vertex.beans.Accounting;
 import ua.com.vertex.beans.Course;
+import ua.com.vertex.beans.CourseSearchPage;
 import ua.com.vertex.beans.DtoCourseUser;
+import ua.com.vertex.beans.EnrolmentResult;
 import ua.com.vertex.beans.User;
 import ua.com.vertex.dao.interfaces.AccountingDaoInf;
 import ua.com.vertex.dao.interfaces.CourseDaoInf;
 import ua.com.vertex.logic.interfaces.CourseLogic;
+import ua.com.vertex.utils.CourseMembershipIndex;
+import ua.com.vertex.utils.CourseRosterCache;
+import ua.com.vertex.utils.CourseSearchIndex;
+import ua.com.vertex.utils.CourseTableCache;
 import ua.com.vertex.utils.DataNavigator;
+import ua.com.vertex.utils.RowCounts;
 
-import java.util.List;
-import java.util.NoSuchElementException;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class CourseLogicImpl implements CourseLogic {
 
     private final CourseDaoInf courseDaoInf;
     private final AccountingDaoInf accountingDaoInf;
+    private final RowCounts rowCounts;
+    private final CourseRosterCache rosterCache;
+    private final CourseMembershipIndex membershipIndex;
+    private final CourseSearchIndex searchIndex;
+    private final CourseTableCache courseTableCache;
 
     @Autowired
-    public CourseLogicImpl(CourseDaoInf courseDaoInf, AccountingDaoInf accountingDaoInf) {
+    public CourseLogicImpl(CourseDaoInf courseDaoInf, AccountingDaoInf accountingDaoInf, RowCounts rowCounts,
+                           CourseRosterCache rosterCache, CourseMembershipIndex membershipIndex,
+                           CourseSearchIndex searchIndex, CourseTableCache courseTableCache) {
         this.courseDaoInf = courseDaoInf;
         this.accountingDaoInf = accountingDaoInf;
+        this.rowCounts = rowCounts;
+        this.rosterCache = rosterCache;
+        this.membershipIndex = membershipIndex;
+        this.searchIndex = searchIndex;
+        this.courseTableCache = courseTableCache;
     }
 
     @Override
     public int getQuantityCourses() {
-        return courseDaoInf.getQuantityCourses();
+        return rowCounts.getCourses();
     }
 
     @Override
     public int getQuantityCourses(User teacher) {
-        return courseDaoInf.getQuantityCourses(teacher);
+        return rowCounts.getCourses(teacher.getUserId());
     }
 
     @Override
@@ -51,7 +70,12 @@ public class CourseLogicImpl implements CourseLogic {
 
     @Override
     public int addCourse(Course course) {
-        return courseDaoInf.addCourse(course);
+        int courseId = courseDaoInf.addCourse(course);
+        rowCounts.courseAdded(course.getTeacher().getUserId());
+        searchIndex.courseSaved(new Course.Builder().setId(courseId).setName(course.getName())
+                .setStart(course.getStart()).setFinished(course.isFinished()).getInstance());
+        courseTableCache.coursesChanged();
+        return courseId;
     }
 
     @Override
@@ -60,13 +84,33 @@ public class CourseLogicImpl implements CourseLogic {
     }
 
     @Override
-    public List<Course> searchCourseByNameAndStatus(String name, boolean isFinished) {
-        return courseDaoInf.searchCourseByNameAndStatus(name, isFinished);
+    public CourseSearchPage searchCourseByNameAndStatus(String name, boolean isFinished, int page, int pageSize) {
+        List<Integer> courseIds = searchIndex.search(name, isFinished);
+        int pageCount = Math.max(1, (courseIds.size() + pageSize - 1) / pageSize);
+        int currentPage = Math.min(Math.max(page, 1), pageCount);
+        List<Integer> pageIds = courseIds.subList(Math.min((currentPage - 1) * pageSize, courseIds.size()),
+                Math.min(currentPage * pageSize, courseIds.size()));
+
+        List<Course> courses = new ArrayList<>();
+        if (!pageIds.isEmpty()) {
+            Map<Integer, Course> found = courseDaoInf.getCoursesByIds(pageIds).stream()
+                    .collect(Collectors.toMap(Course::getId, Function.identity()));
+            pageIds.stream().map(found::get).filter(Objects::nonNull).forEach(courses::add);
+        }
+        return new CourseSearchPage(courses, currentPage, pageCount, courseIds.size());
     }
 
     @Override
+    @Transactional
     public int updateCourseExceptPrice(Course course) {
-        return courseDaoInf.updateCourseExceptPrice(course);
+        Optional<Course> previous = courseDaoInf.getCourseById(course.getId());
+        int updated = courseDaoInf.updateCourseExceptPrice(course);
+        if (updated > 0 && previous.isPresent()) {
+            rowCounts.courseTeacherChanged(previous.get().getTeacher().getUserId(), course.getTeacher().getUserId());
+            searchIndex.courseSaved(course);
+            courseTableCache.coursesChanged();
+        }
+        return updated;
     }
 
     @Override
@@ -76,28 +120,70 @@ public class CourseLogicImpl implements CourseLogic {
 
     @Override
     public List<User> getUsersAssignedToCourse(int courseId) {
-        return courseDaoInf.getUsersAssignedToCourse(courseId);
+        return rosterCache.getRoster(courseId);
     }
 
     @Override
     public void removeUserFromCourse(DtoCourseUser dto) {
         courseDaoInf.removeUserFromCourse(dto);
+        rosterCache.userRemoved(dto.getCourseId(), dto.getUserId());
+        membershipIndex.userRemoved(dto.getCourseId(), dto.getUserId());
     }
 
     @Override
     @Transactional
     public void assignUserToCourse(DtoCourseUser dto) {
+        if (!accountingDaoInf.insertAccountingRowAtCoursePrice(dto.getUserId(), dto.getCourseId())) {
+            throw new NoSuchElementException("No course with selected id");
+        }
         courseDaoInf.assignUserToCourse(dto);
-        Course course = courseDaoInf.getCourseById(dto.getCourseId())
+        rosterCache.userAssigned(dto.getCourseId(), dto.getUserId());
+        membershipIndex.userAssigned(dto.getCourseId(), dto.getUserId());
+    }
+
+    @Override
+    @Transactional
+    public EnrolmentResult assignUsersToCourse(int courseId, List<Integer> userIds) {
+        // Locking the course row serializes bulk enrolments into the same course, so the enrolments read below stay
+        // current until commit; any other concurrent insert is rejected by the unique (course_id, user_id) index.
+        if (!courseDaoInf.lockCourse(courseId)) {
+            throw new NoSuchElementException("No course with selected id");
+        }
+        Course course = courseDaoInf.getCourseById(courseId)
                 .orElseThrow(() -> new NoSuchElementException("No course with selected id"));
-        Accounting accounting = new Accounting(0, dto.getUserId(), course.getId(),
-                course.getPrice().doubleValue(), course.getPrice().doubleValue());
-        accountingDaoInf.insertAccountingRow(accounting);
+
+        List<Integer> enrolled = new ArrayList<>();
+        List<Integer> alreadyEnrolled = new ArrayList<>();
+        Set<Integer> requested = new LinkedHashSet<>(userIds);
+        if (requested.isEmpty()) {
+            return new EnrolmentResult(enrolled, alreadyEnrolled);
+        }
+
+        Set<Integer> assigned = courseDaoInf.getUsersAssignedToCourse(courseId, new ArrayList<>(requested)).stream()
+                .map(User::getUserId).collect(Collectors.toSet());
+        for (int userId : requested) {
+            if (assigned.contains(userId)) {
+                alreadyEnrolled.add(userId);
+            } else {
+                enrolled.add(userId);
+                membershipIndex.userAssigned(courseId, userId);
+            }
+        }
+
+        if (!enrolled.isEmpty()) {
+            double price = course.getPrice().doubleValue();
+            courseDaoInf.assignUsersToCourse(courseId, enrolled);
+            accountingDaoInf.insertAccountingRows(enrolled.stream()
+                    .map(userId -> new Accounting(0, userId, courseId, price, price))
+                    .collect(Collectors.toList()));
+            rosterCache.usersAssigned(courseId, enrolled);
+        }
+        return new EnrolmentResult(enrolled, alreadyEnrolled);
     }
 
     @Override
     public List<User> searchForUsersToAssign(DtoCourseUser dto) {
-        return courseDaoInf.searchForUsersToAssign(dto);
+        return membershipIndex.excludeMembers(dto.getCourseId(), courseDaoInf.searchUsers(dto));
     }
 
 }
@@ -0,0 +1,125 @@
+package ua.com.vertex.logic;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+import ua.com.vertex.beans.BulkMailProgress;
+import ua.com.vertex.beans.CourseNotification;
+import ua.com.vertex.beans.User;
+import ua.com.vertex.dao.interfaces.AccountingDaoInf;
+import ua.com.vertex.dao.interfaces.CourseDaoInf;
+import ua.com.vertex.logic.interfaces.CourseNotificationLogic;
+import ua.com.vertex.utils.BulkMailSender;
+import ua.com.vertex.utils.EmailTemplateEngine;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static ua.com.vertex.logic.RegistrationUserLogicImpl.OUR_EMAIL;
+
+@Service
+public class CourseNotificationLogicImpl implements CourseNotificationLogic {
+    private static final Logger LOGGER = LogManager.getLogger(CourseNotificationLogicImpl.class);
+    private static final long PROGRESS_EXPIRE_HOURS = 24;
+    private static final String NOTIFICATION_TEMPLATE = "courseNotification.body";
+
+    private final CourseDaoInf courseDaoInf;
+    private final AccountingDaoInf accountingDaoInf;
+    private final BulkMailSender bulkMailSender;
+    private final EmailTemplateEngine templateEngine;
+    private final Cache<String, BulkMailProgress> jobs = CacheBuilder.newBuilder()
+            .expireAfterWrite(PROGRESS_EXPIRE_HOURS, TimeUnit.HOURS).build();
+
+    @Value("${mail.bulk.connections}")
+    private int connections;
+
+    @Value("${mail.bulk.queue.size}")
+    private int queueSize;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(connections, connections, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder().setNameFormat("bulk-mail-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public BulkMailProgress notifyCourseUsers(CourseNotification notification) {
+        LOGGER.debug("Call - courseNotificationLogic.notifyCourseUsers({}) ;", notification);
+
+        List<User> users = notification.isDebtorsOnly()
+                ? accountingDaoInf.getCourseDebtors(notification.getCourseId())
+                : courseDaoInf.getUsersAssignedToCourse(notification.getCourseId());
+        Locale locale = LocaleContextHolder.getLocale();
+        List<SimpleMailMessage> messages = users.stream()
+                .map(user -> createMessage(user, notification, locale))
+                .collect(Collectors.toList());
+
+        BulkMailProgress progress = new BulkMailProgress(UUID.randomUUID().toString(), notification.getCourseId(),
+                messages.size());
+        jobs.put(progress.getJobId(), progress);
+        try {
+            executor.execute(() -> bulkMailSender.send(messages, progress));
+        } catch (RejectedExecutionException e) {
+            progress.addFailed(messages.size());
+            progress.finish();
+            LOGGER.warn("Bulk mail queue is full, notification of course id={} was rejected, job id={}",
+                    notification.getCourseId(), progress.getJobId());
+            return progress;
+        }
+
+        LOGGER.debug("Notification of {} users of course id={} was queued, job id={}", messages.size(),
+                notification.getCourseId(), progress.getJobId());
+        return progress;
+    }
+
+    @Override
+    public Optional<BulkMailProgress> getProgress(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    private SimpleMailMessage createMessage(User user, CourseNotification notification, Locale locale) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("firstName", user.getFirstName());
+        values.put("lastName", user.getLastName());
+        values.put("text", notification.getBody());
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(OUR_EMAIL);
+        message.setTo(user.getEmail());
+        message.setSubject(notification.getSubject());
+        message.setText(templateEngine.render(NOTIFICATION_TEMPLATE, locale, values));
+        return message;
+    }
+
+    @Autowired
+    public CourseNotificationLogicImpl(CourseDaoInf courseDaoInf, AccountingDaoInf accountingDaoInf,
+                                       BulkMailSender bulkMailSender, EmailTemplateEngine templateEngine) {
+        this.courseDaoInf = courseDaoInf;
+        this.accountingDaoInf = accountingDaoInf;
+        this.bulkMailSender = bulkMailSender;
+        this.templateEngine = templateEngine;
+    }
+}
@@ -6,40 +6,36 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.context.i18n.LocaleContextHolder;
 import ua.com.vertex.beans.UserFormRegistration;
 import ua.com.vertex.logic.interfaces.EmailLogic;
 import ua.com.vertex.logic.interfaces.UserLogic;
 import ua.com.vertex.utils.Aes;
+import ua.com.vertex.utils.EmailTemplateEngine;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 @Configuration
-@PropertySource("classpath:emailMessages.properties")
 @PropertySource("classpath:application.properties")
 class EmailLogicImpl implements EmailLogic {
     private static final Logger LOGGER = LogManager.getLogger(EmailLogicImpl.class);
     private static final String ENCRYPT_KEY = "VeRtEx AcAdeMy";
-    private final UserLogic userLogic;
-
-    @Value("${registration.header}")
-    private String header;
-
-    @Value("${registration.body}")
-    private String body;
+    private static final String REGISTRATION_TEMPLATE = "registration.body";
+    private static final String PASSWORD_RESET_TEMPLATE = "passwordReset.body";
 
-    @Value("${registration.confirmationLink}")
-    private String confirmationLink;
-
-    @Value("${registration.footer}")
-    private String footer;
+    private final UserLogic userLogic;
+    private final EmailTemplateEngine templateEngine;
 
     @Value("${passwordLinkExpire}")
     private int passwordLinkExpire;
 
     @Autowired
-    public EmailLogicImpl(UserLogic userLogic) {
+    public EmailLogicImpl(UserLogic userLogic, EmailTemplateEngine templateEngine) {
         this.userLogic = userLogic;
+        this.templateEngine = templateEngine;
     }
 
     @Override
@@ -53,10 +49,12 @@ class EmailLogicImpl implements EmailLogic {
             LOGGER.warn("While encrypting email any errors" + user.getEmail());
         }
 
-        return header + user.getFirstName() + " " + user.getLastName() + "." + "\n"
-                + body + "\n"
-                + confirmationLink + "http://localhost:8080/activationUser?activeUser=" + stringEmailAES + "\n"
-                + footer;
+        Map<String, Object> values = new HashMap<>();
+        values.put("firstName", user.getFirstName());
+        values.put("lastName", user.getLastName());
+        values.put("activationCode", stringEmailAES);
+
+        return templateEngine.render(REGISTRATION_TEMPLATE, LocaleContextHolder.getLocale(), values);
     }
 
     @Override
@@ -64,12 +62,12 @@ class EmailLogicImpl implements EmailLogic {
         String uuid = UUID.randomUUID().toString();
         long id = userLogic.setParamsToRestorePassword(email, uuid, LocalDateTime.now());
 
-        String passwordResetLink = String.format("http://localhost:8080/passwordEnterNew?id=%d&uuid=%s", id, uuid);
-        String passwordResetPage = "http://localhost:8080/resetPassword";
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", id);
+        values.put("uuid", uuid);
+        values.put("expireMinutes", passwordLinkExpire);
         LOGGER.debug("Message to reset password was compiled");
 
-        return String.format("You can use the following link to reset your password:%n%n%s%n%n" +
-                "If you don’t use this link within %d minutes, it will expire. " +
-                "To get a new password reset link, visit %s", passwordResetLink, passwordLinkExpire, passwordResetPage);
+        return templateEngine.render(PASSWORD_RESET_TEMPLATE, LocaleContextHolder.getLocale(), values);
     }
 }
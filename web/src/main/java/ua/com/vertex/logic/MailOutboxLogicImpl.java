@@ -0,0 +1,45 @@
+package ua.com.vertex.logic;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.com.vertex.beans.OutboxMail;
+import ua.com.vertex.dao.interfaces.MailOutboxDaoInf;
+import ua.com.vertex.logic.interfaces.MailOutboxLogic;
+import ua.com.vertex.utils.MailOutboxWorker;
+
+import java.util.Optional;
+
+import static ua.com.vertex.utils.UtilFunctions.runAfterCommit;
+
+@Service
+public class MailOutboxLogicImpl implements MailOutboxLogic {
+    private static final Logger LOGGER = LogManager.getLogger(MailOutboxLogicImpl.class);
+
+    private final MailOutboxDaoInf mailOutboxDao;
+    private final Optional<MailOutboxWorker> mailOutboxWorker;
+
+    @Override
+    @Transactional
+    public long addMail(String from, String to, String subject, String body) {
+        LOGGER.debug("Putting a message for {} into the mail outbox", to);
+
+        long id = mailOutboxDao.addMail(OutboxMail.builder()
+                .sender(from)
+                .recipient(to)
+                .subject(subject)
+                .body(body)
+                .build());
+
+        mailOutboxWorker.ifPresent(worker -> runAfterCommit(worker::wakeUp));
+        return id;
+    }
+
+    @Autowired
+    public MailOutboxLogicImpl(MailOutboxDaoInf mailOutboxDao, Optional<MailOutboxWorker> mailOutboxWorker) {
+        this.mailOutboxDao = mailOutboxDao;
+        this.mailOutboxWorker = mailOutboxWorker;
+    }
+}
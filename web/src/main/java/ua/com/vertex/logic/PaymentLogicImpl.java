@@ -3,11 +3,21 @@ package ua.com.vertex.logic;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ua.com.vertex.beans.Accounting;
 import ua.com.vertex.beans.PaymentForm;
+import ua.com.vertex.beans.PaymentImportResult;
+import ua.com.vertex.beans.PaymentLedgerEntry;
+import ua.com.vertex.beans.PaymentLedgerPage;
+import ua.com.vertex.beans.StatementPayment;
 import ua.com.vertex.dao.interfaces.AccountingDaoInf;
 import ua.com.vertex.dao.interfaces.PaymentDaoInf;
 import ua.com.vertex.logic.interfaces.PaymentLogic;
 
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
 @Service
 public class PaymentLogicImpl implements PaymentLogic {
 
@@ -24,6 +34,87 @@ public class PaymentLogicImpl implements PaymentLogic {
                 payment.getPayment());
     }
 
+    /**
+     * Records a chunk of statement payments with one lookup of the imported references, one lookup of the deals,
+     * one batch of Payments inserts and one batch of debt updates. Payments whose reference is already recorded are
+     * skipped, payments without a deal for their course and user are returned as unmatched.
+     */
+    @Override
+    @Transactional
+    public PaymentImportResult importStatementPayments(List<StatementPayment> payments) {
+        PaymentImportResult result = new PaymentImportResult();
+        if (payments.isEmpty()) {
+            return result;
+        }
+
+        Set<String> references = new HashSet<>(paymentDaoInf.getImportedReferences(
+                payments.stream().map(StatementPayment::getReference).collect(Collectors.toSet())));
+        Map<String, Integer> deals = accountingDaoInf.getDeals(
+                payments.stream().map(StatementPayment::getCourseId).collect(Collectors.toSet()),
+                payments.stream().map(StatementPayment::getUserId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(deal -> getDealKey(deal.getCourseId(), deal.getUserId()),
+                        Accounting::getDealId, (first, second) -> first));
+
+        List<StatementPayment> matched = new ArrayList<>();
+        Map<Integer, Double> amountsByDeal = new HashMap<>();
+        for (StatementPayment payment : payments) {
+            Integer dealId = deals.get(getDealKey(payment.getCourseId(), payment.getUserId()));
+            if (dealId == null) {
+                result.getUnmatched().add(payment);
+            } else if (!references.add(payment.getReference())) {
+                result.setAlreadyImported(result.getAlreadyImported() + 1);
+            } else {
+                payment.setDealId(dealId);
+                matched.add(payment);
+                amountsByDeal.merge(dealId, payment.getAmount().doubleValue(), Double::sum);
+            }
+        }
+
+        if (!matched.isEmpty()) {
+            paymentDaoInf.insertStatementPayments(matched);
+            accountingDaoInf.decreaseDebts(amountsByDeal);
+        }
+        result.setImported(matched.size());
+        return result;
+    }
+
+    @Override
+    public PaymentLedgerPage getUserLedger(int userId, int beforePaymentId, int pageSize) {
+        return getLedgerPage(paymentDaoInf.getUserPayments(userId, getBefore(beforePaymentId), pageSize + 1),
+                pageSize);
+    }
+
+    @Override
+    public PaymentLedgerPage getCourseLedger(int courseId, int beforePaymentId, int pageSize) {
+        return getLedgerPage(paymentDaoInf.getCoursePayments(courseId, getBefore(beforePaymentId), pageSize + 1),
+                pageSize);
+    }
+
+    @Override
+    public void forEachPayment(LocalDate from, LocalDate to, Consumer<PaymentLedgerEntry> consumer) {
+        paymentDaoInf.forEachPayment(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), consumer);
+    }
+
+    /**
+     * Ledger pages are keyed by the smallest payment id shown, not by an offset, so reading a page costs the same
+     * however far back it is. One row more than a page is read to know whether there is a next page.
+     */
+    private PaymentLedgerPage getLedgerPage(List<PaymentLedgerEntry> entries, int pageSize) {
+        if (entries.size() <= pageSize) {
+            return new PaymentLedgerPage(entries, 0);
+        }
+        List<PaymentLedgerEntry> page = new ArrayList<>(entries.subList(0, pageSize));
+        return new PaymentLedgerPage(page, page.get(pageSize - 1).getPaymentId());
+    }
+
+    private int getBefore(int beforePaymentId) {
+        return beforePaymentId > 0 ? beforePaymentId : Integer.MAX_VALUE;
+    }
+
+    private String getDealKey(int courseId, int userId) {
+        return courseId + ":" + userId;
+    }
+
     @Autowired
     public PaymentLogicImpl(PaymentDaoInf paymentDaoInf, AccountingDaoInf accountingDaoInf) {
         this.paymentDaoInf = paymentDaoInf;
@@ -9,9 +9,9 @@ import org.springframework.validation.BindingResult;
 import ua.com.vertex.beans.User;
 import ua.com.vertex.beans.UserFormRegistration;
 import ua.com.vertex.logic.interfaces.EmailLogic;
+import ua.com.vertex.logic.interfaces.MailOutboxLogic;
 import ua.com.vertex.logic.interfaces.RegistrationUserLogic;
 import ua.com.vertex.logic.interfaces.UserLogic;
-import ua.com.vertex.utils.MailService;
 
 import java.util.Optional;
 
@@ -21,7 +21,7 @@ public class RegistrationUserLogicImpl implements RegistrationUserLogic {
     public static final String OUR_EMAIL = "vertex.academy.robot@gmail.com";
 
     private final UserLogic userLogic;
-    private final MailService mailService;
+    private final MailOutboxLogic mailOutboxLogic;
     private final EmailLogic emailLogic;
 
     @Override
@@ -48,17 +48,17 @@ public class RegistrationUserLogicImpl implements RegistrationUserLogic {
                 userLogic.registrationUserInsert(new User(userFormRegistration));
             }
             result = true;
-            LOGGER.debug("Sending a message to the user - " + userFormRegistration.getEmail());
-            mailService.sendMail(OUR_EMAIL, userFormRegistration.getEmail(), "Confirmation of registration",
+            LOGGER.debug("Queueing a message to the user - " + userFormRegistration.getEmail());
+            mailOutboxLogic.addMail(OUR_EMAIL, userFormRegistration.getEmail(), "Confirmation of registration",
                     emailLogic.createRegistrationMessage(userFormRegistration));
         }
         return result;
     }
 
     @Autowired
-    public RegistrationUserLogicImpl(UserLogic userLogic, MailService mailService, EmailLogic emailLogic) {
+    public RegistrationUserLogicImpl(UserLogic userLogic, MailOutboxLogic mailOutboxLogic, EmailLogic emailLogic) {
         this.userLogic = userLogic;
-        this.mailService = mailService;
+        this.mailOutboxLogic = mailOutboxLogic;
         this.emailLogic = emailLogic;
     }
 }
@@ -15,6 +15,7 @@ import ua.com.vertex.controllers.exceptionHandling.exceptions.MultipartValidatio
 import ua.com.vertex.dao.interfaces.UserDaoInf;
 import ua.com.vertex.logic.interfaces.UserLogic;
 import ua.com.vertex.utils.DataNavigator;
+import ua.com.vertex.utils.RowCounts;
 import ua.com.vertex.utils.UtilFunctions;
 
 import java.io.IOException;
@@ -32,6 +33,7 @@ public class UserLogicImpl implements UserLogic {
 
     private final UserDaoInf userDao;
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final RowCounts rowCounts;
 
     @Value("${image.size.bytes}")
     private int fileSizeInBytes;
@@ -114,7 +116,7 @@ public class UserLogicImpl implements UserLogic {
     }
 
     public int getQuantityUsers() {
-        return userDao.getQuantityUsers();
+        return rowCounts.getUsers();
     }
 
     @Override
@@ -149,6 +151,7 @@ public class UserLogicImpl implements UserLogic {
         LOGGER.debug(String.format("Call - userDao.registrationUserInsert(%s) ;", user));
         user.setPassword(encryptPassword(user.getPassword()));
         userDao.registrationUserInsert(user);
+        rowCounts.userAdded();
     }
 
     @Override
@@ -173,9 +176,10 @@ public class UserLogicImpl implements UserLogic {
     }
 
     @Autowired
-    public UserLogicImpl(UserDaoInf userDao, BCryptPasswordEncoder bCryptPasswordEncoder) {
+    public UserLogicImpl(UserDaoInf userDao, BCryptPasswordEncoder bCryptPasswordEncoder, RowCounts rowCounts) {
         this.userDao = userDao;
         this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+        this.rowCounts = rowCounts;
     }
 
     @Override
@@ -1,6 +1,9 @@
 package ua.com.vertex.logic.interfaces;
 
 import ua.com.vertex.beans.Certificate;
+import ua.com.vertex.beans.CertificateWithHolder;
+import ua.com.vertex.beans.CourseGraduation;
+import ua.com.vertex.beans.GraduationResult;
 import ua.com.vertex.beans.User;
 
 import java.util.List;
@@ -12,11 +15,17 @@ public interface CertificateLogic {
 
     List<Certificate> getAllCertificatesByUserIdFullData(int userId);
 
+    List<CertificateWithHolder> getCertificatesWithHolderByUserId(int userId);
+
+    List<CertificateWithHolder> getCertificatesWithHolderByCourseId(int courseId);
+
     int addCertificate(Certificate certificate);
 
     int addCertificateAndCreateUser(Certificate certificate, User user);
 
     String generateCertificateUid();
 
-    Map<String, Object> getUserAndCertificate(String certificateUid);
+    GraduationResult graduateCourse(CourseGraduation graduation);
+
+    Map<String, Object> getUserAndCertificate(long certificateUid);
 }
@@ -1,7 +1,9 @@
 package ua.com.vertex.logic.interfaces;
 
 import ua.com.vertex.beans.Course;
+import ua.com.vertex.beans.CourseSearchPage;
 import ua.com.vertex.beans.DtoCourseUser;
+import ua.com.vertex.beans.EnrolmentResult;
 import ua.com.vertex.beans.User;
 import ua.com.vertex.utils.DataNavigator;
 
@@ -22,7 +24,7 @@ public interface CourseLogic {
 
     List<Course> getAllCoursesWithDept();
 
-    List<Course> searchCourseByNameAndStatus(String name, boolean isFinished);
+    CourseSearchPage searchCourseByNameAndStatus(String name, boolean isFinished, int page, int pageSize);
 
     int updateCourseExceptPrice(Course course);
 
@@ -34,6 +36,8 @@ public interface CourseLogic {
 
     void assignUserToCourse(DtoCourseUser dto);
 
+    EnrolmentResult assignUsersToCourse(int courseId, List<Integer> userIds);
+
     List<User> searchForUsersToAssign(DtoCourseUser dto);
 
 }
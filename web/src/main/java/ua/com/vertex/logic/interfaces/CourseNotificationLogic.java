@@ -0,0 +1,13 @@
+package ua.com.vertex.logic.interfaces;
+
+import ua.com.vertex.beans.BulkMailProgress;
+import ua.com.vertex.beans.CourseNotification;
+
+import java.util.Optional;
+
+public interface CourseNotificationLogic {
+
+    BulkMailProgress notifyCourseUsers(CourseNotification notification);
+
+    Optional<BulkMailProgress> getProgress(String jobId);
+}
@@ -0,0 +1,6 @@
+package ua.com.vertex.logic.interfaces;
+
+public interface MailOutboxLogic {
+
+    long addMail(String from, String to, String subject, String body);
+}
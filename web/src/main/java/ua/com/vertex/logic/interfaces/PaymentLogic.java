@@ -1,7 +1,23 @@
 package ua.com.vertex.logic.interfaces;
 
 import ua.com.vertex.beans.PaymentForm;
+import ua.com.vertex.beans.PaymentImportResult;
+import ua.com.vertex.beans.PaymentLedgerEntry;
+import ua.com.vertex.beans.PaymentLedgerPage;
+import ua.com.vertex.beans.StatementPayment;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface PaymentLogic {
     int createNewPaymentAndUpdateAccounting(PaymentForm payment);
+
+    PaymentImportResult importStatementPayments(List<StatementPayment> payments);
+
+    PaymentLedgerPage getUserLedger(int userId, int beforePaymentId, int pageSize);
+
+    PaymentLedgerPage getCourseLedger(int courseId, int beforePaymentId, int pageSize);
+
+    void forEachPayment(LocalDate from, LocalDate to, Consumer<PaymentLedgerEntry> consumer);
 }
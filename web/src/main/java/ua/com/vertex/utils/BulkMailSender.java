@@ -0,0 +1,69 @@
+package ua.com.vertex.utils;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.RateLimiter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+import ua.com.vertex.beans.BulkMailProgress;
+
+import java.util.List;
+
+/**
+ * Sends large numbers of messages in batches. Every batch goes through a single {@link JavaMailSender#send}
+ * call, which opens one SMTP connection and reuses it for all messages of the batch instead of connecting per
+ * message. A rate limiter shared by all mailings keeps the total sending rate within the provider limits.
+ */
+@Component
+public class BulkMailSender {
+    private static final Logger LOGGER = LogManager.getLogger(BulkMailSender.class);
+
+    private final JavaMailSender mailSender;
+    private final int batchSize;
+    private final RateLimiter rateLimiter;
+
+    public void send(List<SimpleMailMessage> messages, BulkMailProgress progress) {
+        LOGGER.debug("Bulk sending of {} messages started, job id={}", messages.size(), progress.getJobId());
+
+        for (List<SimpleMailMessage> batch : Lists.partition(messages, batchSize)) {
+            rateLimiter.acquire(batch.size());
+            sendBatch(batch, progress);
+        }
+        progress.finish();
+
+        LOGGER.debug("Bulk sending finished: {}", progress);
+    }
+
+    private void sendBatch(List<SimpleMailMessage> batch, BulkMailProgress progress) {
+        try {
+            mailSender.send(batch.toArray(new SimpleMailMessage[batch.size()]));
+            progress.addSent(batch.size());
+        } catch (MailSendException e) {
+            int failed = e.getFailedMessages().isEmpty() ? batch.size() : e.getFailedMessages().size();
+            progress.addSent(batch.size() - failed);
+            progress.addFailed(failed);
+            LOGGER.warn(String.format("%d of %d messages were not sent, job id=%s", failed, batch.size(),
+                    progress.getJobId()), e);
+        } catch (MailException e) {
+            progress.addFailed(batch.size());
+            LOGGER.warn(String.format("Batch of %d messages was not sent, job id=%s", batch.size(),
+                    progress.getJobId()), e);
+        }
+    }
+
+    @Autowired
+    public BulkMailSender(@Qualifier(value = "mailSender") JavaMailSender mailSender,
+                          @Value("${mail.bulk.batch.size}") int batchSize,
+                          @Value("${mail.bulk.messages.per.second}") double messagesPerSecond) {
+        this.mailSender = mailSender;
+        this.batchSize = batchSize;
+        this.rateLimiter = RateLimiter.create(messagesPerSecond);
+    }
+}
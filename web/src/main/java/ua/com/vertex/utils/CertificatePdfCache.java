@@ -0,0 +1,189 @@
+package ua.com.vertex.utils;
+
+import com.google.common.hash.Hashing;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ua.com.vertex.beans.PdfDto;
+
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded on-disk cache of rendered certificates. A file name is made of the certificate UID and a hash of
+ * the layout version and of every rendered field, so a changed layout or holder name never hits a stale file.
+ * Files are written to a temporary name and atomically moved in place; the least recently used files are evicted
+ * once the total size exceeds the limit. An evicted file is deleted only after a delay, because a path returned by
+ * {@link #get} may be handed to Tomcat sendfile, which opens the file after the request has left the application.
+ */
+@Component
+public class CertificatePdfCache {
+    private static final Logger LOGGER = LogManager.getLogger(CertificatePdfCache.class);
+    private static final String PDF_SUFFIX = ".pdf";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final PdfGenerator pdfGenerator;
+    private final Path directory;
+    private final long maxBytes;
+    private final long deleteDelay;
+
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Long> pendingDeletes = new LinkedHashMap<>();
+    private long totalBytes;
+
+    @PostConstruct
+    public void load() throws IOException {
+        Files.createDirectories(directory);
+
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.forEach(files::add);
+        }
+        files.sort(Comparator.comparing(this::getLastModifiedMillis));
+
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            if (fileName.endsWith(PDF_SUFFIX)) {
+                register(fileName.substring(0, fileName.length() - PDF_SUFFIX.length()), Files.size(file));
+            } else if (fileName.endsWith(TMP_SUFFIX)) {
+                Files.deleteIfExists(file);
+            }
+        }
+        LOGGER.debug("Certificate PDF cache loaded {} files, {} bytes from {}", entries.size(), totalBytes, directory);
+    }
+
+    public String getKey(PdfDto dto) {
+        String uid = dto.getCertificateUid() == null ? "" : dto.getCertificateUid().replaceAll("\\D", "");
+        String hash = Hashing.sha256().newHasher()
+                .putString(pdfGenerator.getLayoutVersion(), StandardCharsets.UTF_8).putChar('\n')
+                .putString(String.valueOf(dto.getFirstName()), StandardCharsets.UTF_8).putChar('\n')
+                .putString(String.valueOf(dto.getLastName()), StandardCharsets.UTF_8).putChar('\n')
+                .putString(String.valueOf(dto.getCourseName()), StandardCharsets.UTF_8).putChar('\n')
+                .putString(String.valueOf(dto.getCertificationDate()), StandardCharsets.UTF_8).putChar('\n')
+                .putString(String.valueOf(dto.getCertificateUid()), StandardCharsets.UTF_8)
+                .hash().toString().substring(0, 16);
+        return uid + "-" + hash;
+    }
+
+    public Optional<Path> get(String key) {
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                return Optional.empty();
+            }
+        }
+        Path file = resolve(key);
+        if (Files.exists(file)) {
+            return Optional.of(file);
+        }
+        remove(key);
+        return Optional.empty();
+    }
+
+    public void put(String key, ByteArrayOutputStream pdf) {
+        synchronized (this) {
+            pendingDeletes.remove(key);
+        }
+
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(directory, key, TMP_SUFFIX);
+            try (OutputStream outputStream = Files.newOutputStream(tmp)) {
+                pdf.writeTo(outputStream);
+            }
+            Files.move(tmp, resolve(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOGGER.warn("Certificate PDF " + key + " was not cached", e);
+            deleteQuietly(tmp);
+            return;
+        }
+
+        int evicted = 0;
+        List<String> expired = new ArrayList<>();
+        synchronized (this) {
+            register(key, pdf.size());
+            long now = System.currentTimeMillis();
+            Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<String, Long> eldest = iterator.next();
+                if (!eldest.getKey().equals(key)) {
+                    totalBytes -= eldest.getValue();
+                    pendingDeletes.put(eldest.getKey(), now + deleteDelay);
+                    iterator.remove();
+                    evicted++;
+                }
+            }
+
+            Iterator<Map.Entry<String, Long>> pending = pendingDeletes.entrySet().iterator();
+            while (pending.hasNext()) {
+                Map.Entry<String, Long> eldest = pending.next();
+                if (eldest.getValue() > now) {
+                    break;
+                }
+                expired.add(eldest.getKey());
+                pending.remove();
+            }
+        }
+        expired.forEach(expiredKey -> deleteQuietly(resolve(expiredKey)));
+        if (evicted > 0) {
+            LOGGER.debug("{} certificate PDFs evicted from cache, {} files deleted", evicted, expired.size());
+        }
+    }
+
+    synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private synchronized void register(String key, long size) {
+        Long previous = entries.put(key, size);
+        totalBytes += size - (previous == null ? 0 : previous);
+    }
+
+    private synchronized void remove(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    private Path resolve(String key) {
+        return directory.resolve(key + PDF_SUFFIX);
+    }
+
+    private long getLastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Cached certificate PDF " + file + " was not deleted", e);
+        }
+    }
+
+    @Autowired
+    public CertificatePdfCache(PdfGenerator pdfGenerator, @Value("${pdf.cache.directory}") String directory,
+                               @Value("${pdf.cache.max.bytes}") long maxBytes,
+                               @Value("${pdf.cache.delete.delay.seconds}") long deleteDelay) {
+        this.pdfGenerator = pdfGenerator;
+        this.directory = Paths.get(directory);
+        this.maxBytes = maxBytes;
+        this.deleteDelay = TimeUnit.SECONDS.toMillis(deleteDelay);
+    }
+}
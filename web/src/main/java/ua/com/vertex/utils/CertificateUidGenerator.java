@@ -0,0 +1,67 @@
+package ua.com.vertex.utils;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates unique, monotonic certificate UIDs without locks.
+ * <p>
+ * A UID is a 53-bit number with the top bit always set, so every value has exactly 16 decimal digits and fits
+ * the BIGINT certificate_uid column. Below the top bit are 40 bits of milliseconds since 2018-01-01 (enough
+ * until 2052), a 10-bit sequence and a 2-bit node id. Time and sequence are kept together in one AtomicLong:
+ * when more than 1024 UIDs are requested within a millisecond the sequence carries into the time part, so the
+ * generator runs slightly ahead of the clock instead of blocking or repeating a value.
+ */
+@Component
+public class CertificateUidGenerator {
+    private static final long EPOCH = LocalDate.of(2018, 1, 1).atStartOfDay().toInstant(ZoneOffset.UTC)
+            .toEpochMilli();
+    private static final int NODE_BITS = 2;
+    private static final int SEQUENCE_BITS = 10;
+    private static final int TIME_BITS = 40;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long MAX_STATE = (1L << (TIME_BITS + SEQUENCE_BITS)) - 1;
+    private static final long PREFIX = 1L << (TIME_BITS + SEQUENCE_BITS + NODE_BITS);
+
+    private final long node;
+    private final AtomicLong state = new AtomicLong();
+
+    public long nextUid() {
+        long candidate = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = state.get();
+            next = candidate > previous ? candidate : previous + 1;
+        } while (!state.compareAndSet(previous, next));
+
+        if (next > MAX_STATE) {
+            throw new IllegalStateException("Certificate UID space is exhausted");
+        }
+        return PREFIX | next << NODE_BITS | node;
+    }
+
+    /**
+     * Returns the epoch millisecond a UID was issued at, or -1 when the UID was not produced by this generator
+     * (legacy UIDs have no time part).
+     */
+    public static long issuedAt(long uid) {
+        if (uid >>> (TIME_BITS + SEQUENCE_BITS + NODE_BITS) != 1) {
+            return -1;
+        }
+        return EPOCH + ((uid >> NODE_BITS & MAX_STATE) >> SEQUENCE_BITS);
+    }
+
+    @Autowired
+    public CertificateUidGenerator(@Value("${certificate.uid.node}") int node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException(String.format("Certificate UID node must be from 0 to %d", MAX_NODE));
+        }
+        this.node = node;
+    }
+}
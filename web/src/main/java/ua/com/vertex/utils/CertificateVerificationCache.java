@@ -0,0 +1,119 @@
+package ua.com.vertex.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ua.com.vertex.beans.CertificateWithHolder;
+import ua.com.vertex.dao.interfaces.CertificateDaoInf;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protects the public certificate verification pages from hitting the database for every request.
+ * A Bloom filter over all issued UIDs rejects unknown (random or guessed) UIDs without a query, and an LRU keeps
+ * recently verified certificates with their holder. The filter is filled at startup and on every new certificate,
+ * and is periodically rebuilt from the database to learn certificates issued by other instances. Until then, a UID
+ * whose time part is later than the start of the last rebuild is not rejected but looked up in the database.
+ */
+@Component
+public class CertificateVerificationCache {
+    private static final Logger LOGGER = LogManager.getLogger(CertificateVerificationCache.class);
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.001;
+    private static final long RECENT_UID_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final CertificateDaoInf certificateDaoInf;
+    private final int expectedUids;
+    private final long rebuildInterval;
+    private final Cache<Long, CertificateWithHolder> verified;
+
+    private volatile BloomFilter<Long> issuedUids;
+    private volatile long loadStartedAt;
+    private ScheduledExecutorService rebuilder;
+
+    @PostConstruct
+    public void start() {
+        load();
+        rebuilder = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("certificate-uid-filter-rebuilder").setDaemon(true).build());
+        rebuilder.scheduleWithFixedDelay(this::loadQuietly, rebuildInterval, rebuildInterval, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    public void load() {
+        long start = System.currentTimeMillis();
+        BloomFilter<Long> filter = createFilter();
+        certificateDaoInf.forEachCertificateUid(filter::put);
+        issuedUids = filter;
+        loadStartedAt = start;
+        LOGGER.info("Certificate UID filter was built in {} ms, ~{} UIDs", System.currentTimeMillis() - start,
+                filter.approximateElementCount());
+    }
+
+    public boolean mightExist(long certificateUid) {
+        return issuedUids.mightContain(certificateUid) || isIssuedSinceLoad(certificateUid);
+    }
+
+    public void register(long certificateUid) {
+        issuedUids.put(certificateUid);
+    }
+
+    public Optional<CertificateWithHolder> get(long certificateUid) {
+        return Optional.ofNullable(verified.getIfPresent(certificateUid));
+    }
+
+    public void put(long certificateUid, CertificateWithHolder certificateWithHolder) {
+        verified.put(certificateUid, certificateWithHolder);
+    }
+
+    private boolean isIssuedSinceLoad(long certificateUid) {
+        long issuedAt = CertificateUidGenerator.issuedAt(certificateUid);
+        return issuedAt != -1 && issuedAt >= loadStartedAt - RECENT_UID_MARGIN_MILLIS
+                && issuedAt <= System.currentTimeMillis() + RECENT_UID_MARGIN_MILLIS;
+    }
+
+    private void loadQuietly() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            LOGGER.error("Certificate UID filter rebuild failed", e);
+        }
+    }
+
+    private BloomFilter<Long> createFilter() {
+        return BloomFilter.create(Funnels.longFunnel(), expectedUids, FALSE_POSITIVE_PROBABILITY);
+    }
+
+    @Autowired
+    public CertificateVerificationCache(CertificateDaoInf certificateDaoInf,
+                                        @Value("${certificate.cache.expected.uids}") int expectedUids,
+                                        @Value("${certificate.cache.size}") int cacheSize,
+                                        @Value("${certificate.cache.expire.minutes}") long expireMinutes,
+                                        @Value("${certificate.cache.rebuild.interval.minutes}") long rebuildInterval) {
+        this.certificateDaoInf = certificateDaoInf;
+        this.expectedUids = expectedUids;
+        this.rebuildInterval = rebuildInterval;
+        this.issuedUids = createFilter();
+        this.verified = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(expireMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+}
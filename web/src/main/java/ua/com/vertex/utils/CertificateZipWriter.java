@@ -0,0 +1,159 @@
+package ua.com.vertex.utils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ua.com.vertex.beans.Certificate;
+import ua.com.vertex.beans.CertificateWithHolder;
+import ua.com.vertex.beans.PdfDto;
+import ua.com.vertex.beans.User;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams a ZIP archive of certificates. PDFs are rendered on a shared fixed pool and every archive keeps at most
+ * as many PDFs in flight as the pool has threads, so memory per download does not grow with the number of
+ * certificates. Entries are written in completion order; PDFs are already compressed, so they are stored as is.
+ */
+@Component
+public class CertificateZipWriter {
+    private static final Logger LOGGER = LogManager.getLogger(CertificateZipWriter.class);
+
+    private final PdfGenerator pdfGenerator;
+    private final CertificatePdfCache pdfCache;
+    private final int threads;
+    private final ExecutorService executor;
+
+    public int writeZip(List<CertificateWithHolder> certificates, OutputStream outputStream)
+            throws IOException, InterruptedException {
+
+        CompletionService<RenderedPdf> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<RenderedPdf>> submitted = new ArrayList<>(certificates.size());
+        Iterator<CertificateWithHolder> pending = certificates.iterator();
+        int inFlight = 0;
+        int written = 0;
+        boolean completed = false;
+
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        zip.setMethod(ZipOutputStream.STORED);
+        try {
+            while (inFlight < threads && pending.hasNext()) {
+                submitted.add(submit(completionService, pending.next()));
+                inFlight++;
+            }
+            while (inFlight > 0) {
+                Future<RenderedPdf> future = completionService.take();
+                inFlight--;
+                if (pending.hasNext()) {
+                    submitted.add(submit(completionService, pending.next()));
+                    inFlight++;
+                }
+                writeEntry(zip, getRendered(future));
+                written++;
+            }
+            zip.finish();
+            zip.flush();
+            completed = true;
+        } finally {
+            if (!completed) {
+                submitted.forEach(future -> future.cancel(true));
+            }
+        }
+
+        LOGGER.debug("{} certificates written to ZIP archive", written);
+        return written;
+    }
+
+    private Future<RenderedPdf> submit(CompletionService<RenderedPdf> completionService,
+                                       CertificateWithHolder certificate) {
+        return completionService.submit(() -> render(certificate));
+    }
+
+    private RenderedPdf render(CertificateWithHolder certificateWithHolder) throws Exception {
+        Certificate certificate = certificateWithHolder.getCertificate();
+        User holder = certificateWithHolder.getHolder();
+        PdfDto dto = new PdfDto(holder.getEmail(), holder.getFirstName(), holder.getLastName(),
+                certificate.getCourseName(), certificate.getCertificationDate().toString(),
+                certificate.getCertificateUid());
+        String name = "certificate_" + certificate.getCertificateUidWithoutDashes() + ".pdf";
+
+        String key = pdfCache.getKey(dto);
+        Optional<Path> cached = pdfCache.get(key);
+        if (cached.isPresent()) {
+            try {
+                return new RenderedPdf(name, Files.readAllBytes(cached.get()));
+            } catch (IOException e) {
+                LOGGER.debug("Cached certificate {} is not readable, rendering it again", cached.get());
+            }
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        pdfGenerator.generatePdf(buffer, dto);
+        pdfCache.put(key, buffer);
+        return new RenderedPdf(name, buffer.toByteArray());
+    }
+
+    private RenderedPdf getRendered(Future<RenderedPdf> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Certificate PDF can not be rendered", e.getCause());
+        }
+    }
+
+    private void writeEntry(ZipOutputStream zip, RenderedPdf pdf) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(pdf.content);
+
+        ZipEntry entry = new ZipEntry(pdf.name);
+        entry.setSize(pdf.content.length);
+        entry.setCompressedSize(pdf.content.length);
+        entry.setCrc(crc.getValue());
+
+        zip.putNextEntry(entry);
+        zip.write(pdf.content);
+        zip.closeEntry();
+        zip.flush();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private static class RenderedPdf {
+        private final String name;
+        private final byte[] content;
+
+        RenderedPdf(String name, byte[] content) {
+            this.name = name;
+            this.content = content;
+        }
+    }
+
+    @Autowired
+    public CertificateZipWriter(PdfGenerator pdfGenerator, CertificatePdfCache pdfCache,
+                                @Value("${pdf.zip.threads}") int threads) {
+        this.pdfGenerator = pdfGenerator;
+        this.pdfCache = pdfCache;
+        this.threads = threads;
+        this.executor = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("certificate-zip-%d").setDaemon(true).build());
+    }
+}
@@ -0,0 +1,60 @@
+package ua.com.vertex.utils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ua.com.vertex.dao.interfaces.AccountingDaoInf;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically recounts Course_debt_summary from Accounting. The summary is kept up to date by the Accounting
+ * writes themselves; this only repairs rows written outside the application and rounding drift.
+ */
+@Component
+public class CourseDebtSummaryReconciler {
+    private static final Logger LOGGER = LogManager.getLogger(CourseDebtSummaryReconciler.class);
+
+    private final AccountingDaoInf accountingDao;
+    private final long reconcileInterval;
+
+    private ScheduledExecutorService reconciler;
+
+    @PostConstruct
+    public void start() {
+        reconciler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("course-debt-reconciler").setDaemon(true).build());
+        reconciler.scheduleWithFixedDelay(this::reconcileQuietly, reconcileInterval, reconcileInterval,
+                TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            accountingDao.reconcileDebtSummary();
+        } catch (RuntimeException e) {
+            LOGGER.error("Course debt summary reconciliation failed", e);
+        }
+    }
+
+    @Autowired
+    public CourseDebtSummaryReconciler(AccountingDaoInf accountingDao,
+                                       @Value("${course.debt.summary.reconcile.interval.seconds}")
+                                               long reconcileInterval) {
+        this.accountingDao = accountingDao;
+        this.reconcileInterval = reconcileInterval;
+    }
+}
@@ -0,0 +1,169 @@
+package ua.com.vertex.utils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.com.vertex.beans.User;
+import ua.com.vertex.dao.interfaces.CourseDaoInf;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users enrolled in every course as compressed id bitmaps, built from Course_users at startup and kept up to date
+ * by assign and remove. Changes are visible at once, so the enrolling request already sees them, and are undone
+ * if the transaction rolls back. The index is periodically rebuilt from the database and swapped in, which repairs
+ * drift from enrolments made by other instances or outside the application; a change that commits while a rebuild
+ * is reading may be missed until the next rebuild.
+ */
+@Component
+public class CourseMembershipIndex {
+    private static final Logger LOGGER = LogManager.getLogger(CourseMembershipIndex.class);
+
+    private final CourseDaoInf courseDao;
+    private final long rebuildInterval;
+
+    private volatile Map<Integer, IdBitmap> members = new ConcurrentHashMap<>();
+    private ScheduledExecutorService rebuilder;
+
+    @PostConstruct
+    public void start() {
+        load();
+        rebuilder = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("course-membership-rebuilder").setDaemon(true).build());
+        rebuilder.scheduleWithFixedDelay(this::loadQuietly, rebuildInterval, rebuildInterval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    public void load() {
+        long start = System.currentTimeMillis();
+        Map<Integer, IdBitmap> loaded = new ConcurrentHashMap<>();
+        courseDao.forEachCourseUser((courseId, userId) ->
+                loaded.computeIfAbsent(courseId, id -> new IdBitmap()).add(userId));
+        members = loaded;
+        LOGGER.info("Course membership index was built in {} ms for {} courses", System.currentTimeMillis() - start,
+                loaded.size());
+    }
+
+    public boolean isMember(int courseId, int userId) {
+        IdBitmap bitmap = members.get(courseId);
+        if (bitmap == null) {
+            return false;
+        }
+        synchronized (bitmap) {
+            return bitmap.contains(userId);
+        }
+    }
+
+    /**
+     * Returns the candidates that are not enrolled in the course, keeping their order.
+     */
+    public List<User> excludeMembers(int courseId, List<User> candidates) {
+        IdBitmap bitmap = members.get(courseId);
+        if (bitmap == null) {
+            return candidates;
+        }
+        int[] ids = candidates.stream().mapToInt(User::getUserId).toArray();
+        int[] free;
+        synchronized (bitmap) {
+            free = bitmap.andNot(ids);
+        }
+        if (free.length == ids.length) {
+            return candidates;
+        }
+        List<User> result = new ArrayList<>(free.length);
+        for (int i = 0, j = 0; i < ids.length && j < free.length; i++) {
+            if (ids[i] == free[j]) {
+                result.add(candidates.get(i));
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Marks the user as enrolled. Returns false if the user already was, so concurrent enrolments of the same user
+     * can not both succeed.
+     */
+    public boolean userAssigned(int courseId, int userId) {
+        IdBitmap bitmap = getMembers(courseId);
+        boolean added;
+        synchronized (bitmap) {
+            added = bitmap.add(userId);
+        }
+        if (added) {
+            onRollback(() -> {
+                synchronized (bitmap) {
+                    bitmap.remove(userId);
+                }
+            });
+        }
+        return added;
+    }
+
+    public void userRemoved(int courseId, int userId) {
+        IdBitmap bitmap = getMembers(courseId);
+        boolean removed;
+        synchronized (bitmap) {
+            removed = bitmap.remove(userId);
+        }
+        if (removed) {
+            onRollback(() -> {
+                synchronized (bitmap) {
+                    bitmap.add(userId);
+                }
+            });
+        }
+    }
+
+    private void loadQuietly() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            LOGGER.error("Course membership index rebuild failed", e);
+        }
+    }
+
+    private IdBitmap getMembers(int courseId) {
+        return members.computeIfAbsent(courseId, id -> new IdBitmap());
+    }
+
+    private void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo.run();
+                }
+            }
+        });
+    }
+
+    @Autowired
+    public CourseMembershipIndex(CourseDaoInf courseDao,
+                                 @Value("${course.membership.rebuild.interval.seconds}") long rebuildInterval) {
+        this.courseDao = courseDao;
+        this.rebuildInterval = rebuildInterval;
+    }
+}
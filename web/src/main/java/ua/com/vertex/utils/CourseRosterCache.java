@@ -0,0 +1,154 @@
+package ua.com.vertex.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.com.vertex.beans.User;
+import ua.com.vertex.dao.interfaces.CourseDaoInf;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Users assigned to a course, keyed by course id, for the course-users admin screen. A roster is read from the
+ * database once; assigning and removing users patch the cached roster when the transaction commits instead of
+ * reloading it. Inside a transaction that changed a roster, that roster is read from the database, so the
+ * transaction sees its own changes. Every committed change bumps the version of its course, and a roster whose
+ * course changed while it was being loaded is returned but not cached, so a load that raced with a commit can not
+ * store a roster without that change. Entries also expire after a while, which bounds the effect of rows written
+ * outside the application.
+ */
+@Component
+public class CourseRosterCache {
+    private static final Logger LOGGER = LogManager.getLogger(CourseRosterCache.class);
+
+    private final CourseDaoInf courseDao;
+    private final Cache<Integer, List<User>> rosters;
+    private final Map<Integer, Long> versions = new HashMap<>();
+
+    public List<User> getRoster(int courseId) {
+        if (getPendingChanges().map(pending -> pending.courseIds.contains(courseId)).orElse(false)) {
+            return courseDao.getUsersAssignedToCourse(courseId);
+        }
+        List<User> cached = rosters.getIfPresent(courseId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = getVersion(courseId);
+        List<User> loaded = Collections.unmodifiableList(
+                new ArrayList<>(courseDao.getUsersAssignedToCourse(courseId)));
+        synchronized (this) {
+            if (getVersion(courseId) == version) {
+                rosters.put(courseId, loaded);
+            } else {
+                LOGGER.debug("Roster of the course id={} changed while it was loaded and was not cached", courseId);
+            }
+        }
+        return loaded;
+    }
+
+    public void userAssigned(int courseId, int userId) {
+        usersAssigned(courseId, Collections.singletonList(userId));
+    }
+
+    public void usersAssigned(int courseId, List<Integer> userIds) {
+        if (rosters.getIfPresent(courseId) == null) {
+            afterCommit(courseId, () -> rosters.invalidate(courseId));
+            return;
+        }
+        List<User> users = courseDao.getUsersAssignedToCourse(courseId, userIds);
+        if (users.size() != userIds.size()) {
+            afterCommit(courseId, () -> rosters.invalidate(courseId));
+            return;
+        }
+        Set<Integer> assignedIds = new HashSet<>(userIds);
+        afterCommit(courseId, () -> patch(courseId, roster -> {
+            List<User> patched = roster.stream().filter(u -> !assignedIds.contains(u.getUserId()))
+                    .collect(Collectors.toList());
+            patched.addAll(users);
+            return patched;
+        }));
+    }
+
+    public void userRemoved(int courseId, int userId) {
+        afterCommit(courseId, () -> patch(courseId, roster ->
+                roster.stream().filter(u -> u.getUserId() != userId).collect(Collectors.toList())));
+    }
+
+    private void patch(int courseId, UnaryOperator<List<User>> change) {
+        rosters.asMap().computeIfPresent(courseId,
+                (id, roster) -> Collections.unmodifiableList(change.apply(roster)));
+        LOGGER.debug("Cached roster of the course id={} was updated", courseId);
+    }
+
+    private synchronized long getVersion(int courseId) {
+        return versions.getOrDefault(courseId, 0L);
+    }
+
+    private synchronized void applyChange(int courseId, Runnable update) {
+        versions.merge(courseId, 1L, Long::sum);
+        update.run();
+    }
+
+    private void afterCommit(int courseId, Runnable change) {
+        Runnable update = () -> applyChange(courseId, change);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        PendingChanges pending = getPendingChanges().orElseGet(() -> {
+            PendingChanges created = new PendingChanges(this);
+            TransactionSynchronizationManager.registerSynchronization(created);
+            return created;
+        });
+        pending.courseIds.add(courseId);
+        pending.updates.add(update);
+    }
+
+    private Optional<PendingChanges> getPendingChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Optional.empty();
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges && ((PendingChanges) synchronization).cache == this) {
+                return Optional.of((PendingChanges) synchronization);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static class PendingChanges extends TransactionSynchronizationAdapter {
+        private final CourseRosterCache cache;
+        private final Set<Integer> courseIds = new HashSet<>();
+        private final List<Runnable> updates = new ArrayList<>();
+
+        PendingChanges(CourseRosterCache cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public void afterCommit() {
+            updates.forEach(Runnable::run);
+        }
+    }
+
+    @Autowired
+    public CourseRosterCache(CourseDaoInf courseDao, @Value("${course.roster.cache.size}") int cacheSize,
+                             @Value("${course.roster.cache.expire.minutes}") long expireMinutes) {
+        this.courseDao = courseDao;
+        this.rosters = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(expireMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+}
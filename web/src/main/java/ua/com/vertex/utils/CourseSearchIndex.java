@@ -0,0 +1,218 @@
+package ua.com.vertex.utils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ua.com.vertex.beans.Course;
+import ua.com.vertex.dao.interfaces.CourseDaoInf;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import static ua.com.vertex.utils.UtilFunctions.runAfterCommit;
+
+/**
+ * In-memory inverted index of course names, partitioned by the finished flag. Names are split into case-folded
+ * words, and camel case words are also split into their parts, so "JavaPro" is found by "java", "pro" and
+ * "javapro". Query words are split where letters meet digits, so "python3" finds "Python 3".
+ * <p>
+ * Every word of a query is matched as a prefix; courses matching all of them are ranked by exact word matches,
+ * then by a name starting with the query, then by the newest start date. The index is built at startup and
+ * updated when a course is added or changed. It is also periodically rebuilt from the database and swapped in, so
+ * courses added or renamed by other instances or outside the application become searchable; a change that commits
+ * while a rebuild is reading may be missed until the next rebuild.
+ */
+@Component
+public class CourseSearchIndex {
+    private static final Logger LOGGER = LogManager.getLogger(CourseSearchIndex.class);
+    private static final String SEPARATORS = "[^\\p{L}\\p{N}]+";
+    private static final String WORD_PARTS = "(?<=\\p{Ll})(?=\\p{Lu})|(?<=\\p{L})(?=\\p{N})|(?<=\\p{N})(?=\\p{L})";
+
+    private final CourseDaoInf courseDao;
+    private final long rebuildInterval;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Integer, IndexedCourse> courses = new HashMap<>();
+    private Map<Boolean, NavigableMap<String, Set<Integer>>> partitions = new HashMap<>();
+    private ScheduledExecutorService rebuilder;
+
+    @PostConstruct
+    public void start() {
+        load();
+        rebuilder = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("course-search-rebuilder").setDaemon(true).build());
+        rebuilder.scheduleWithFixedDelay(this::loadQuietly, rebuildInterval, rebuildInterval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    public void load() {
+        long start = System.currentTimeMillis();
+        Map<Integer, IndexedCourse> loadedCourses = new HashMap<>();
+        Map<Boolean, NavigableMap<String, Set<Integer>>> loadedPartitions = new HashMap<>();
+        courseDao.forEachCourse(course -> index(loadedCourses, loadedPartitions, course));
+        lock.writeLock().lock();
+        try {
+            courses = loadedCourses;
+            partitions = loadedPartitions;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.info("Course search index was built in {} ms, {} courses", System.currentTimeMillis() - start,
+                loadedCourses.size());
+    }
+
+    public void courseSaved(Course course) {
+        runAfterCommit(() -> index(course));
+    }
+
+    /**
+     * Returns ids of the matching courses, best match first.
+     */
+    public List<Integer> search(String query, boolean finished) {
+        String foldedQuery = fold(query == null ? "" : query).trim();
+        List<String> queryWords = split(foldedQuery);
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> scores = queryWords.isEmpty() ? scoreAll(finished) : score(queryWords, finished);
+            Comparator<Map.Entry<Integer, Integer>> ranking = Comparator
+                    .comparing((Map.Entry<Integer, Integer> e) -> e.getValue() +
+                            (courses.get(e.getKey()).name.startsWith(foldedQuery) ? 1 : 0)).reversed()
+                    .thenComparing(e -> courses.get(e.getKey()).start, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(Map.Entry::getKey);
+            return scores.entrySet().stream().sorted(ranking).map(Map.Entry::getKey).collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Integer> scoreAll(boolean finished) {
+        return courses.values().stream().filter(course -> course.finished == finished)
+                .collect(Collectors.toMap(course -> course.id, course -> 0));
+    }
+
+    private Map<Integer, Integer> score(List<String> queryWords, boolean finished) {
+        NavigableMap<String, Set<Integer>> words = getPartition(partitions, finished);
+        Map<Integer, Integer> scores = null;
+        for (String queryWord : queryWords) {
+            Map<Integer, Integer> wordScores = new HashMap<>();
+            words.subMap(queryWord, true, queryWord + Character.MAX_VALUE, true).forEach((word, ids) -> {
+                int score = word.equals(queryWord) ? 2 : 1;
+                ids.forEach(id -> wordScores.merge(id, score, Math::max));
+            });
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                scores.keySet().retainAll(wordScores.keySet());
+                scores.replaceAll((id, score) -> score + wordScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private void loadQuietly() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            LOGGER.error("Course search index rebuild failed", e);
+        }
+    }
+
+    private void index(Course course) {
+        lock.writeLock().lock();
+        try {
+            index(courses, partitions, course);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void index(Map<Integer, IndexedCourse> courses,
+                              Map<Boolean, NavigableMap<String, Set<Integer>>> partitions, Course course) {
+        IndexedCourse indexed = new IndexedCourse(course.getId(), fold(String.valueOf(course.getName())),
+                course.isFinished(), course.getStart(), getWords(String.valueOf(course.getName())));
+        IndexedCourse previous = courses.put(indexed.id, indexed);
+        if (previous != null) {
+            NavigableMap<String, Set<Integer>> words = getPartition(partitions, previous.finished);
+            for (String word : previous.words) {
+                Set<Integer> ids = words.get(word);
+                ids.remove(previous.id);
+                if (ids.isEmpty()) {
+                    words.remove(word);
+                }
+            }
+        }
+        NavigableMap<String, Set<Integer>> words = getPartition(partitions, indexed.finished);
+        indexed.words.forEach(word -> words.computeIfAbsent(word, w -> new HashSet<>()).add(indexed.id));
+    }
+
+    private static NavigableMap<String, Set<Integer>> getPartition(
+            Map<Boolean, NavigableMap<String, Set<Integer>>> partitions, boolean finished) {
+        return partitions.computeIfAbsent(finished, f -> new TreeMap<>());
+    }
+
+    static Set<String> getWords(String name) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : name.split(SEPARATORS)) {
+            if (!word.isEmpty()) {
+                words.add(fold(word));
+                for (String part : word.split(WORD_PARTS)) {
+                    words.add(fold(part));
+                }
+            }
+        }
+        return words;
+    }
+
+    private static List<String> split(String foldedQuery) {
+        return Arrays.stream(foldedQuery.split(SEPARATORS)).flatMap(word -> Arrays.stream(word.split(WORD_PARTS)))
+                .filter(word -> !word.isEmpty()).distinct().collect(Collectors.toList());
+    }
+
+    private static String fold(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static class IndexedCourse {
+        private final int id;
+        private final String name;
+        private final boolean finished;
+        private final LocalDate start;
+        private final Set<String> words;
+
+        IndexedCourse(int id, String name, boolean finished, LocalDate start, Set<String> words) {
+            this.id = id;
+            this.name = name;
+            this.finished = finished;
+            this.start = start;
+            this.words = words;
+        }
+    }
+
+    @Autowired
+    public CourseSearchIndex(CourseDaoInf courseDao,
+                             @Value("${course.search.rebuild.interval.seconds}") long rebuildInterval) {
+        this.courseDao = courseDao;
+        this.rebuildInterval = rebuildInterval;
+    }
+}
@@ -0,0 +1,77 @@
+package ua.com.vertex.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ua.com.vertex.utils.UtilFunctions.runAfterCommit;
+
+/**
+ * Rendered course table fragments of the course listing pages, keyed by the course version, the teacher, the page
+ * and the page size. Adding or changing a course bumps the version once the transaction commits, so fragments of
+ * the previous version are never served again. Teacher names in the table can change without a course change,
+ * so entries also expire after a while.
+ */
+@Component
+public class CourseTableCache {
+    private static final Logger LOGGER = LogManager.getLogger(CourseTableCache.class);
+
+    private final AtomicLong version = new AtomicLong();
+    private final Cache<String, Fragment> fragments;
+
+    public String getKey(int teacherId, int page, int rowPerPage) {
+        return version.get() + ":" + teacherId + ":" + page + ":" + rowPerPage;
+    }
+
+    public Optional<Fragment> get(String key) {
+        return Optional.ofNullable(fragments.getIfPresent(key));
+    }
+
+    public Fragment put(String key, String html) {
+        Fragment fragment = new Fragment(html);
+        fragments.put(key, fragment);
+        return fragment;
+    }
+
+    public void coursesChanged() {
+        runAfterCommit(() -> {
+            LOGGER.debug("Course version bumped to {}", version.incrementAndGet());
+            fragments.invalidateAll();
+        });
+    }
+
+    public static class Fragment {
+        private final String html;
+        private final String hash;
+
+        Fragment(String html) {
+            this.html = html;
+            this.hash = Hashing.sha256().hashString(html, StandardCharsets.UTF_8).toString().substring(0, 16);
+        }
+
+        public String getHtml() {
+            return html;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+    }
+
+    @Autowired
+    public CourseTableCache(@Value("${course.table.cache.size}") int size,
+                            @Value("${course.table.cache.expire.minutes}") int expireMinutes) {
+        this.fragments = CacheBuilder.newBuilder().maximumSize(size)
+                .expireAfterWrite(expireMinutes, TimeUnit.MINUTES).build();
+    }
+}
@@ -0,0 +1,127 @@
+package ua.com.vertex.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Renders email templates from emailMessages*.properties. Each template is parsed once per language into
+ * alternating literal and variable segments, and rendering only appends them to a per-thread StringBuilder.
+ * Variables look like ${name}; ${baseUrl} is resolved at compile time from the app.base.url property.
+ */
+@Component
+public class EmailTemplateEngine {
+    private static final Logger LOGGER = LogManager.getLogger(EmailTemplateEngine.class);
+    private static final String BUNDLE = "emailMessages";
+    private static final String BASE_URL = "baseUrl";
+    private static final String VARIABLE_START = "${";
+    private static final String VARIABLE_END = "}";
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private final String baseUrl;
+    private final ConcurrentMap<Locale, Map<String, CompiledTemplate>> templates = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_CAPACITY));
+
+    public String render(String name, Locale locale, Map<String, ?> values) {
+        CompiledTemplate template = getTemplates(locale).get(name);
+        if (template == null) {
+            throw new IllegalArgumentException(String.format("Email template '%s' does not exist", name));
+        }
+
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.render(buffer, values);
+        String result = buffer.toString();
+
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffers.remove();
+        }
+        return result;
+    }
+
+    private Map<String, CompiledTemplate> getTemplates(Locale locale) {
+        return templates.computeIfAbsent(new Locale(locale.getLanguage()), this::compileTemplates);
+    }
+
+    private Map<String, CompiledTemplate> compileTemplates(Locale locale) {
+        ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE, locale,
+                ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES));
+
+        Map<String, CompiledTemplate> compiled = new HashMap<>();
+        for (String key : bundle.keySet()) {
+            compiled.put(key, compile(key, bundle.getString(key)));
+        }
+        LOGGER.debug("{} email templates compiled for locale '{}'", compiled.size(), locale);
+
+        return Collections.unmodifiableMap(compiled);
+    }
+
+    private CompiledTemplate compile(String name, String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+
+        while (position < text.length()) {
+            int start = text.indexOf(VARIABLE_START, position);
+            int end = start < 0 ? -1 : text.indexOf(VARIABLE_END, start);
+            if (end < 0) {
+                literal.append(text, position, text.length());
+                break;
+            }
+
+            literal.append(text, position, start);
+            String variable = text.substring(start + VARIABLE_START.length(), end).trim();
+            if (BASE_URL.equals(variable)) {
+                literal.append(baseUrl);
+            } else {
+                literals.add(literal.toString());
+                variables.add(variable);
+                literal.setLength(0);
+            }
+            position = end + VARIABLE_END.length();
+        }
+        literals.add(literal.toString());
+
+        return new CompiledTemplate(name, literals.toArray(new String[literals.size()]),
+                variables.toArray(new String[variables.size()]));
+    }
+
+    private static class CompiledTemplate {
+        private final String name;
+        private final String[] literals;
+        private final String[] variables;
+
+        CompiledTemplate(String name, String[] literals, String[] variables) {
+            this.name = name;
+            this.literals = literals;
+            this.variables = variables;
+        }
+
+        void render(StringBuilder buffer, Map<String, ?> values) {
+            for (int i = 0; i < variables.length; i++) {
+                buffer.append(literals[i]);
+                Object value = values.get(variables[i]);
+                if (value == null) {
+                    throw new IllegalArgumentException(String.format("Value of '%s' is missing for email template '%s'",
+                            variables[i], name));
+                }
+                buffer.append(value);
+            }
+            buffer.append(literals[variables.length]);
+        }
+    }
+
+    @Autowired
+    public EmailTemplateEngine(@Value("${app.base.url}") String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+}
@@ -0,0 +1,212 @@
+package ua.com.vertex.utils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process SMTP sink. It accepts every message, keeps it in memory and never relays anything,
+ * so the mail pipeline can be tested and measured without a real mail server.
+ */
+public class EmbeddedSmtpServer {
+    private static final Logger LOGGER = LogManager.getLogger(EmbeddedSmtpServer.class);
+    private static final String CRLF = "\r\n";
+
+    private final int requestedPort;
+    private final List<ReceivedMail> receivedMails = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<MailListener> listeners = new ArrayList<>();
+
+    private ServerSocket serverSocket;
+    private ExecutorService executor;
+
+    public EmbeddedSmtpServer(int port) {
+        this.requestedPort = port;
+    }
+
+    public void start() throws IOException {
+        serverSocket = new ServerSocket(requestedPort, 50, InetAddress.getLoopbackAddress());
+        executor = Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setNameFormat("embedded-smtp-%d").setDaemon(true).build());
+        executor.execute(this::acceptConnections);
+        LOGGER.info("Embedded SMTP server listens on port {}", getPort());
+    }
+
+    public void stop() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOGGER.info("Embedded SMTP server stopped");
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public List<ReceivedMail> getReceivedMails() {
+        synchronized (receivedMails) {
+            return new ArrayList<>(receivedMails);
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    public void reset() {
+        receivedMails.clear();
+        connections.set(0);
+    }
+
+    public synchronized void addListener(MailListener listener) {
+        listeners.add(listener);
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                executor.execute(() -> handle(socket));
+            } catch (SocketException e) {
+                LOGGER.debug("Embedded SMTP server socket closed");
+            } catch (IOException e) {
+                LOGGER.warn("Embedded SMTP server failed to accept a connection", e);
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket client = socket;
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+             Writer writer = new BufferedWriter(
+                     new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8))) {
+
+            reply(writer, "220 localhost Embedded SMTP");
+            String from = null;
+            List<String> recipients = new ArrayList<>();
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                String command = line.length() < 4 ? line.toUpperCase() : line.substring(0, 4).toUpperCase();
+                switch (command) {
+                    case "EHLO":
+                    case "HELO":
+                        reply(writer, "250 localhost");
+                        break;
+                    case "MAIL":
+                        from = extractAddress(line);
+                        recipients.clear();
+                        reply(writer, "250 OK");
+                        break;
+                    case "RCPT":
+                        recipients.add(extractAddress(line));
+                        reply(writer, "250 OK");
+                        break;
+                    case "DATA":
+                        reply(writer, "354 End data with <CR><LF>.<CR><LF>");
+                        receive(new ReceivedMail(from, new ArrayList<>(recipients), readData(reader)));
+                        reply(writer, "250 OK");
+                        break;
+                    case "RSET":
+                        from = null;
+                        recipients.clear();
+                        reply(writer, "250 OK");
+                        break;
+                    case "NOOP":
+                        reply(writer, "250 OK");
+                        break;
+                    case "QUIT":
+                        reply(writer, "221 Bye");
+                        return;
+                    default:
+                        reply(writer, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Embedded SMTP connection closed", e);
+        }
+    }
+
+    private void receive(ReceivedMail mail) {
+        receivedMails.add(mail);
+        List<MailListener> currentListeners;
+        synchronized (this) {
+            currentListeners = new ArrayList<>(listeners);
+        }
+        currentListeners.forEach(listener -> listener.mailReceived(mail));
+    }
+
+    private String readData(BufferedReader reader) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null && !".".equals(line)) {
+            data.append(line.startsWith("..") ? line.substring(1) : line).append(CRLF);
+        }
+        return data.toString();
+    }
+
+    private String extractAddress(String line) {
+        int start = line.indexOf('<');
+        int end = line.indexOf('>');
+        return start >= 0 && end > start ? line.substring(start + 1, end) : line.substring(line.indexOf(':') + 1).trim();
+    }
+
+    private void reply(Writer writer, String response) throws IOException {
+        writer.write(response + CRLF);
+        writer.flush();
+    }
+
+    @FunctionalInterface
+    public interface MailListener {
+        void mailReceived(ReceivedMail mail);
+    }
+
+    public static class ReceivedMail {
+        private final String from;
+        private final List<String> recipients;
+        private final String data;
+        private final long receivedNanos = System.nanoTime();
+
+        ReceivedMail(String from, List<String> recipients, String data) {
+            this.from = from;
+            this.recipients = recipients;
+            this.data = data;
+        }
+
+        public String getFrom() {
+            return from;
+        }
+
+        public List<String> getRecipients() {
+            return recipients;
+        }
+
+        public String getData() {
+            return data;
+        }
+
+        public long getReceivedNanos() {
+            return receivedNanos;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package ua.com.vertex.utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compressed set of non-negative ids in the spirit of Roaring bitmaps. Ids are split by their high 16 bits into
+ * chunks; a sparse chunk keeps its low 16 bits in a sorted array, a dense one (more than 4096 ids) in a 8 KB
+ * bitmap, so both a handful of students and a whole user base take little memory. Not thread-safe.
+ */
+class IdBitmap {
+    private static final int ARRAY_LIMIT = 4096;
+
+    private final Map<Integer, Container> containers = new HashMap<>();
+    private int cardinality;
+
+    boolean contains(int id) {
+        Container container = containers.get(id >>> 16);
+        return container != null && container.contains((char) id);
+    }
+
+    boolean add(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Negative id " + id);
+        }
+        Container container = containers.get(id >>> 16);
+        if (container == null) {
+            container = new ArrayContainer();
+            containers.put(id >>> 16, container);
+        } else if (container.contains((char) id)) {
+            return false;
+        }
+        containers.put(id >>> 16, container.add((char) id));
+        cardinality++;
+        return true;
+    }
+
+    boolean remove(int id) {
+        Container container = containers.get(id >>> 16);
+        if (container == null || !container.contains((char) id)) {
+            return false;
+        }
+        Container removed = container.remove((char) id);
+        if (removed.getCardinality() == 0) {
+            containers.remove(id >>> 16);
+        } else {
+            containers.put(id >>> 16, removed);
+        }
+        cardinality--;
+        return true;
+    }
+
+    int getCardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Returns the candidates that are not in this bitmap, keeping their order.
+     */
+    int[] andNot(int[] candidates) {
+        int[] result = new int[candidates.length];
+        int size = 0;
+        for (int candidate : candidates) {
+            if (!contains(candidate)) {
+                result[size++] = candidate;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private interface Container {
+        boolean contains(char value);
+
+        Container add(char value);
+
+        Container remove(char value);
+
+        int getCardinality();
+    }
+
+    private static class ArrayContainer implements Container {
+        private char[] values = new char[4];
+        private int size;
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        public Container add(char value) {
+            if (size == ARRAY_LIMIT) {
+                return new BitmapContainer(this).add(value);
+            }
+            int index = -Arrays.binarySearch(values, 0, size, value) - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(size * 2, ARRAY_LIMIT));
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return this;
+        }
+
+        @Override
+        public int getCardinality() {
+            return size;
+        }
+    }
+
+    private static class BitmapContainer implements Container {
+        private final long[] words = new long[1 << 10];
+        private int cardinality;
+
+        BitmapContainer(ArrayContainer array) {
+            for (int i = 0; i < array.size; i++) {
+                set(array.values[i]);
+            }
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public Container add(char value) {
+            set(value);
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            words[value >>> 6] &= ~(1L << value);
+            cardinality--;
+            if (cardinality > ARRAY_LIMIT) {
+                return this;
+            }
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[ARRAY_LIMIT];
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    array.values[array.size++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return array;
+        }
+
+        @Override
+        public int getCardinality() {
+            return cardinality;
+        }
+
+        private void set(char value) {
+            words[value >>> 6] |= 1L << value;
+            cardinality++;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package ua.com.vertex.utils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ua.com.vertex.beans.OutboxMail;
+import ua.com.vertex.dao.interfaces.MailOutboxDaoInf;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Delivers messages from the Mail_outbox table in the background, so that request threads and database
+ * connections never wait for the SMTP server. A single poller claims due messages and hands them to a bounded
+ * pool of senders; failed deliveries are retried with exponential backoff and end up in the DEAD state.
+ * <p>
+ * Delivery is at least once: a claim that is not finished within the claim timeout, because its node stopped or
+ * the SENT mark could not be written after the message went out, is returned to the queue and sent again. Only
+ * expired claims are released, so messages that another node is sending right now are left alone. The worker
+ * does not run in the test profile.
+ */
+@Component
+@Profile("!test")
+public class MailOutboxWorker {
+    private static final Logger LOGGER = LogManager.getLogger(MailOutboxWorker.class);
+    private static final int MAX_BACKOFF_SHIFT = 20;
+
+    private final MailOutboxDaoInf mailOutboxDao;
+    private final MailService mailService;
+
+    @Value("${mail.outbox.workers}")
+    private int workers;
+
+    @Value("${mail.outbox.poll.interval.millis}")
+    private long pollInterval;
+
+    @Value("${mail.outbox.queue.size}")
+    private int queueSize;
+
+    @Value("${mail.outbox.claim.timeout.seconds}")
+    private long claimTimeout;
+
+    @Value("${mail.outbox.max.attempts}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.backoff.initial.seconds}")
+    private long initialBackoff;
+
+    @Value("${mail.outbox.backoff.max.seconds}")
+    private long maxBackoff;
+
+    private ScheduledExecutorService poller;
+    private ThreadPoolExecutor senders;
+
+    @PostConstruct
+    public void start() {
+        poller = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("mail-outbox-poller").setDaemon(true).build());
+        senders = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder().setNameFormat("mail-outbox-sender-%d").setDaemon(true).build());
+        poller.scheduleWithFixedDelay(this::releaseExpiredClaims, 0, claimTimeout, TimeUnit.SECONDS);
+        poller.scheduleWithFixedDelay(this::poll, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+        LOGGER.debug("Mail outbox worker started");
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        poller.shutdownNow();
+        senders.shutdown();
+        if (!senders.awaitTermination(10, TimeUnit.SECONDS)) {
+            senders.shutdownNow();
+        }
+        LOGGER.debug("Mail outbox worker stopped");
+    }
+
+    public void wakeUp() {
+        try {
+            poller.execute(this::poll);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Mail outbox worker is not running, the message will wait for the next start");
+        }
+    }
+
+    void poll() {
+        try {
+            int capacity = senders.getQueue().remainingCapacity();
+            if (capacity == 0) {
+                return;
+            }
+            List<OutboxMail> mails = mailOutboxDao.getMailsReadyToSend(LocalDateTime.now(), capacity);
+            for (OutboxMail mail : mails) {
+                if (mailOutboxDao.claimMail(mail.getId())) {
+                    senders.execute(() -> deliver(mail));
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Mail outbox polling failed", e);
+        }
+    }
+
+    void releaseExpiredClaims() {
+        try {
+            int released = mailOutboxDao.releaseClaimedMails(LocalDateTime.now().minusSeconds(claimTimeout));
+            if (released > 0) {
+                LOGGER.warn("{} outbox mails with expired claims returned to the queue", released);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Expired outbox mail claims were not released", e);
+        }
+    }
+
+    void deliver(OutboxMail mail) {
+        try {
+            mailService.sendMail(mail.getSender(), mail.getRecipient(), mail.getSubject(), mail.getBody());
+        } catch (RuntimeException e) {
+            int attempts = mail.getAttempts() + 1;
+            LOGGER.warn(String.format("Delivery of outbox mail id=%d failed, attempt %d", mail.getId(), attempts), e);
+
+            if (attempts >= maxAttempts) {
+                mailOutboxDao.markDead(mail.getId(), attempts, e.getMessage());
+            } else {
+                mailOutboxDao.markForRetry(mail.getId(), attempts,
+                        LocalDateTime.now().plusSeconds(getBackoffSeconds(attempts)), e.getMessage());
+            }
+            return;
+        }
+
+        try {
+            mailOutboxDao.markSent(mail.getId());
+        } catch (RuntimeException e) {
+            LOGGER.error(String.format("Outbox mail id=%d was sent but not marked as sent, it will be sent again " +
+                    "once its claim expires", mail.getId()), e);
+        }
+    }
+
+    long getBackoffSeconds(int attempts) {
+        int shift = Math.min(attempts - 1, MAX_BACKOFF_SHIFT);
+        return Math.min(maxBackoff, initialBackoff << shift);
+    }
+
+    @Autowired
+    public MailOutboxWorker(MailOutboxDaoInf mailOutboxDao, MailService mailService) {
+        this.mailOutboxDao = mailOutboxDao;
+        this.mailService = mailService;
+    }
+}
@@ -0,0 +1,108 @@
+package ua.com.vertex.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import ua.com.vertex.beans.PaymentImportResult;
+import ua.com.vertex.beans.StatementPayment;
+import ua.com.vertex.logic.interfaces.PaymentLogic;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Imports a CSV bank statement with lines of {@code reference,course id,user id,amount}; a first line that is not
+ * a payment is taken as the header. The file is read line by line and recorded in chunks, each in a transaction of
+ * its own, so only one chunk is held in memory and a failed chunk keeps the chunks before it. The bank reference is
+ * stored with every payment, so uploading the same statement again does not record a payment twice.
+ */
+@Component
+public class PaymentStatementImporter {
+    private static final Logger LOGGER = LogManager.getLogger(PaymentStatementImporter.class);
+    private static final int FIELDS = 4;
+    private static final int MAX_REFERENCE_LENGTH = 64;
+
+    private final PaymentLogic paymentLogic;
+    private final int chunkSize;
+
+    public PaymentImportResult importStatement(InputStream inputStream) throws IOException {
+        PaymentImportResult result = new PaymentImportResult();
+        List<StatementPayment> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        int lineNumber = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            Optional<StatementPayment> payment = parse(line, lineNumber);
+            if (payment.isPresent()) {
+                chunk.add(payment.get());
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, result);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            } else if (lineNumber > 1) {
+                result.getInvalidLines().add(lineNumber + ": " + line);
+            }
+        }
+        importChunk(chunk, result);
+
+        LOGGER.debug("Bank statement of {} lines imported: {}", lineNumber, result);
+        return result;
+    }
+
+    private void importChunk(List<StatementPayment> chunk, PaymentImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        PaymentImportResult chunkResult;
+        try {
+            chunkResult = paymentLogic.importStatementPayments(chunk);
+        } catch (DuplicateKeyException e) {
+            LOGGER.debug("Payments from line {} were imported concurrently, checking them again",
+                    chunk.get(0).getLine());
+            chunkResult = paymentLogic.importStatementPayments(chunk);
+        }
+        result.add(chunkResult);
+    }
+
+    private Optional<StatementPayment> parse(String line, int lineNumber) {
+        String[] fields = line.replace("\uFEFF", "").split(",", -1);
+        if (fields.length != FIELDS) {
+            return Optional.empty();
+        }
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].trim().replaceAll("^\"|\"$", "").trim();
+        }
+        try {
+            String reference = fields[0];
+            BigDecimal amount = new BigDecimal(fields[3]);
+            if (reference.isEmpty() || reference.length() > MAX_REFERENCE_LENGTH || amount.signum() <= 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new StatementPayment(lineNumber, reference, Integer.parseInt(fields[1]),
+                    Integer.parseInt(fields[2]), amount, 0));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Autowired
+    public PaymentStatementImporter(PaymentLogic paymentLogic,
+                                    @Value("${payment.import.chunk.size}") int chunkSize) {
+        this.paymentLogic = paymentLogic;
+        this.chunkSize = chunkSize;
+    }
+}
@@ -1,27 +1,159 @@
 package ua.com.vertex.utils;
 
+import com.itextpdf.text.DocumentException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import ua.com.vertex.beans.PdfDto;
 
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
 
+/**
+ * Sends a rendered certificate to the client without temporary files. Certificates already in the
+ * {@link CertificatePdfCache} are served from disk with Tomcat sendfile when the connector supports it and with
+ * {@link FileChannel#transferTo} otherwise. A missing PDF is rendered into a per-thread reusable buffer, so the
+ * response gets a Content-Length and the result can be cached; with buffering switched off the synchronous
+ * download renders straight into the servlet output stream and sends it chunked.
+ */
 @Component
 public class PdfDownloader {
     private static final Logger LOGGER = LogManager.getLogger(PdfDownloader.class);
+    private static final int INITIAL_BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 4 * 1024 * 1024;
 
-    public int downloadPdf(String pdfFileName, HttpServletResponse response) throws IOException {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
 
-        response.setContentType("application/pdf");
-        response.addHeader("Content-Disposition", "attachment; filename=certificate.pdf");
-        Files.copy(Paths.get(pdfFileName), response.getOutputStream());
-        response.getOutputStream().flush();
+    private static final ThreadLocal<PdfBuffer> BUFFERS = ThreadLocal.withInitial(PdfBuffer::new);
+
+    private final PdfGenerator pdfGenerator;
+    private final CertificatePdfCache pdfCache;
+    private final boolean buffered;
+
+    public int downloadPdf(PdfDto dto, HttpServletRequest request, HttpServletResponse response)
+            throws IOException, DocumentException {
+
+        if (sendCachedPdf(dto, request, response)) {
+            return response.getStatus();
+        }
 
-        LOGGER.debug(pdfFileName + " file downloaded");
+        setHeaders(response);
+        ServletOutputStream outputStream = response.getOutputStream();
+        if (buffered) {
+            PdfBuffer buffer = BUFFERS.get();
+            try {
+                renderToBuffer(dto, buffer);
+                response.setContentLength(buffer.size());
+                buffer.writeTo(outputStream);
+            } finally {
+                buffer.recycle();
+            }
+        } else {
+            pdfGenerator.generatePdf(outputStream, dto);
+        }
+        outputStream.flush();
+
+        LOGGER.debug("Certificate {} downloaded", dto.getCertificateUid());
 
         return response.getStatus();
     }
+
+    public boolean sendCachedPdf(PdfDto dto, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        Optional<Path> cached = pdfCache.get(pdfCache.getKey(dto));
+        if (cached.isPresent()) {
+            setHeaders(response);
+            if (sendFile(cached.get(), request, response)) {
+                LOGGER.debug("Certificate {} downloaded from cache", dto.getCertificateUid());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public byte[] renderPdf(PdfDto dto) throws IOException, DocumentException {
+        PdfBuffer buffer = BUFFERS.get();
+        try {
+            renderToBuffer(dto, buffer);
+            return buffer.toByteArray();
+        } finally {
+            buffer.recycle();
+        }
+    }
+
+    private void renderToBuffer(PdfDto dto, PdfBuffer buffer) throws IOException, DocumentException {
+        pdfGenerator.generatePdf(buffer, dto);
+        pdfCache.put(pdfCache.getKey(dto), buffer);
+    }
+
+    private void setHeaders(HttpServletResponse response) {
+        response.setContentType("application/pdf");
+        response.setHeader("Content-Disposition", "attachment; filename=certificate.pdf");
+    }
+
+    private boolean sendFile(Path file, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            response.setContentLengthLong(length);
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, length);
+                return true;
+            }
+
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < length) {
+                position += channel.transferTo(position, length - position, target);
+            }
+            response.getOutputStream().flush();
+            return true;
+        } catch (NoSuchFileException e) {
+            LOGGER.debug("Cached certificate {} was evicted before it was sent", file);
+            return false;
+        }
+    }
+
+    private static class PdfBuffer extends ByteArrayOutputStream {
+
+        PdfBuffer() {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        void recycle() {
+            if (buf.length > MAX_RETAINED_BUFFER_SIZE) {
+                BUFFERS.remove();
+            } else {
+                reset();
+            }
+        }
+    }
+
+    @Autowired
+    public PdfDownloader(PdfGenerator pdfGenerator, CertificatePdfCache pdfCache,
+                         @Value("${pdf.download.buffered}") boolean buffered) {
+        this.pdfGenerator = pdfGenerator;
+        this.pdfCache = pdfCache;
+        this.buffered = buffered;
+    }
 }
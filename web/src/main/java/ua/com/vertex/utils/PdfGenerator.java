@@ -1,80 +1,217 @@
 package ua.com.vertex.utils;
 
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
 import com.itextpdf.text.*;
-import com.itextpdf.text.pdf.BaseFont;
-import com.itextpdf.text.pdf.PdfContentByte;
-import com.itextpdf.text.pdf.PdfWriter;
+import com.itextpdf.text.pdf.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 import ua.com.vertex.beans.PdfDto;
 
-import java.io.FileOutputStream;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
-
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders certificates on top of a prepared template. The background image and the text that is the same for
+ * every certificate are rendered once into an in-memory PDF, and fonts are created once, so a request only
+ * stamps the holder name, the course, the UID and the date over a copy of that template.
+ * <p>
+ * The optimized profile downsamples certificate.png and re-encodes it as JPEG once at startup, and writes
+ * compressed object streams. The Times fonts are PDF standard fonts, so they are referenced, never embedded.
+ */
 @Component
 public class PdfGenerator {
     private static final Logger LOGGER = LogManager.getLogger(PdfGenerator.class);
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd MMMM yyyy", Locale.US);
+    private static final Rectangle DIMENSIONS = new Rectangle(1120, 530);
+
+    /**
+     * Bump whenever text positions, fonts or static rows change, so cached PDFs of the old layout are not served.
+     */
+    private static final int LAYOUT_REVISION = 1;
+
+    private final boolean optimized;
+    private final int backgroundWidth;
+    private final float jpegQuality;
+
+    private final BaseFont timesRoman;
+    private final BaseFont timesBold;
+    private final BaseFont timesBoldItalic;
+    private final byte[] template;
+    private final String layoutVersion;
+
+    private final AtomicLong renderedPdfs = new AtomicLong();
+    private final AtomicLong renderedBytes = new AtomicLong();
+
+    public PdfGenerator() {
+        this(false, 0, 0);
+    }
 
-    public void generatePdf(String pdfFileName, PdfDto dto) throws Exception {
-        Document document = new Document();
+    @Autowired
+    public PdfGenerator(@Value("${pdf.optimized}") boolean optimized,
+                        @Value("${pdf.optimized.background.width}") int backgroundWidth,
+                        @Value("${pdf.optimized.background.jpeg.quality}") float jpegQuality) {
+        this.optimized = optimized;
+        this.backgroundWidth = backgroundWidth;
+        this.jpegQuality = jpegQuality;
+        try {
+            byte[] background = readBackground();
+            layoutVersion = Hashing.sha256().newHasher().putInt(LAYOUT_REVISION).putBytes(background)
+                    .putBoolean(optimized).putInt(backgroundWidth).putFloat(jpegQuality).hash()
+                    .toString().substring(0, 16);
+            if (optimized) {
+                background = optimizeBackground(background);
+            }
+            timesRoman = BaseFont.createFont(BaseFont.TIMES_ROMAN, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+            timesBold = BaseFont.createFont(BaseFont.TIMES_BOLD, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+            timesBoldItalic = BaseFont.createFont(BaseFont.TIMES_BOLDITALIC, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+            template = createTemplate(background);
+        } catch (IOException | DocumentException e) {
+            throw new IllegalStateException("Certificate template can not be prepared", e);
+        }
+        LOGGER.debug("Certificate template prepared, {} bytes, layout version {}, optimized - {}", template.length,
+                layoutVersion, optimized);
+    }
+
+    public String getLayoutVersion() {
+        return layoutVersion;
+    }
+
+    public long getRenderedPdfs() {
+        return renderedPdfs.get();
+    }
 
-        try (FileOutputStream outputStream = new FileOutputStream(pdfFileName)) {
+    public long getAverageBytesPerPdf() {
+        long count = renderedPdfs.get();
+        return count == 0 ? 0 : renderedBytes.get() / count;
+    }
 
-            PdfWriter writer = PdfWriter.getInstance(document, outputStream);
-            Rectangle dimensions = new Rectangle(1120, 530);
-            document.setPageSize(dimensions);
+    public void generatePdf(OutputStream outputStream, PdfDto dto) throws IOException, DocumentException {
+        CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        PdfReader reader = new PdfReader(template);
+        try {
+            PdfStamper stamper = new PdfStamper(reader, countingStream);
+            stamper.getWriter().setCloseStream(false);
+            if (optimized) {
+                stamper.setFullCompression();
+                stamper.getWriter().setCompressionLevel(PdfStream.BEST_COMPRESSION);
+            }
+            setText(stamper.getOverContent(1), dto);
+            stamper.close();
+        } finally {
+            reader.close();
+        }
+        renderedPdfs.incrementAndGet();
+        renderedBytes.addAndGet(countingStream.getCount());
+    }
 
-            document.open();
-            setCanvas(writer, dimensions);
-            setText(writer, dto);
-            document.close();
+    private byte[] readBackground() throws IOException {
+        try (InputStream inputStream = new ClassPathResource("certificate.png").getInputStream()) {
+            return ByteStreams.toByteArray(inputStream);
+        }
+    }
 
-            LOGGER.debug(pdfFileName + " file generated");
+    private byte[] optimizeBackground(byte[] png) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        int width = Math.min(backgroundWidth, source.getWidth());
+        int height = Math.round(source.getHeight() * width / (float) source.getWidth());
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ImageOutputStream imageStream = ImageIO.createImageOutputStream(outputStream)) {
+            writer.setOutput(imageStream);
+            writer.write(null, new IIOImage(target, null, null), param);
+        } finally {
+            writer.dispose();
         }
+
+        LOGGER.debug("Certificate background downsampled to {}x{}, {} bytes instead of {}", width, height,
+                outputStream.size(), png.length);
+        return outputStream.toByteArray();
     }
 
-    private void setCanvas(PdfWriter writer, Rectangle dimensions) throws IOException, DocumentException {
+    private byte[] createTemplate(byte[] background) throws IOException, DocumentException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Document document = new Document(DIMENSIONS);
+        PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+        if (optimized) {
+            writer.setFullCompression();
+            writer.setCompressionLevel(PdfStream.BEST_COMPRESSION);
+        }
 
-        PdfContentByte canvas = writer.getDirectContentUnder();
-        ClassPathResource imageToSet = new ClassPathResource("certificate.png");
-        Image image = Image.getInstance(imageToSet.getURL());
+        document.open();
+        setCanvas(writer.getDirectContentUnder(), background);
+        setStaticText(writer.getDirectContent());
+        document.close();
 
-        image.scaleAbsolute(dimensions);
+        return outputStream.toByteArray();
+    }
+
+    private void setCanvas(PdfContentByte canvas, byte[] background) throws IOException, DocumentException {
+        Image image = Image.getInstance(background);
+
+        image.scaleAbsolute(DIMENSIONS);
         image.setAbsolutePosition(0, 0);
         canvas.addImage(image);
     }
 
-    private void setText(PdfWriter writer, PdfDto dto) throws IOException, DocumentException {
+    private void setStaticText(PdfContentByte cb) {
+        setTextRow(cb, "Certificate of Achievement", timesBold, 44, 560, 350);
+        setTextRow(cb, "This certificate acknowledges that", timesRoman, 18, 560, 315);
+        setTextRow(cb, "has successfully completed the course", timesRoman, 18, 560, 230);
+        setTextRow(cb, "Certificate was issued by vertex-academy.com", timesRoman, 18, 280, 140);
+        setTextRow(cb, "Director General: Piskokha M. A.", timesRoman, 18, 850, 140);
+    }
 
+    private void setText(PdfContentByte cb, PdfDto dto) {
         String fullName = dto.getFirstName() + " " + dto.getLastName();
         String date = FORMATTER.format(LocalDate.parse(dto.getCertificationDate()));
 
-        setTextRow(writer, "Certificate of Achievement", BaseFont.TIMES_BOLD, 44, 560, 350);
-        setTextRow(writer, "This certificate acknowledges that", BaseFont.TIMES_ROMAN, 18, 560, 315);
-        setTextRow(writer, fullName, BaseFont.TIMES_BOLDITALIC, 36, 560, 270);
-        setTextRow(writer, "has successfully completed the course", BaseFont.TIMES_ROMAN, 18, 560, 230);
-        setTextRow(writer, dto.getCourseName(), BaseFont.TIMES_BOLD, 32, 560, 185);
-        setTextRow(writer, "Certificate was issued by vertex-academy.com", BaseFont.TIMES_ROMAN, 18, 280, 140);
-        setTextRow(writer, "Director General: Piskokha M. A.", BaseFont.TIMES_ROMAN, 18, 850, 140);
-        setTextRow(writer, "Certificate UID: " + dto.getCertificateUid(), BaseFont.TIMES_ROMAN, 18, 280, 115);
-        setTextRow(writer, date, BaseFont.TIMES_ROMAN, 18, 850, 115);
+        setTextRow(cb, fullName, timesBoldItalic, 36, 560, 270);
+        setTextRow(cb, dto.getCourseName(), timesBold, 32, 560, 185);
+        setTextRow(cb, "Certificate UID: " + dto.getCertificateUid(), timesRoman, 18, 280, 115);
+        setTextRow(cb, date, timesRoman, 18, 850, 115);
     }
 
-    private void setTextRow(PdfWriter writer, String parameter, String font, int fontSize, int shiftX, int shiftY)
-            throws IOException, DocumentException {
-
-        BaseFont baseFont = BaseFont.createFont(font, BaseFont.WINANSI, BaseFont.EMBEDDED);
-        PdfContentByte cb = writer.getDirectContent();
-
+    private void setTextRow(PdfContentByte cb, String parameter, BaseFont font, int fontSize, int shiftX,
+                            int shiftY) {
         cb.saveState();
         cb.beginText();
-        cb.setFontAndSize(baseFont, fontSize);
+        cb.setFontAndSize(font, fontSize);
         cb.showTextAligned(Element.ALIGN_CENTER, parameter, shiftX, shiftY, 0);
         cb.endText();
         cb.restoreState();
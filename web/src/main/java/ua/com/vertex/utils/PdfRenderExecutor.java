@@ -0,0 +1,99 @@
+package ua.com.vertex.utils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import ua.com.vertex.beans.PdfDto;
+import ua.com.vertex.beans.PdfRenderStats;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+
+/**
+ * Renders certificates off the servlet container threads. The pool and its queue are bounded: when the queue is
+ * full a request is answered with 503 and Retry-After at once, and a request that waits longer than the timeout
+ * gets 503 and its render is cancelled, so a burst of downloads can not hold connector threads.
+ */
+@Component
+public class PdfRenderExecutor {
+    private static final Logger LOGGER = LogManager.getLogger(PdfRenderExecutor.class);
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private final PdfDownloader pdfDownloader;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final PdfRenderStats stats;
+
+    public DeferredResult<ResponseEntity<byte[]>> render(PdfDto dto) {
+        DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>(timeoutMillis, serviceUnavailable());
+        long queuedNanos = System.nanoTime();
+
+        try {
+            Future<?> future = executor.submit(() -> {
+                long startNanos = System.nanoTime();
+                try {
+                    byte[] pdf = pdfDownloader.renderPdf(dto);
+                    stats.addCompleted(startNanos - queuedNanos, System.nanoTime() - startNanos);
+                    result.setResult(pdfResponse(pdf));
+                } catch (Exception e) {
+                    stats.addFailed();
+                    LOGGER.warn("Certificate " + dto.getCertificateUid() + " was not rendered", e);
+                    result.setErrorResult(e);
+                }
+            });
+            stats.addSubmitted();
+            result.onTimeout(() -> {
+                stats.addTimedOut();
+                future.cancel(true);
+            });
+        } catch (RejectedExecutionException e) {
+            stats.addRejected();
+            LOGGER.debug("Render queue is full, certificate {} rejected", dto.getCertificateUid());
+            result.setResult(serviceUnavailable());
+        }
+        return result;
+    }
+
+    public PdfRenderStats getStats() {
+        return stats;
+    }
+
+    private ResponseEntity<byte[]> pdfResponse(byte[] pdf) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=certificate.pdf")
+                .contentLength(pdf.length)
+                .body(pdf);
+    }
+
+    private ResponseEntity<byte[]> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .build();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @Autowired
+    public PdfRenderExecutor(PdfDownloader pdfDownloader, @Value("${pdf.render.threads}") int threads,
+                             @Value("${pdf.render.queue.size}") int queueSize,
+                             @Value("${pdf.render.timeout.millis}") long timeoutMillis) {
+        this.pdfDownloader = pdfDownloader;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder().setNameFormat("pdf-render-%d").setDaemon(true).build());
+        this.stats = new PdfRenderStats(() -> executor.getQueue().size(), executor::getActiveCount);
+    }
+}
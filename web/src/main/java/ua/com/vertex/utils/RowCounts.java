@@ -0,0 +1,125 @@
+package ua.com.vertex.utils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ua.com.vertex.dao.interfaces.CourseDaoInf;
+import ua.com.vertex.dao.interfaces.UserDaoInf;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static ua.com.vertex.utils.UtilFunctions.runAfterCommit;
+
+/**
+ * Keeps the totals of users, courses and courses per teacher that paged listings need, so a page costs one query
+ * instead of a count plus the page. Counters are bumped by the insert paths once their transaction commits, and
+ * are periodically reloaded from the database, which also repairs drift from rows written outside the application.
+ */
+@Component
+public class RowCounts {
+    private static final Logger LOGGER = LogManager.getLogger(RowCounts.class);
+
+    private final UserDaoInf userDao;
+    private final CourseDaoInf courseDao;
+    private final long reconcileInterval;
+
+    private final AtomicInteger users = new AtomicInteger();
+    private final AtomicInteger courses = new AtomicInteger();
+    private final Map<Integer, AtomicInteger> coursesByTeacher = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService reconciler;
+
+    @PostConstruct
+    public void start() {
+        reconcile();
+        reconciler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("row-counts-reconciler").setDaemon(true).build());
+        reconciler.scheduleWithFixedDelay(this::reconcileQuietly, reconcileInterval, reconcileInterval,
+                TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+        }
+    }
+
+    public int getUsers() {
+        return users.get();
+    }
+
+    public int getCourses() {
+        return courses.get();
+    }
+
+    public int getCourses(int teacherId) {
+        AtomicInteger count = coursesByTeacher.get(teacherId);
+        return count == null ? 0 : count.get();
+    }
+
+    public void userAdded() {
+        runAfterCommit(users::incrementAndGet);
+    }
+
+    public void courseAdded(int teacherId) {
+        runAfterCommit(() -> {
+            courses.incrementAndGet();
+            teacherCounter(teacherId).incrementAndGet();
+        });
+    }
+
+    public void courseTeacherChanged(int previousTeacherId, int teacherId) {
+        if (previousTeacherId == teacherId) {
+            return;
+        }
+        runAfterCommit(() -> {
+            teacherCounter(previousTeacherId).decrementAndGet();
+            teacherCounter(teacherId).incrementAndGet();
+        });
+    }
+
+    public void reconcile() {
+        int userCount = userDao.getQuantityUsers();
+        int courseCount = courseDao.getQuantityCourses();
+        Map<Integer, Integer> teacherCounts = courseDao.getQuantityCoursesPerTeacher();
+
+        users.set(userCount);
+        courses.set(courseCount);
+        teacherCounts.forEach((teacherId, count) -> teacherCounter(teacherId).set(count));
+        coursesByTeacher.keySet().retainAll(teacherCounts.keySet());
+
+        LOGGER.debug("Row counts reconciled: {} users, {} courses, {} teachers", userCount, courseCount,
+                teacherCounts.size());
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            LOGGER.error("Row counts reconciliation failed", e);
+        }
+    }
+
+    private AtomicInteger teacherCounter(int teacherId) {
+        return coursesByTeacher.computeIfAbsent(teacherId, id -> new AtomicInteger());
+    }
+
+    @Autowired
+    public RowCounts(UserDaoInf userDao, CourseDaoInf courseDao,
+                     @Value("${row.counts.reconcile.interval.seconds}") long reconcileInterval) {
+        this.userDao = userDao;
+        this.courseDao = courseDao;
+        this.reconcileInterval = reconcileInterval;
+    }
+}
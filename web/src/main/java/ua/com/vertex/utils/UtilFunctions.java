@@ -1,6 +1,25 @@
 package ua.com.vertex.utils;
 
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
 public class UtilFunctions {
+    /**
+     * Runs the update once the current transaction commits, or at once when there is no transaction.
+     */
+    public static void runAfterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
     public static String humanReadableByteCount(long bytes) {
         int unit = 1024;
         if (bytes < unit) return bytes + " B";
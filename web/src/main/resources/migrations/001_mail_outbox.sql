@@ -0,0 +1,21 @@
+--
+-- Mail_outbox keeps outgoing emails that are written in the same transaction as the business data
+-- and are delivered later by MailOutboxWorker
+--
+CREATE TABLE Mail_outbox (
+  id BIGINT(20) NOT NULL AUTO_INCREMENT,
+  sender VARCHAR(255) NOT NULL,
+  recipient VARCHAR(255) NOT NULL,
+  subject VARCHAR(255) NOT NULL,
+  body TEXT DEFAULT NULL,
+  status VARCHAR(10) NOT NULL DEFAULT 'PENDING',
+  attempts INT(11) NOT NULL DEFAULT 0,
+  next_attempt_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  creation_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  last_error VARCHAR(999) DEFAULT NULL,
+  PRIMARY KEY (id),
+  INDEX Mail_outbox_status_next_attempt_index (status, next_attempt_time)
+)
+ENGINE = INNODB
+CHARACTER SET utf8
+COLLATE utf8_unicode_ci;
@@ -0,0 +1,7 @@
+--
+-- Public certificate verification looks certificates up by certificate_uid, which had no index.
+-- Check for duplicates before applying:
+--   SELECT certificate_uid, COUNT(*) FROM Certificate GROUP BY certificate_uid HAVING COUNT(*) > 1;
+--
+ALTER TABLE Certificate
+  ADD UNIQUE INDEX Certificate_certificate_uid_uindex (certificate_uid);
@@ -0,0 +1,20 @@
+--
+-- Course_debt_summary keeps the outstanding debt and the number of debts of every course. It is changed in the
+-- transactions that change Accounting and is recounted from Accounting by CourseDebtSummaryReconciler.
+--
+CREATE TABLE Course_debt_summary (
+  course_id INT(11) NOT NULL,
+  debt_total DOUBLE NOT NULL DEFAULT 0,
+  debtors INT(11) NOT NULL DEFAULT 0,
+  PRIMARY KEY (course_id),
+  CONSTRAINT Course_debt_summary_Courses_id_fk FOREIGN KEY (course_id)
+  REFERENCES Courses (id) ON DELETE CASCADE ON UPDATE RESTRICT
+)
+ENGINE = INNODB
+CHARACTER SET utf8
+COLLATE utf8_unicode_ci;
+
+INSERT INTO Course_debt_summary (course_id, debt_total, debtors)
+  SELECT c.id, COALESCE(SUM(CASE WHEN a.debt > 0 THEN a.debt END), 0), COUNT(CASE WHEN a.debt > 0 THEN 1 END)
+  FROM Courses c LEFT JOIN Accounting a ON a.course_id = c.id
+  GROUP BY c.id;
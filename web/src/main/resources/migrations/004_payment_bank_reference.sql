@@ -0,0 +1,7 @@
+--
+-- Payments imported from a bank statement keep the bank transaction reference, so importing the same statement
+-- again skips the payments that are already recorded. Payments entered by hand have no reference.
+--
+ALTER TABLE Payments
+  ADD COLUMN bank_reference VARCHAR(64) DEFAULT NULL,
+  ADD UNIQUE INDEX Payments_bank_reference_uindex (bank_reference);
@@ -0,0 +1,6 @@
+--
+-- The payment history export reads payments of a date range in payment_date order. Ledger pages are read by
+-- Accounting.user_id or course_id and the foreign key index on Payments.deal_id, which holds payment_id as well.
+--
+ALTER TABLE Payments
+  ADD INDEX Payments_payment_date_index (payment_date);
@@ -0,0 +1,6 @@
+--
+-- A claimed outbox mail keeps the time of its claim. MailOutboxWorker returns to the queue only claims older than
+-- mail.outbox.claim.timeout.seconds, so messages that another node is sending are not sent twice.
+--
+ALTER TABLE Mail_outbox
+  ADD COLUMN claimed_time TIMESTAMP NULL DEFAULT NULL;
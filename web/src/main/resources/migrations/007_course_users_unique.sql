@@ -0,0 +1,7 @@
+--
+-- A user could be enrolled, and billed, twice for the same course: Course_users had no unique key.
+-- Check for duplicates before applying:
+--   SELECT course_id, user_id, COUNT(*) FROM Course_users GROUP BY course_id, user_id HAVING COUNT(*) > 1;
+--
+ALTER TABLE Course_users
+  ADD UNIQUE INDEX Course_users_course_id_user_id_uindex (course_id, user_id);
@@ -33,6 +33,22 @@
                 </form:form>
             </div>
         </div>
+        <div class="form-group t-row col-xs-6">
+            <p class="col-sm-6">Import payments from a bank statement</p>
+            <div class="col-sm-6 d-flex align-right">
+                <form:form cssClass="buttonText" method="get" action="/importPayments">
+                    <input type="submit" class="submit-link outline" name="importPayments" value="Import Payments">
+                </form:form>
+            </div>
+        </div>
+        <div class="form-group t-row col-xs-6">
+            <p class="col-sm-6">Payment history and export</p>
+            <div class="col-sm-6 d-flex align-right">
+                <form:form cssClass="buttonText" method="get" action="/paymentHistory">
+                    <input type="submit" class="submit-link outline" name="paymentHistory" value="Payment History">
+                </form:form>
+            </div>
+        </div>
         <div class="form-group t-row col-xs-6">
             <p class="col-sm-6">Add a new course</p>
             <div class="col-sm-6 d-flex align-right">
@@ -49,6 +65,14 @@
                 </form:form>
             </div>
         </div>
+        <div class="form-group t-row col-xs-6">
+            <p class="col-sm-6">Certificate PDF rendering</p>
+            <div class="col-sm-6 d-flex align-right">
+                <form:form cssClass="buttonText" method="get" action="/pdfRenderStats">
+                    <input type="submit" class="submit-link outline" name="pdfRenderStats" value="Rendering Stats">
+                </form:form>
+            </div>
+        </div>
         <div class="container result-box" align="center">
             <c:if test="${!empty msg}">
                 <h2 class="result-text">${msg}</h2>
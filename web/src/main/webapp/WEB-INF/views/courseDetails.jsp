@@ -76,6 +76,38 @@
             <input type="hidden" name="id" value="${course.id}"/>
             <input type="submit" class="submit-link" value="Show users">
         </form:form>
+
+        <h2 class="mt60">Graduate this course:</h2>
+        <form:form action="graduateCourse" method="post" commandName="course">
+            <input type="hidden" name="courseId" value="${course.id}"/>
+            <div class="container-fluid">
+                <div class="row d-flex align-middle">
+                    <div class="col-xs-3 d-flex align-middle"><p>Certificate language:</p></div>
+                    <div class="col-xs-9 d-flex align-middle">
+                        <input id="language" class="form-control" type="text" name="language"/>
+                    </div>
+                </div>
+                <div class="row d-flex align-middle">
+                    <div class="col-xs-3 d-flex align-middle"><p>Only users without debt:</p></div>
+                    <div class="col-xs-9 d-flex align-middle">
+                        <input id="debtFreeOnly" type="checkbox" name="debtFreeOnly" value="true"/>
+                    </div>
+                </div>
+                <input type="submit" class="submit-link" value="Issue certificates">
+            </div>
+        </form:form>
+
+        <h2 class="mt60">Notify users of this course:</h2>
+        <form action="courseNotification" method="get">
+            <input type="hidden" name="courseId" value="${course.id}"/>
+            <input type="submit" class="submit-link" value="Write notification">
+        </form>
+
+        <h2 class="mt60">Certificates of this course:</h2>
+        <form action="courseCertificatesZip" method="get">
+            <input type="hidden" name="courseId" value="${course.id}"/>
+            <input type="submit" class="submit-link" value="Download all certificates (ZIP)">
+        </form>
     </div>
 
 </div>
@@ -0,0 +1,49 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="form" uri="http://www.springframework.org/tags/form" %>
+<%@ taglib prefix="sec" uri="http://www.springframework.org/security/tags" %>
+<%@ page session="false" %>
+<%@ taglib prefix="mt" tagdir="/WEB-INF/tags" %>
+
+<mt:header title="Course Notification"> </mt:header>
+
+<div class="container">
+    <div class="crm-form mt60 full-width">
+        <form:form commandName="courseNotification" action="sendCourseNotification" method="post">
+            <h1>Notify users of the course</h1>
+            <form:hidden path="courseId"/>
+            <div class="container-fluid">
+                <div class="row d-flex align-middle">
+                    <div class="col-xs-3 d-flex align-middle"><p>Subject:</p></div>
+                    <div class="col-xs-9 d-flex align-middle">
+                        <form:input id="subject" class="form-control" type="text" path="subject"/>
+                    </div>
+                    <form:errors path="subject"/>
+                </div>
+                <div class="row d-flex align-middle">
+                    <div class="col-xs-3 d-flex align-middle"><p>Message:</p></div>
+                    <div class="col-xs-9 d-flex align-middle">
+                        <form:textarea id="body" class="form-control" rows="8" path="body"/>
+                    </div>
+                    <form:errors path="body"/>
+                </div>
+                <div class="row d-flex align-middle">
+                    <div class="col-xs-3 d-flex align-middle"><p>Only users with debt:</p></div>
+                    <div class="col-xs-9 d-flex align-middle">
+                        <form:checkbox id="debtorsOnly" path="debtorsOnly"/>
+                    </div>
+                </div>
+                <input type="submit" class="submit-link" value="Send">
+            </div>
+        </form:form>
+    </div>
+</div>
+
+<div class="container mb-20" align="center">
+    <div class="links">
+        <a href="javascript:history.back();">Back</a> |
+        <a href="<c:url value="/"/>">Home</a>
+    </div>
+</div>
+
+<mt:footer> </mt:footer>
@@ -0,0 +1,49 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="sec" uri="http://www.springframework.org/security/tags" %>
+<%@ page session="false" %>
+<%@ taglib prefix="mt" tagdir="/WEB-INF/tags" %>
+
+<mt:header title="Notification Progress"> </mt:header>
+
+<c:if test="${!progress.finished}">
+    <meta http-equiv="refresh" content="3">
+</c:if>
+
+<div class="container">
+    <div class="crm-form mt60 full-width">
+        <h1>Notification of course users</h1>
+        <table class="courses-result full-width">
+            <tr>
+                <th>Course id</th>
+                <th>Started</th>
+                <th>Total</th>
+                <th>Sent</th>
+                <th>Failed</th>
+                <th>Progress</th>
+                <th>Status</th>
+            </tr>
+            <tr>
+                <td>${progress.courseId}</td>
+                <td>${progress.startTime}</td>
+                <td>${progress.total}</td>
+                <td>${progress.sent}</td>
+                <td>${progress.failed}</td>
+                <td>${progress.percent}%</td>
+                <td>${progress.finished ? 'Finished' : 'Sending'}</td>
+            </tr>
+        </table>
+        <div class="links mt60">
+            <a href="<c:url value="/courseNotificationProgress?jobId=${progress.jobId}"/>">Refresh</a>
+        </div>
+    </div>
+</div>
+
+<div class="container mb-20" align="center">
+    <div class="links">
+        <a href="javascript:history.back();">Back</a> |
+        <a href="<c:url value="/"/>">Home</a>
+    </div>
+</div>
+
+<mt:footer> </mt:footer>
@@ -1,5 +1,6 @@
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="fn" uri="http://java.sun.com/jsp/jstl/functions" %>
 <%@ taglib prefix="sf" uri="http://www.springframework.org/tags/form" %>
 <%@ taglib prefix="sec" uri="http://www.springframework.org/security/tags" %>
 <%@ page session="false" %>
@@ -45,7 +46,7 @@
                         <p>Enter first name, or last name, or email:</p>
                     </td>
                     <td>
-                        <input type="text" name="searchParam" value="${dtoCourseUser.searchParam}" id="searchParam"
+                        <input type="text" name="searchParam" value="${fn:escapeXml(dtoCourseUser.searchParam)}" id="searchParam"
                                maxlength="255" placeholder="First name, or last name, or email" class="form-control"/>
                     </td>
                 </tr>
@@ -70,10 +71,28 @@
             </sf:form>
         </c:if>
 
+        <c:if test="${!empty enrolment}">
+            <p>Users assigned to the course: ${fn:length(enrolment.enrolled)}</p>
+            <c:if test="${!empty enrolment.alreadyEnrolled}">
+                <p>Already assigned, skipped (user id):
+                    <c:forEach items="${enrolment.alreadyEnrolled}" var="userId" varStatus="status">
+                        ${userId}<c:if test="${!status.last}">, </c:if>
+                    </c:forEach>
+                </p>
+            </c:if>
+        </c:if>
+
         <c:if test="${!empty freeUsers and !empty search}">
             <hr>
             <h2>Search results:</h2>
 
+            <sf:form id="assignUsers" action="assignUsers" method="post" commandName="dtoCourseUser">
+                <input type="hidden" name="searchType" value="${fn:escapeXml(dtoCourseUser.searchType)}">
+                <input type="hidden" name="searchParam" value="${fn:escapeXml(dtoCourseUser.searchParam)}">
+                <input type="hidden" name="courseId" value="${dtoCourseUser.courseId}">
+                <input type="submit" value="Assign selected" class="submit-link">
+            </sf:form>
+
             <table class="courses-result full-width">
                 <tr>
                     <th>Email</th>
@@ -81,11 +100,12 @@
                     <th>Last Name</th>
                     <th>Phone</th>
                     <th>Assign to course</th>
+                    <th>Select</th>
                 </tr>
                 <c:forEach items="${freeUsers}" var="freeUser">
                     <sf:form action="assignUser" method="post" commandName="dtoCourseUser">
-                        <input type="hidden" name="searchType" value="${dtoCourseUser.searchType}">
-                        <input type="hidden" name="searchParam" value="${dtoCourseUser.searchParam}">
+                        <input type="hidden" name="searchType" value="${fn:escapeXml(dtoCourseUser.searchType)}">
+                        <input type="hidden" name="searchParam" value="${fn:escapeXml(dtoCourseUser.searchParam)}">
                         <input type="hidden" name="courseId" value="${dtoCourseUser.courseId}">
                         <input type="hidden" name="userId" value="${freeUser.userId}">
                         <input type="hidden" name="email" value="${freeUser.email}">
@@ -98,6 +118,7 @@
                             <td>${freeUser.lastName}</td>
                             <td>${freeUser.phone}</td>
                             <td><input type="submit" value="Assign" class="submit-link"/></td>
+                            <td><input type="checkbox" name="userIds" value="${freeUser.userId}" form="assignUsers"/></td>
                         </tr>
                     </sf:form>
                 </c:forEach>
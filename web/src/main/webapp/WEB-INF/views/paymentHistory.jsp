@@ -0,0 +1,85 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="mt" tagdir="/WEB-INF/tags" %>
+
+<mt:header title="Payment History"> </mt:header>
+
+<div class="container">
+    <div class="crm-form mt60 full-width">
+        <h1>Payment history</h1>
+        <table class="courses-result full-width">
+            <tr>
+                <td>
+                    <form method="get" action="<c:url value="/paymentHistory/user"/>">
+                        <input type="number" name="userId" min="1" placeholder="User id" required/>
+                        <input class="submit-link" type="submit" value="Student ledger"/>
+                    </form>
+                </td>
+                <td>
+                    <form method="get" action="<c:url value="/paymentHistory/course"/>">
+                        <input type="number" name="courseId" min="1" placeholder="Course id" required/>
+                        <input class="submit-link" type="submit" value="Course ledger"/>
+                    </form>
+                </td>
+                <td>
+                    <form method="get" action="<c:url value="/paymentHistory/export"/>">
+                        <input type="date" name="from" required/>
+                        <input type="date" name="to" required/>
+                        <input class="submit-link" type="submit" value="Export CSV"/>
+                    </form>
+                </td>
+            </tr>
+        </table>
+
+        <c:if test="${!empty ledger}">
+            <c:if test="${empty ledger.entries}">
+                <h3><span class="error-text">No payments found.</span></h3>
+            </c:if>
+            <c:if test="${!empty ledger.entries}">
+                <table class="courses-result full-width mt60">
+                    <tr>
+                        <th>Payment id</th>
+                        <th>Date</th>
+                        <th>Amount</th>
+                        <th>Bank reference</th>
+                        <th>Course</th>
+                        <th>Student</th>
+                        <th>Current debt</th>
+                    </tr>
+                    <c:forEach items="${ledger.entries}" var="entry">
+                        <tr>
+                            <td>${entry.paymentId}</td>
+                            <td>${entry.paymentDate}</td>
+                            <td>${entry.amount}</td>
+                            <td><c:out value="${entry.bankReference}"/></td>
+                            <td>
+                                <a href="<c:url value="/paymentHistory/course?courseId=${entry.courseId}"/>">
+                                    <c:out value="${entry.courseName}"/></a>
+                            </td>
+                            <td>
+                                <a href="<c:url value="/paymentHistory/user?userId=${entry.userId}"/>">
+                                    <c:out value="${entry.firstName} ${entry.lastName}; ${entry.email}"/></a>
+                            </td>
+                            <td>${entry.debt}</td>
+                        </tr>
+                    </c:forEach>
+                </table>
+            </c:if>
+            <div class="links mt60">
+                <a href="<c:url value="${ledgerUrl}"/>">Newest</a>
+                <c:if test="${ledger.nextBefore > 0}">
+                    | <a href="<c:url value="${ledgerUrl}&before=${ledger.nextBefore}"/>">Older</a>
+                </c:if>
+            </div>
+        </c:if>
+    </div>
+</div>
+
+<div class="container mb-20" align="center">
+    <div class="links">
+        <a href="javascript:history.back();">Back</a> |
+        <a href="<c:url value="/"/>">Home</a>
+    </div>
+</div>
+
+<mt:footer> </mt:footer>
@@ -0,0 +1,70 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib uri="http://www.springframework.org/tags/form" prefix="form" %>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="mt" tagdir="/WEB-INF/tags" %>
+
+<mt:header title="Import Payments"> </mt:header>
+
+<div class="container">
+    <div class="crm-form mt60 full-width">
+        <h1>Import payments from a bank statement</h1>
+        <p class="silver">CSV file with lines of: bank reference, course id, user id, amount</p>
+        <form:form cssClass="buttonText" method="post" action="importPayments" enctype="multipart/form-data">
+            <input type="file" name="statement" accept=".csv,text/csv"/>
+            <input class="submit-link" type="submit" value="Import"/>
+        </form:form>
+
+        <c:if test="${!empty importResult}">
+            <table class="courses-result full-width mt60">
+                <tr>
+                    <th>Imported</th>
+                    <th>Already imported</th>
+                    <th>Unmatched</th>
+                    <th>Invalid lines</th>
+                </tr>
+                <tr>
+                    <td>${importResult.imported}</td>
+                    <td>${importResult.alreadyImported}</td>
+                    <td>${importResult.unmatched.size()}</td>
+                    <td>${importResult.invalidLines.size()}</td>
+                </tr>
+            </table>
+            <c:if test="${!empty importResult.unmatched}">
+                <h2>Payments without a deal for the course and user</h2>
+                <table class="courses-result full-width">
+                    <tr>
+                        <th>Line</th>
+                        <th>Bank reference</th>
+                        <th>Course id</th>
+                        <th>User id</th>
+                        <th>Amount</th>
+                    </tr>
+                    <c:forEach items="${importResult.unmatched}" var="payment">
+                        <tr>
+                            <td>${payment.line}</td>
+                            <td><c:out value="${payment.reference}"/></td>
+                            <td>${payment.courseId}</td>
+                            <td>${payment.userId}</td>
+                            <td>${payment.amount}</td>
+                        </tr>
+                    </c:forEach>
+                </table>
+            </c:if>
+            <c:if test="${!empty importResult.invalidLines}">
+                <h2>Lines that are not payments</h2>
+                <c:forEach items="${importResult.invalidLines}" var="line">
+                    <p class="error-text"><c:out value="${line}"/></p>
+                </c:forEach>
+            </c:if>
+        </c:if>
+    </div>
+</div>
+
+<div class="container mb-20" align="center">
+    <div class="links">
+        <a href="javascript:history.back();">Back</a> |
+        <a href="<c:url value="/"/>">Home</a>
+    </div>
+</div>
+
+<mt:footer> </mt:footer>
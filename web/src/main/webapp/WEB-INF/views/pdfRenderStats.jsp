@@ -0,0 +1,61 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
+<%@ page session="false" %>
+<%@ taglib prefix="mt" tagdir="/WEB-INF/tags" %>
+
+<mt:header title="Certificate Rendering"> </mt:header>
+
+<div class="container">
+    <div class="crm-form mt60 full-width">
+        <h1>Certificate PDF rendering</h1>
+        <table class="courses-result full-width">
+            <tr>
+                <th>Queued</th>
+                <th>Rendering</th>
+                <th>Submitted</th>
+                <th>Completed</th>
+                <th>Rejected (503)</th>
+                <th>Timed out</th>
+                <th>Failed</th>
+                <th>Avg wait, ms</th>
+                <th>Avg render, ms</th>
+                <th>Max render, ms</th>
+            </tr>
+            <tr>
+                <td>${stats.queueDepth}</td>
+                <td>${stats.activeRenders}</td>
+                <td>${stats.submitted}</td>
+                <td>${stats.completed}</td>
+                <td>${stats.rejected}</td>
+                <td>${stats.timedOut}</td>
+                <td>${stats.failed}</td>
+                <td><fmt:formatNumber value="${stats.averageWaitMillis}" maxFractionDigits="1"/></td>
+                <td><fmt:formatNumber value="${stats.averageRenderMillis}" maxFractionDigits="1"/></td>
+                <td><fmt:formatNumber value="${stats.maxRenderMillis}" maxFractionDigits="1"/></td>
+            </tr>
+        </table>
+        <table class="courses-result full-width mt60">
+            <tr>
+                <th>PDFs rendered since start</th>
+                <th>Average size per certificate, KB</th>
+            </tr>
+            <tr>
+                <td>${renderedPdfs}</td>
+                <td><fmt:formatNumber value="${averagePdfBytes / 1024}" maxFractionDigits="1"/></td>
+            </tr>
+        </table>
+        <div class="links mt60">
+            <a href="<c:url value="/pdfRenderStats"/>">Refresh</a>
+        </div>
+    </div>
+</div>
+
+<div class="container mb-20" align="center">
+    <div class="links">
+        <a href="javascript:history.back();">Back</a> |
+        <a href="<c:url value="/"/>">Home</a>
+    </div>
+</div>
+
+<mt:footer> </mt:footer>
@@ -87,6 +87,30 @@
 
                     <input type="submit" class="submit-link" value="Show details">
                 </form:form>
+
+                <c:if test="${searchPage.pageCount > 1}">
+                    <p>Page ${searchPage.page} of ${searchPage.pageCount}, ${searchPage.total} courses found</p>
+                    <c:if test="${searchPage.page > 1}">
+                        <form:form cssClass="buttonText" method="post" commandName="courseForInfo"
+                                   action="searchCourse">
+                            <form:hidden path="name"/>
+                            <form:hidden path="finished"/>
+                            <form:hidden path="start" value="2011-12-03"/>
+                            <input type="hidden" name="page" value="${searchPage.page - 1}">
+                            <input type="submit" class="submit-link" value="Prev">
+                        </form:form>
+                    </c:if>
+                    <c:if test="${searchPage.page < searchPage.pageCount}">
+                        <form:form cssClass="buttonText" method="post" commandName="courseForInfo"
+                                   action="searchCourse">
+                            <form:hidden path="name"/>
+                            <form:hidden path="finished"/>
+                            <form:hidden path="start" value="2011-12-03"/>
+                            <input type="hidden" name="page" value="${searchPage.page + 1}">
+                            <input type="submit" class="submit-link" value="Next">
+                        </form:form>
+                    </c:if>
+                </c:if>
             </div>
         </div>
     </c:if>
@@ -37,6 +37,8 @@
             </c:forEach>
 
         </table>
+        <br>
+        <a href="<c:url value="/myCertificatesZip"/>">Download all certificates (ZIP)</a>
     </c:if>
 
     <br>
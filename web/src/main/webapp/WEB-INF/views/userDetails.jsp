@@ -122,6 +122,9 @@
                     </tr>
                 </c:forEach>
             </table>
+            <c:if test="${!empty certificates}">
+                <a href="<c:url value="/userCertificatesZip?userId=${user.userId}"/>">Download all certificates (ZIP)</a>
+            </c:if>
 
             <input id="save" class="submit-link" type="submit" value="Save"/>
 
@@ -0,0 +1,46 @@
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+
+<table class="courses-result full-width">
+    <tr>
+        <th width="60px">Course ID</th>
+        <th width="150px">Course name</th>
+        <th width="150px">Start course</th>
+        <th width="100px">Finished</th>
+        <th width="100px">Price</th>
+        <th width="300px">Teacher name</th>
+        <th width="150px">Schedule</th>
+        <th width="300px">Notes</th>
+        <th width="100px"></th>
+    </tr>
+    <c:if test="${empty courses}">
+        <tr>
+            <td>There are no courses!</td>
+        </tr>
+    </c:if>
+    <c:forEach var="courses" items="${courses}">
+        <tr>
+            <td>${courses.id} </td>
+            <td>${courses.name} </td>
+            <td>${courses.start} </td>
+            <c:if test="${courses.finished}">
+                <td class = "padding-left-15">&#10003;</td>
+            </c:if>
+            <c:if test="${!courses.finished}">
+                <td> </td>
+            </c:if>
+            <td>${courses.price} </td>
+            <td>${courses.teacher.firstName} ${courses.teacher.lastName} '${courses.teacher.email}'</td>
+            <td>${courses.schedule} </td>
+            <td>${courses.notes} </td>
+            <td>
+                <c:set var="titleURL">
+                    <c:url value="/courseDetails">
+                        <c:param name="courseId" value="${courses.id}"/>
+                    </c:url>
+                </c:set>
+                <a href="${titleURL}">Detail</a>
+            </td>
+        </tr>
+    </c:forEach>
+</table>
@@ -0,0 +1,91 @@
+package ua.com.vertex.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ua.com.vertex.beans.CertificateWithHolder;
+import ua.com.vertex.dao.CertificateDaoImpl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Certificate verification lookup latency on a table of one million certificates, with and without the
+ * unique index on certificate_uid, for the typed long lookup and for the old String-bound query.
+ * Run the main method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CertificateLookupBenchmark {
+    private static final int CERTIFICATES = 1_000_000;
+    private static final int USERS = 1_000;
+    private static final long FIRST_UID = 1_000_000_000_000_000L;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private DriverManagerDataSource dataSource;
+    private CertificateDaoImpl certificateDao;
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void createCertificates() {
+        dataSource = new DriverManagerDataSource(
+                String.format("jdbc:h2:mem:certificateLookup%s;DB_CLOSE_DELAY=-1", indexed));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.execute("CREATE TABLE Users (user_id INT PRIMARY KEY, email VARCHAR(255), " +
+                "first_name VARCHAR(256), last_name VARCHAR(256))");
+        jdbcTemplate.execute("CREATE TABLE Certificate (certification_id INT AUTO_INCREMENT PRIMARY KEY, " +
+                "user_id INT, certification_date DATE NOT NULL, course_name VARCHAR(500) NOT NULL, " +
+                "language VARCHAR(255) NOT NULL, certificate_uid BIGINT(20) NOT NULL)");
+        jdbcTemplate.update("INSERT INTO Users SELECT X, CONCAT('user', X, '@test.com'), 'First', 'Last' " +
+                "FROM SYSTEM_RANGE(1, ?)", USERS);
+        jdbcTemplate.update("INSERT INTO Certificate (user_id, certification_date, course_name, language, " +
+                "certificate_uid) SELECT MOD(X, ?) + 1, DATE '2018-01-01', 'Java Professional', 'Java', ? + X " +
+                "FROM SYSTEM_RANGE(1, ?)", USERS, FIRST_UID, CERTIFICATES);
+        if (indexed) {
+            jdbcTemplate.execute("ALTER TABLE Certificate " +
+                    "ADD CONSTRAINT Certificate_certificate_uid_uindex UNIQUE (certificate_uid)");
+        }
+
+        certificateDao = new CertificateDaoImpl(dataSource);
+        namedJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @TearDown(Level.Trial)
+    public void dropDatabase() {
+        new JdbcTemplate(dataSource).execute("SHUTDOWN");
+    }
+
+    @Benchmark
+    public CertificateWithHolder typedLookup() {
+        return certificateDao.getCertificateWithHolderByUid(randomUid()).orElse(null);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> stringBoundLookup() {
+        return namedJdbcTemplate.queryForList("SELECT certification_id, certificate_uid, user_id, " +
+                        "certification_date, course_name, language FROM Certificate WHERE certificate_uid = :uid",
+                new MapSqlParameterSource("uid", String.valueOf(randomUid())));
+    }
+
+    private long randomUid() {
+        return FIRST_UID + 1 + ThreadLocalRandom.current().nextInt(CERTIFICATES);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CertificateLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,48 @@
+package ua.com.vertex.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ua.com.vertex.utils.CertificateUidGenerator;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the lock-free UID generator with the previous millis + Random scheme under contention.
+ * Run the main method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CertificateUidGeneratorBenchmark {
+    private final CertificateUidGenerator generator = new CertificateUidGenerator(0);
+
+    @Benchmark
+    @Threads(1)
+    public long nextUidSingleThread() {
+        return generator.nextUid();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextUidFourThreads() {
+        return generator.nextUid();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String previousRandomUidFourThreads() {
+        String part1 = String.valueOf(System.currentTimeMillis());
+        String part2 = String.valueOf(100 + new Random().nextInt(900));
+        return (part1 + part2).substring(0, 16);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CertificateUidGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,128 @@
+package ua.com.vertex.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.com.vertex.beans.Accounting;
+import ua.com.vertex.beans.Course;
+import ua.com.vertex.beans.DtoCourseUser;
+import ua.com.vertex.dao.AccountingDaoImpl;
+import ua.com.vertex.dao.CourseDaoImpl;
+import ua.com.vertex.dao.DaoUtilImpl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one enrolment: the previous path (insert into Course_users, read the course, insert into Accounting)
+ * against AccountingDaoImpl.insertAccountingRowAtCoursePrice, which copies the price with INSERT ... SELECT instead
+ * of reading the course, followed by the Course_users insert. Both paths update the course debt summary. Every
+ * enrolment is rolled back, so tables do not grow during the run.
+ * <p>
+ * By default the benchmark runs against an in-memory H2 database, where a round trip is a method call; to see
+ * the network cost, point it at the MySQL schema with
+ * {@code -p url=jdbc:mysql://localhost:3306/db1 -p user=root -p password=root}.
+ * Run the main method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnrolmentBenchmark {
+    private static final int COURSES = 100;
+    private static final int USERS = 10_000;
+
+    @Param({"jdbc:h2:mem:enrolment;MODE=MySQL;DB_CLOSE_DELAY=-1"})
+    private String url;
+
+    @Param({"sa"})
+    private String user;
+
+    @Param({"sa"})
+    private String password;
+
+    private DriverManagerDataSource dataSource;
+    private CourseDaoImpl courseDao;
+    private AccountingDaoImpl accountingDao;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void createDatabase() {
+        dataSource = new DriverManagerDataSource(url, user, password);
+        if (url.startsWith("jdbc:h2:")) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE Courses (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(256), " +
+                    "start DATE, finished TINYINT(1), price DECIMAL(10, 2), teacher_id INT, schedule VARCHAR(256), " +
+                    "notes VARCHAR(256))");
+            jdbcTemplate.execute("CREATE TABLE Course_users (id INT AUTO_INCREMENT PRIMARY KEY, course_id INT, " +
+                    "user_id INT)");
+            jdbcTemplate.execute("CREATE TABLE Accounting (deal_id INT AUTO_INCREMENT PRIMARY KEY, user_id INT, " +
+                    "course_id INT, course_coast DOUBLE, debt DOUBLE)");
+            jdbcTemplate.execute("CREATE TABLE Course_debt_summary (course_id INT PRIMARY KEY, " +
+                    "debt_total DOUBLE NOT NULL DEFAULT 0, debtors INT NOT NULL DEFAULT 0)");
+            jdbcTemplate.update("INSERT INTO Courses (id, name, start, finished, price, teacher_id) " +
+                    "SELECT X, CONCAT('Course ', X), DATE '2018-01-01', 0, 4000, 1 FROM SYSTEM_RANGE(1, ?)", COURSES);
+            jdbcTemplate.update("INSERT INTO Course_debt_summary (course_id) SELECT id FROM Courses");
+        }
+
+        courseDao = new CourseDaoImpl(dataSource, new DaoUtilImpl());
+        accountingDao = new AccountingDaoImpl(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @TearDown(Level.Trial)
+    public void dropDatabase() {
+        if (url.startsWith("jdbc:h2:")) {
+            new JdbcTemplate(dataSource).execute("SHUTDOWN");
+        }
+    }
+
+    @Benchmark
+    public Object readCoursePrice() {
+        DtoCourseUser dto = new DtoCourseUser();
+        dto.setCourseId(randomCourse());
+        dto.setUserId(randomUser());
+
+        return transactionTemplate.execute(status -> {
+            courseDao.assignUserToCourse(dto);
+            Course course = courseDao.getCourseById(dto.getCourseId()).orElseThrow(IllegalStateException::new);
+            int dealId = accountingDao.insertAccountingRow(new Accounting(0, dto.getUserId(), course.getId(),
+                    course.getPrice().doubleValue(), course.getPrice().doubleValue()));
+            status.setRollbackOnly();
+            return dealId;
+        });
+    }
+
+    @Benchmark
+    public Object insertSelect() {
+        DtoCourseUser dto = new DtoCourseUser();
+        dto.setCourseId(randomCourse());
+        dto.setUserId(randomUser());
+
+        return transactionTemplate.execute(status -> {
+            boolean enrolled = accountingDao.insertAccountingRowAtCoursePrice(dto.getUserId(), dto.getCourseId());
+            courseDao.assignUserToCourse(dto);
+            status.setRollbackOnly();
+            return enrolled;
+        });
+    }
+
+    private int randomCourse() {
+        return 1 + ThreadLocalRandom.current().nextInt(COURSES);
+    }
+
+    private int randomUser() {
+        return 1 + ThreadLocalRandom.current().nextInt(USERS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EnrolmentBenchmark.class.getSimpleName()).build()).run();
+    }
+}
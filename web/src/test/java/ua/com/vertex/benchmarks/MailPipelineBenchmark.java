@@ -0,0 +1,121 @@
+package ua.com.vertex.benchmarks;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.validation.BeanPropertyBindingResult;
+import ua.com.vertex.beans.UserFormRegistration;
+import ua.com.vertex.context.TestConfigWithEmbeddedSmtp;
+import ua.com.vertex.logic.interfaces.EmailLogic;
+import ua.com.vertex.logic.interfaces.MailOutboxLogic;
+import ua.com.vertex.logic.interfaces.RegistrationUserLogic;
+import ua.com.vertex.utils.EmbeddedSmtpServer;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertTrue;
+import static ua.com.vertex.logic.RegistrationUserLogicImpl.OUR_EMAIL;
+
+/**
+ * Drives the registration and password reset flows end to end: business logic, Mail_outbox, the background
+ * worker and SMTP delivery to the embedded server. Not part of the regular build, run it with
+ * {@code mvn test -Dtest=MailPipelineBenchmark [-Dbenchmark.users=500]}.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestConfigWithEmbeddedSmtp.class)
+@WebAppConfiguration
+@ActiveProfiles({"withEmbeddedSmtp", "embeddedSmtp"})
+public class MailPipelineBenchmark {
+    private static final int USERS = Integer.getInteger("benchmark.users", 200);
+    private static final long TIMEOUT_SECONDS = 300;
+    private static final String EMAIL_FORMAT = "benchmark%d@test.com";
+
+    @Autowired
+    private RegistrationUserLogic registrationUserLogic;
+
+    @Autowired
+    private EmailLogic emailLogic;
+
+    @Autowired
+    private MailOutboxLogic mailOutboxLogic;
+
+    @Autowired
+    private EmbeddedSmtpServer smtpServer;
+
+    private final Map<String, Long> enqueueTimes = new ConcurrentHashMap<>();
+    private final AtomicInteger latencyIndex = new AtomicInteger();
+    private long[] latencies;
+    private CountDownLatch delivered;
+
+    @Test
+    public void mailPipelineThroughput() throws InterruptedException {
+        smtpServer.addListener(this::mailDelivered);
+
+        runFlow("Registration", i -> {
+            UserFormRegistration form = createForm(i);
+            registrationUserLogic.registerUser(form, new BeanPropertyBindingResult(form, "userFormRegistration"));
+        });
+        runFlow("Password reset", i -> {
+            String email = String.format(EMAIL_FORMAT, i);
+            mailOutboxLogic.addMail(OUR_EMAIL, email, "Reset Your Password",
+                    emailLogic.createPasswordResetMessage(email));
+        });
+    }
+
+    private void runFlow(String name, Consumer<Integer> flow) throws InterruptedException {
+        latencies = new long[USERS];
+        latencyIndex.set(0);
+        delivered = new CountDownLatch(USERS);
+        long requestThreadNanos = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < USERS; i++) {
+            enqueueTimes.put(String.format(EMAIL_FORMAT, i), System.nanoTime());
+            long callStart = System.nanoTime();
+            flow.accept(i);
+            requestThreadNanos += System.nanoTime() - callStart;
+        }
+        assertTrue(name + " messages were not delivered in time", delivered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        System.out.printf("%s: %d messages, %.1f msg/s%n", name, USERS, USERS * 1e9 / elapsed);
+        System.out.printf("  request thread: %.3f ms/call%n", requestThreadNanos / 1e6 / USERS);
+        System.out.printf("  enqueue-to-delivery ms: p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+                percentile(50), percentile(90), percentile(99), latencies[USERS - 1] / 1e6);
+    }
+
+    private void mailDelivered(EmbeddedSmtpServer.ReceivedMail mail) {
+        Long enqueued = enqueueTimes.remove(mail.getRecipients().get(0));
+        if (enqueued != null) {
+            latencies[latencyIndex.getAndIncrement()] = mail.getReceivedNanos() - enqueued;
+            delivered.countDown();
+        }
+    }
+
+    private double percentile(int percent) {
+        int index = Math.min(USERS - 1, (int) Math.ceil(percent / 100.0 * USERS) - 1);
+        return latencies[Math.max(0, index)] / 1e6;
+    }
+
+    private UserFormRegistration createForm(int i) {
+        UserFormRegistration form = new UserFormRegistration();
+        form.setEmail(String.format(EMAIL_FORMAT, i));
+        form.setPassword("benchmark");
+        form.setVerifyPassword("benchmark");
+        form.setFirstName("Bench");
+        form.setLastName("Mark" + i);
+        form.setPhone("+380501234567");
+        return form;
+    }
+}
@@ -0,0 +1,92 @@
+package ua.com.vertex.benchmarks;
+
+import com.itextpdf.text.*;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import ua.com.vertex.beans.PdfDto;
+import ua.com.vertex.utils.PdfGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Certificates per second of the template-based generator against the previous rendering, which created a font
+ * for every text row and decoded certificate.png for every certificate. Run the main method from the test
+ * classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfGeneratorBenchmark {
+    private final PdfDto dto = new PdfDto("email@test.com", "FirstName", "LastName", "Java Professional",
+            "2016-12-01", "1492-7798-2879-3891");
+
+    private PdfGenerator pdfGenerator;
+
+    @Setup
+    public void setUp() {
+        pdfGenerator = new PdfGenerator();
+    }
+
+    @Benchmark
+    public byte[] templateGenerator() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(64 * 1024);
+        pdfGenerator.generatePdf(outputStream, dto);
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] previousGenerator() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(64 * 1024);
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+        Rectangle dimensions = new Rectangle(1120, 530);
+        document.setPageSize(dimensions);
+
+        document.open();
+        Image image = Image.getInstance(new ClassPathResource("certificate.png").getURL());
+        image.scaleAbsolute(dimensions);
+        image.setAbsolutePosition(0, 0);
+        writer.getDirectContentUnder().addImage(image);
+
+        setTextRow(writer, "Certificate of Achievement", BaseFont.TIMES_BOLD, 44, 560, 350);
+        setTextRow(writer, "This certificate acknowledges that", BaseFont.TIMES_ROMAN, 18, 560, 315);
+        setTextRow(writer, dto.getFirstName() + " " + dto.getLastName(), BaseFont.TIMES_BOLDITALIC, 36, 560, 270);
+        setTextRow(writer, "has successfully completed the course", BaseFont.TIMES_ROMAN, 18, 560, 230);
+        setTextRow(writer, dto.getCourseName(), BaseFont.TIMES_BOLD, 32, 560, 185);
+        setTextRow(writer, "Certificate was issued by vertex-academy.com", BaseFont.TIMES_ROMAN, 18, 280, 140);
+        setTextRow(writer, "Director General: Piskokha M. A.", BaseFont.TIMES_ROMAN, 18, 850, 140);
+        setTextRow(writer, "Certificate UID: " + dto.getCertificateUid(), BaseFont.TIMES_ROMAN, 18, 280, 115);
+        setTextRow(writer, "01 December 2016", BaseFont.TIMES_ROMAN, 18, 850, 115);
+        document.close();
+
+        return outputStream.toByteArray();
+    }
+
+    private void setTextRow(PdfWriter writer, String parameter, String font, int fontSize, int shiftX, int shiftY)
+            throws IOException, DocumentException {
+        BaseFont baseFont = BaseFont.createFont(font, BaseFont.WINANSI, BaseFont.EMBEDDED);
+        PdfContentByte cb = writer.getDirectContent();
+
+        cb.saveState();
+        cb.beginText();
+        cb.setFontAndSize(baseFont, fontSize);
+        cb.showTextAligned(Element.ALIGN_CENTER, parameter, shiftX, shiftY, 0);
+        cb.endText();
+        cb.restoreState();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PdfGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,31 @@
+package ua.com.vertex.benchmarks;
+
+import ua.com.vertex.beans.PdfDto;
+import ua.com.vertex.utils.PdfGenerator;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Prints the average certificate size of the standard and the optimized output profiles.
+ * Run the main method from the test classpath.
+ */
+public class PdfSizeReport {
+    private static final int CERTIFICATES = 100;
+
+    public static void main(String[] args) throws Exception {
+        long standard = averageBytes(new PdfGenerator());
+        long optimized = averageBytes(new PdfGenerator(true, 1120, 0.8f));
+
+        System.out.printf("standard:  %,d bytes per certificate%n", standard);
+        System.out.printf("optimized: %,d bytes per certificate (%.1f%% of standard)%n", optimized,
+                optimized * 100.0 / standard);
+    }
+
+    private static long averageBytes(PdfGenerator generator) throws Exception {
+        for (int i = 0; i < CERTIFICATES; i++) {
+            generator.generatePdf(new ByteArrayOutputStream(), new PdfDto("user" + i + "@test.com", "FirstName" + i,
+                    "LastName" + i, "Java Professional", "2016-12-01", String.format("1492-7798-2879-%04d", i)));
+        }
+        return generator.getAverageBytesPerPdf();
+    }
+}
@@ -0,0 +1,24 @@
+package ua.com.vertex.context;
+
+import org.springframework.context.annotation.*;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import javax.sql.DataSource;
+
+@Configuration
+@Import(RootConfig.class)
+@ComponentScan("ua.com.vertex")
+@Profile("withEmbeddedSmtp")
+public class TestConfigWithEmbeddedSmtp {
+
+    @Bean(name = "DS")
+    public DataSource dataSource() {
+        EmbeddedDatabaseBuilder builder = new EmbeddedDatabaseBuilder();
+        return builder
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("instance3")
+                .addScript("embeddedDB.sql")
+                .build();
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.context.annotation.*;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 import ua.com.vertex.logic.interfaces.EmailLogic;
+import ua.com.vertex.logic.interfaces.MailOutboxLogic;
 import ua.com.vertex.utils.MailService;
 import ua.com.vertex.utils.ReCaptchaService;
 
@@ -40,4 +41,9 @@ public class TestConfigWithMockBeans {
     public MailService mailService() {
         return Mockito.mock(MailService.class);
     }
+
+    @Bean
+    public MailOutboxLogic mailOutboxLogic() {
+        return Mockito.mock(MailOutboxLogic.class);
+    }
 }
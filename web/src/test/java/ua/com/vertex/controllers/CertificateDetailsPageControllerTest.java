@@ -16,7 +16,6 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.ui.Model;
 import org.springframework.web.servlet.view.InternalResourceView;
 import ua.com.vertex.beans.Certificate;
-import ua.com.vertex.beans.Role;
 import ua.com.vertex.beans.User;
 import ua.com.vertex.context.TestConfig;
 import ua.com.vertex.controllers.exceptionHandling.GlobalExceptionHandler;
@@ -29,8 +28,11 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
@@ -85,14 +87,8 @@ public class CertificateDetailsPageControllerTest {
         user = new User.Builder()
                 .setUserId(EXISTING_USER_ID)
                 .setEmail("22@test.com")
-                .setPassword("password")
                 .setFirstName("FirstName")
                 .setLastName("LastName")
-                .setDiscount(0)
-                .setPhoto(new byte[]{100})
-                .setPassportScan(new byte[]{100})
-                .setPhone("38066 000 00 00")
-                .setRole(Role.ROLE_USER)
                 .getInstance();
 
         attributes = new HashMap<>();
@@ -199,4 +195,20 @@ public class CertificateDetailsPageControllerTest {
         assertEquals(CERTIFICATE_DETAILS, view);
         verify(model, times(1)).addAllAttributes(attributes);
     }
+
+    @Test
+    @WithAnonymousUser
+    public void getCertificateRejectsMalformedUidBeforeLogic() {
+        CertificateLogic certLogicMock = mock(CertificateLogic.class);
+        CertificateDetailsPageController controllerWithMock = new CertificateDetailsPageController(certLogicMock);
+
+        for (String uid : new String[]{"149277982879388", "14927798287938888", "1492-7798-2879-388x"}) {
+            try {
+                controllerWithMock.getCertificate(uid, model);
+                fail("Malformed UID was accepted: " + uid);
+            } catch (NoCertificateException e) {
+                verifyZeroInteractions(certLogicMock);
+            }
+        }
+    }
 }
@@ -0,0 +1,82 @@
+package ua.com.vertex.controllers;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ua.com.vertex.beans.CertificateWithHolder;
+import ua.com.vertex.beans.User;
+import ua.com.vertex.logic.interfaces.CertificateLogic;
+import ua.com.vertex.logic.interfaces.UserLogic;
+import ua.com.vertex.utils.CertificateZipWriter;
+import ua.com.vertex.utils.EmailExtractor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CertificatesZipControllerTest {
+    private static final String EMAIL = "user@test.com";
+
+    @Mock
+    private CertificateLogic certificateLogic;
+
+    @Mock
+    private UserLogic userLogic;
+
+    @Mock
+    private CertificateZipWriter certificateZipWriter;
+
+    @Mock
+    private EmailExtractor emailExtractor;
+
+    private CertificatesZipController controller;
+    private MockHttpServletResponse response;
+    private final List<CertificateWithHolder> certificates =
+            Collections.singletonList(new CertificateWithHolder());
+
+    @Before
+    public void setUp() {
+        controller = new CertificatesZipController(certificateLogic, userLogic, certificateZipWriter, emailExtractor);
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void myCertificatesZipContainsCertificatesOfAuthenticatedUser() throws Exception {
+        when(emailExtractor.getEmailFromAuthentication()).thenReturn(EMAIL);
+        when(userLogic.getUserByEmail(EMAIL)).thenReturn(Optional.of(new User.Builder().setUserId(5).getInstance()));
+        when(certificateLogic.getCertificatesWithHolderByUserId(5)).thenReturn(certificates);
+
+        controller.getMyCertificatesZip(response);
+
+        assertEquals("application/zip", response.getContentType());
+        assertEquals("attachment; filename=certificates.zip", response.getHeader("Content-Disposition"));
+        verify(certificateZipWriter).writeZip(certificates, response.getOutputStream());
+    }
+
+    @Test
+    public void userCertificatesZipContainsCertificatesOfRequestedUser() throws Exception {
+        when(certificateLogic.getCertificatesWithHolderByUserId(7)).thenReturn(certificates);
+
+        controller.getUserCertificatesZip(7, response);
+
+        assertEquals("attachment; filename=user_7_certificates.zip", response.getHeader("Content-Disposition"));
+        verify(certificateZipWriter).writeZip(certificates, response.getOutputStream());
+    }
+
+    @Test
+    public void courseCertificatesZipContainsCertificatesOfCourse() throws Exception {
+        when(certificateLogic.getCertificatesWithHolderByCourseId(1)).thenReturn(certificates);
+
+        controller.getCourseCertificatesZip(1, response);
+
+        assertEquals("attachment; filename=course_1_certificates.zip", response.getHeader("Content-Disposition"));
+        verify(certificateZipWriter).writeZip(certificates, response.getOutputStream());
+    }
+}
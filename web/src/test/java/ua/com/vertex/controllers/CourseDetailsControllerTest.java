@@ -12,12 +12,16 @@ import org.springframework.ui.Model;
 import org.springframework.ui.ModelMap;
 import org.springframework.validation.BindingResult;
 import ua.com.vertex.beans.Course;
+import ua.com.vertex.beans.CourseSearchPage;
 import ua.com.vertex.logic.interfaces.CourseLogic;
 import ua.com.vertex.logic.interfaces.UserLogic;
 
 import java.util.*;
 
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ua.com.vertex.controllers.AdminController.ADMIN_JSP;
 import static ua.com.vertex.controllers.CourseDetailsController.*;
@@ -46,6 +50,8 @@ public class CourseDetailsControllerTest {
     public void setUp() throws Exception {
         courseDetailsController = new CourseDetailsController(courseLogic, userLogic);
         model = new ExtendedModelMap();
+        when(courseLogic.searchCourseByNameAndStatus(any(String.class), anyBoolean(), anyInt(), anyInt()))
+                .thenReturn(new CourseSearchPage(new ArrayList<>(), 1, 1, 0));
     }
 
     @Test
@@ -62,53 +68,55 @@ public class CourseDetailsControllerTest {
 
     @Test
     public void searchCourseReturnCorrectViewWhenBindingResultHasError() throws Exception {
-        when(bindingResult.hasErrors()).thenReturn(false);
-        assertEquals(MSG_INVALID_VIEW, courseDetailsController.searchCourse(new Course(), bindingResult, model)
+        when(bindingResult.hasErrors()).thenReturn(true);
+        assertEquals(MSG_INVALID_VIEW, courseDetailsController.searchCourse(new Course(), bindingResult, 1, model)
                 , SEARCH_COURSE_JSP);
+        verify(courseLogic, never()).searchCourseByNameAndStatus(any(String.class), anyBoolean(), anyInt(), anyInt());
     }
 
     @Test
     public void searchCourseReturnCorrectViewWhenNotEmptyList() throws Exception {
-        when(courseLogic.searchCourseByNameAndStatus("test", true)).
-                thenReturn(Collections.singletonList(new Course.Builder().setName("test").
-                        setFinished(true).getInstance()));
+        when(courseLogic.searchCourseByNameAndStatus("test", true, 1, SEARCH_PAGE_SIZE)).
+                thenReturn(new CourseSearchPage(Collections.singletonList(new Course.Builder().setName("test").
+                        setFinished(true).getInstance()), 1, 1, 1));
         when(bindingResult.hasErrors()).thenReturn(false);
         assertEquals(MSG_INVALID_VIEW, courseDetailsController.searchCourse(new Course.Builder().setName("test").
-                        setFinished(true).getInstance(), bindingResult, model)
+                        setFinished(true).getInstance(), bindingResult, 1, model)
                 , SEARCH_COURSE_JSP);
     }
 
     @Test
     public void searchCourseHasCorrectDataInModelWhenNotEmptyList() throws Exception {
-        when(courseLogic.searchCourseByNameAndStatus("test", true)).
-                thenReturn(Collections.singletonList(new Course.Builder().setName("test").
-                        setFinished(true).getInstance()));
+        CourseSearchPage searchPage = new CourseSearchPage(Collections.singletonList(new Course.Builder().
+                setName("test").setFinished(true).getInstance()), 2, 3, 41);
+        when(courseLogic.searchCourseByNameAndStatus("test", true, 2, SEARCH_PAGE_SIZE)).thenReturn(searchPage);
         courseDetailsController.searchCourse(new Course.Builder().setName("test").
-                setFinished(true).getInstance(), bindingResult, model);
+                setFinished(true).getInstance(), bindingResult, 2, model);
         when(bindingResult.hasErrors()).thenReturn(false);
         assertTrue(MSG_INVALID_DATA, model.containsAttribute(COURSES));
         assertEquals(MSG_INVALID_DATA, model.asMap().get(COURSES), Collections.singletonList(new Course.Builder().
                 setName("test").setFinished(true).getInstance()));
-
+        assertEquals(MSG_INVALID_DATA, model.asMap().get(SEARCH_PAGE), searchPage);
     }
 
     @Test
     public void searchCourseReturnCorrectViewWhenEmptyList() throws Exception {
-        when(courseLogic.searchCourseByNameAndStatus("test", true)).
-                thenReturn(Collections.singletonList(new Course()));
+        when(courseLogic.searchCourseByNameAndStatus("test", true, 1, SEARCH_PAGE_SIZE)).
+                thenReturn(new CourseSearchPage(Collections.singletonList(new Course()), 1, 1, 1));
         when(bindingResult.hasErrors()).thenReturn(false);
-        assertEquals(MSG_INVALID_VIEW, courseDetailsController.searchCourse(new Course(), bindingResult, model)
+        assertEquals(MSG_INVALID_VIEW, courseDetailsController.searchCourse(new Course(), bindingResult, 1, model)
                 , SEARCH_COURSE_JSP);
     }
 
     @Test
     public void searchCourseHasCorrectDataInModelWhenEmptyList() throws Exception {
         Course course = new Course.Builder().setName("test").getInstance();
-        when(courseLogic.searchCourseByNameAndStatus(course.getName(), course.isFinished())).
-                thenReturn(new ArrayList<>());
+        when(courseLogic.searchCourseByNameAndStatus(course.getName(), course.isFinished(), 1, SEARCH_PAGE_SIZE)).
+                thenReturn(new CourseSearchPage(new ArrayList<>(), 1, 1, 0));
         when(bindingResult.hasErrors()).thenReturn(false);
-        courseDetailsController.searchCourse(course, bindingResult, model);
+        courseDetailsController.searchCourse(course, bindingResult, 1, model);
         assertFalse(MSG_INVALID_DATA, model.containsAttribute(COURSES));
+        assertFalse(MSG_INVALID_DATA, model.containsAttribute(SEARCH_PAGE));
         assertTrue(MSG_INVALID_DATA, model.containsAttribute(MSG));
         assertEquals(MSG_INVALID_DATA, model.asMap().get(MSG),
                 String.format("Course with name - '(%s)' not found. " +
@@ -116,12 +124,12 @@ public class CourseDetailsControllerTest {
 
     }
 
-    @Test
-    public void searchCourseReturnCorrectViewWhenDataAcesException() throws Exception {
-        when(courseLogic.searchCourseByNameAndStatus("test", true)).
+    @Test(expected = DataIntegrityViolationException.class)
+    public void searchCoursePassesDataAccessExceptionToExceptionHandler() throws Exception {
+        when(courseLogic.searchCourseByNameAndStatus("test", true, 1, SEARCH_PAGE_SIZE)).
                 thenThrow(new DataIntegrityViolationException("t"));
-        assertEquals(MSG_INVALID_VIEW, courseDetailsController.searchCourse(new Course(), bindingResult, model)
-                , SEARCH_COURSE_JSP);
+        courseDetailsController.searchCourse(new Course.Builder().setName("test").setFinished(true).getInstance(),
+                bindingResult, 1, model);
     }
 
     @Test
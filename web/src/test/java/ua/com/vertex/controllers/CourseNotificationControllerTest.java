@@ -0,0 +1,86 @@
+package ua.com.vertex.controllers;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
+import ua.com.vertex.beans.BulkMailProgress;
+import ua.com.vertex.beans.CourseNotification;
+import ua.com.vertex.logic.interfaces.CourseNotificationLogic;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+import static ua.com.vertex.controllers.AdminController.ADMIN_JSP;
+import static ua.com.vertex.controllers.CourseNotificationController.*;
+import static ua.com.vertex.controllers.CreateCertificateAndUserController.MSG;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CourseNotificationControllerTest {
+    private static final String JOB_ID = "job";
+
+    @Mock
+    private CourseNotificationLogic courseNotificationLogic;
+
+    @Mock
+    private BindingResult bindingResult;
+
+    @Mock
+    private Model model;
+
+    private CourseNotificationController controller;
+    private CourseNotification notification;
+
+    @Before
+    public void setUp() {
+        controller = new CourseNotificationController(courseNotificationLogic);
+        notification = new CourseNotification(1, "Schedule", "Lesson moved to Friday", false);
+    }
+
+    @Test
+    public void showNotificationFormReturnsCorrectView() {
+        assertEquals(COURSE_NOTIFICATION_JSP, controller.showNotificationForm(1, model));
+        verify(model).addAttribute(eq(NOTIFICATION), any(CourseNotification.class));
+    }
+
+    @Test
+    public void sendNotificationWithErrorsReturnsForm() {
+        when(bindingResult.hasErrors()).thenReturn(true);
+
+        assertEquals(COURSE_NOTIFICATION_JSP, controller.sendNotification(notification, bindingResult, model));
+        verify(courseNotificationLogic, never()).notifyCourseUsers(any(CourseNotification.class));
+    }
+
+    @Test
+    public void sendNotificationStartsJobAndShowsProgress() {
+        BulkMailProgress progress = new BulkMailProgress(JOB_ID, 1, 2);
+        when(courseNotificationLogic.notifyCourseUsers(notification)).thenReturn(progress);
+
+        assertEquals(NOTIFICATION_PROGRESS_JSP, controller.sendNotification(notification, bindingResult, model));
+        verify(model).addAttribute(PROGRESS, progress);
+    }
+
+    @Test
+    public void showProgressOfUnknownJobReturnsAdminPage() {
+        when(courseNotificationLogic.getProgress(anyString())).thenReturn(Optional.empty());
+
+        assertEquals(ADMIN_JSP, controller.showProgress(JOB_ID, model));
+        verify(model).addAttribute(eq(MSG), anyString());
+    }
+
+    @Test
+    public void showProgressOfKnownJobReturnsProgressPage() {
+        BulkMailProgress progress = new BulkMailProgress(JOB_ID, 1, 2);
+        when(courseNotificationLogic.getProgress(JOB_ID)).thenReturn(Optional.of(progress));
+
+        assertEquals(NOTIFICATION_PROGRESS_JSP, controller.showProgress(JOB_ID, model));
+        verify(model).addAttribute(PROGRESS, progress);
+    }
+}
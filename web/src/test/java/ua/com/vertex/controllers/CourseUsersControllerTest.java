@@ -16,18 +16,22 @@ import org.springframework.ui.Model;
 import org.springframework.web.servlet.view.InternalResourceView;
 import ua.com.vertex.beans.Course;
 import ua.com.vertex.beans.DtoCourseUser;
+import ua.com.vertex.beans.EnrolmentResult;
 import ua.com.vertex.beans.User;
 import ua.com.vertex.context.TestConfig;
 import ua.com.vertex.logic.interfaces.CourseLogic;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
 
@@ -116,6 +120,18 @@ public class CourseUsersControllerTest {
                 .andExpect(view().name(COURSE_USERS));
     }
 
+    @Test
+    public void assignUsersToCourseReturnsCorrectViewAndReport() throws Exception {
+        EnrolmentResult enrolment = new EnrolmentResult(Arrays.asList(401, 402), Collections.singletonList(403));
+        when(courseLogicMocked.assignUsersToCourse(COURSE_ID, Arrays.asList(401, 402, 403))).thenReturn(enrolment);
+
+        mockMvc.perform(post("/assignUsers").param("courseId", String.valueOf(COURSE_ID))
+                .param("userIds", "401", "402", "403"))
+                .andExpect(view().name(COURSE_USERS))
+                .andExpect(model().attribute("enrolment", enrolment));
+        verify(courseLogicMocked, times(1)).assignUsersToCourse(COURSE_ID, Arrays.asList(401, 402, 403));
+    }
+
     @Test
     public void searchForUsersToAssignReturnsCorrectView() throws Exception {
         mockMvc.perform(get("/searchForUsersToAssign"))
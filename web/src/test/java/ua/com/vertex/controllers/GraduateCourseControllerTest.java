@@ -0,0 +1,67 @@
+package ua.com.vertex.controllers;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
+import ua.com.vertex.beans.CourseGraduation;
+import ua.com.vertex.beans.GraduationResult;
+import ua.com.vertex.logic.interfaces.CertificateLogic;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static ua.com.vertex.controllers.AdminController.ADMIN_JSP;
+import static ua.com.vertex.controllers.CreateCertificateAndUserController.MSG;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GraduateCourseControllerTest {
+
+    @Mock
+    private CertificateLogic certificateLogic;
+
+    @Mock
+    private BindingResult bindingResult;
+
+    @Mock
+    private Model model;
+
+    private GraduateCourseController controller;
+    private CourseGraduation graduation;
+
+    @Before
+    public void setUp() {
+        controller = new GraduateCourseController(certificateLogic);
+        graduation = new CourseGraduation(1, "Java", true);
+    }
+
+    @Test
+    public void graduateCourseWithErrorsDoesNotIssueCertificates() {
+        when(bindingResult.hasErrors()).thenReturn(true);
+
+        assertEquals(ADMIN_JSP, controller.graduateCourse(graduation, bindingResult, model));
+        verify(certificateLogic, never()).graduateCourse(any(CourseGraduation.class));
+    }
+
+    @Test
+    public void graduateCourseReportsNumberOfIssuedCertificates() {
+        when(certificateLogic.graduateCourse(graduation)).thenReturn(new GraduationResult(3, 2));
+
+        assertEquals(ADMIN_JSP, controller.graduateCourse(graduation, bindingResult, model));
+        verify(model).addAttribute(MSG,
+                "3 certificates were issued for course with id - (1), 2 users already had one.");
+    }
+
+    @Test
+    public void graduateCourseReportsUnknownCourse() {
+        when(certificateLogic.graduateCourse(graduation)).thenThrow(new NoSuchElementException());
+
+        assertEquals(ADMIN_JSP, controller.graduateCourse(graduation, bindingResult, model));
+        verify(model).addAttribute(MSG, "Course with id - (1) not found. No certificates were issued.");
+    }
+}
@@ -0,0 +1,90 @@
+package ua.com.vertex.controllers;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.ModelAndView;
+import ua.com.vertex.beans.PaymentLedgerEntry;
+import ua.com.vertex.beans.PaymentLedgerPage;
+import ua.com.vertex.logic.interfaces.PaymentLogic;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+import static ua.com.vertex.controllers.PaymentHistoryController.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PaymentHistoryControllerTest {
+
+    private final String MSG_INVALID_DATA = "Have wrong objects in model";
+    private final String MSG_INVALID_VIEW = "Have wrong viewName in ModelAndView";
+
+    @Mock
+    private PaymentLogic paymentLogic;
+
+    private PaymentHistoryController underTest;
+    private PaymentLedgerEntry entry;
+
+    @Before
+    public void setUp() throws Exception {
+        underTest = new PaymentHistoryController(paymentLogic);
+        entry = new PaymentLedgerEntry(5, LocalDateTime.of(2018, 1, 15, 10, 30), new BigDecimal("1000.0"), "BANK-5",
+                1, 3000, 1, "Java, Pro", 1, "test@mail.com", "Test", "Test");
+    }
+
+    @Test
+    public void getUserLedgerReturnCorrectViewAndDataInModel() throws Exception {
+        PaymentLedgerPage ledger = new PaymentLedgerPage(Collections.singletonList(entry), 5);
+        when(paymentLogic.getUserLedger(1, 9, LEDGER_PAGE_SIZE)).thenReturn(ledger);
+
+        ModelAndView result = underTest.getUserLedger(1, 9);
+
+        assertEquals(MSG_INVALID_VIEW, PAYMENT_HISTORY_JSP, result.getViewName());
+        assertEquals(MSG_INVALID_DATA, ledger, result.getModel().get(LEDGER));
+        assertEquals(MSG_INVALID_DATA, "/paymentHistory/user?userId=1", result.getModel().get(LEDGER_URL));
+    }
+
+    @Test
+    public void getCourseLedgerReturnCorrectViewAndDataInModel() throws Exception {
+        PaymentLedgerPage ledger = new PaymentLedgerPage(Collections.singletonList(entry), 0);
+        when(paymentLogic.getCourseLedger(1, 0, LEDGER_PAGE_SIZE)).thenReturn(ledger);
+
+        ModelAndView result = underTest.getCourseLedger(1, 0);
+
+        assertEquals(MSG_INVALID_VIEW, PAYMENT_HISTORY_JSP, result.getViewName());
+        assertEquals(MSG_INVALID_DATA, ledger, result.getModel().get(LEDGER));
+        assertEquals(MSG_INVALID_DATA, "/paymentHistory/course?courseId=1", result.getModel().get(LEDGER_URL));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void exportPaymentsWritesCsvOfEveryPayment() throws Exception {
+        LocalDate from = LocalDate.of(2018, 1, 1);
+        LocalDate to = LocalDate.of(2018, 1, 31);
+        doAnswer(invocation -> {
+            ((Consumer<PaymentLedgerEntry>) invocation.getArguments()[2]).accept(entry);
+            return null;
+        }).when(paymentLogic).forEachPayment(eq(from), eq(to), any());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        underTest.exportPayments(from, to, response);
+
+        assertEquals("text/csv;charset=UTF-8", response.getContentType());
+        assertEquals("attachment; filename=payments_2018-01-01_2018-01-31.csv",
+                response.getHeader("Content-Disposition"));
+        assertEquals("payment_id,payment_date,amount,bank_reference,deal_id,course_id,course_name,user_id,email," +
+                "first_name,last_name\r\n" +
+                "5,2018-01-15T10:30,1000.0,BANK-5,1,1,\"Java, Pro\",1,test@mail.com,Test,Test\r\n",
+                response.getContentAsString());
+    }
+}
@@ -0,0 +1,56 @@
+package ua.com.vertex.controllers;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.servlet.ModelAndView;
+import ua.com.vertex.beans.PaymentImportResult;
+import ua.com.vertex.utils.PaymentStatementImporter;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static ua.com.vertex.controllers.PaymentImportController.IMPORT_RESULT;
+import static ua.com.vertex.controllers.PaymentImportController.PAYMENT_IMPORT_JSP;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PaymentImportControllerTest {
+
+    private final String MSG_INVALID_DATA = "Have wrong objects in model";
+    private final String MSG_INVALID_VIEW = "Have wrong viewName in ModelAndView";
+
+    @Mock
+    private PaymentStatementImporter paymentStatementImporter;
+
+    private PaymentImportController underTest;
+
+    @Before
+    public void setUp() throws Exception {
+        underTest = new PaymentImportController(paymentStatementImporter);
+    }
+
+    @Test
+    public void showPaymentImportReturnCorrectView() throws Exception {
+        assertEquals(MSG_INVALID_VIEW, PAYMENT_IMPORT_JSP, underTest.showPaymentImport());
+    }
+
+    @Test
+    public void importPaymentsPassesStatementToImporterAndReturnsResult() throws Exception {
+        PaymentImportResult importResult = new PaymentImportResult();
+        importResult.setImported(1);
+        when(paymentStatementImporter.importStatement(any(InputStream.class))).thenReturn(importResult);
+
+        ModelAndView result = underTest.importPayments(new MockMultipartFile("statement", "statement.csv",
+                "text/csv", "BANK-1,1,1,1000".getBytes(StandardCharsets.UTF_8)));
+
+        verify(paymentStatementImporter, times(1)).importStatement(any(InputStream.class));
+        assertEquals(MSG_INVALID_VIEW, PAYMENT_IMPORT_JSP, result.getViewName());
+        assertEquals(MSG_INVALID_DATA, importResult, result.getModel().get(IMPORT_RESULT));
+    }
+}
@@ -5,17 +5,25 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.ui.Model;
+import org.springframework.web.context.request.async.DeferredResult;
 import ua.com.vertex.beans.PdfDto;
-import ua.com.vertex.utils.EmailExtractor;
+import ua.com.vertex.beans.PdfRenderStats;
 import ua.com.vertex.utils.PdfDownloader;
 import ua.com.vertex.utils.PdfGenerator;
+import ua.com.vertex.utils.PdfRenderExecutor;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.*;
+import static ua.com.vertex.controllers.PdfController.*;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PdfControllerTest {
-    private static final String PDF_FILE_NAME = "null_certificate.pdf";
 
     @Mock
     private PdfGenerator pdfGenerator;
@@ -24,30 +32,58 @@ public class PdfControllerTest {
     private PdfDownloader pdfDownloader;
 
     @Mock
-    private EmailExtractor emailExtractor;
+    private PdfRenderExecutor pdfRenderExecutor;
+
+    @Mock
+    private Model model;
+
     private PdfController pdfController;
+    private PdfDto dto;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
 
     @Before
     public void setUp() {
-        pdfController = new PdfController(pdfGenerator, pdfDownloader, emailExtractor);
+        pdfController = new PdfController(pdfGenerator, pdfDownloader, pdfRenderExecutor, true);
+        dto = new PdfDto("", "", "", "", "", "");
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
     }
 
     @Test
-    public void generatePdfInvokesPdfGenerator() throws Exception {
-        final String email = "";
-        final String firstName = "";
-        final String lastName = "";
-        final String courseName = "";
-        final String certificationDate = "";
-        final String certificationId = "";
-
-        MockHttpServletResponse response = new MockHttpServletResponse();
-        PdfDto dto = new PdfDto(email, firstName, lastName, courseName, certificationDate, certificationId);
-        when(emailExtractor.getEmailFromAuthentication()).thenReturn(null);
-
-        pdfController.generatePdf(dto, response);
-
-        verify(pdfGenerator, times(1)).generatePdf(PDF_FILE_NAME, dto);
-        verify(pdfDownloader, times(1)).downloadPdf(PDF_FILE_NAME, response);
+    public void generatePdfServesCachedPdfOnRequestThread() throws Exception {
+        when(pdfDownloader.sendCachedPdf(dto, request, response)).thenReturn(true);
+
+        assertNull(pdfController.generatePdf(dto, request, response));
+        verify(pdfRenderExecutor, never()).render(dto);
+    }
+
+    @Test
+    public void generatePdfRendersMissingPdfAsynchronously() throws Exception {
+        DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>();
+        when(pdfRenderExecutor.render(dto)).thenReturn(result);
+
+        assertSame(result, pdfController.generatePdf(dto, request, response));
+    }
+
+    @Test
+    public void generatePdfInvokesPdfDownloaderWhenAsyncIsOff() throws Exception {
+        pdfController = new PdfController(pdfGenerator, pdfDownloader, pdfRenderExecutor, false);
+
+        assertNull(pdfController.generatePdf(dto, request, response));
+
+        verify(pdfDownloader, times(1)).downloadPdf(dto, request, response);
+        verifyZeroInteractions(pdfRenderExecutor);
+    }
+
+    @Test
+    public void showRenderStatsReturnsCorrectView() {
+        PdfRenderStats stats = new PdfRenderStats(() -> 0, () -> 0);
+        when(pdfRenderExecutor.getStats()).thenReturn(stats);
+        when(pdfGenerator.getAverageBytesPerPdf()).thenReturn(150_000L);
+
+        assertEquals(PDF_RENDER_STATS_JSP, pdfController.showRenderStats(model));
+        verify(model).addAttribute(STATS, stats);
+        verify(model).addAttribute(AVERAGE_PDF_BYTES, 150_000L);
     }
 }
@@ -4,6 +4,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -11,14 +12,21 @@ import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.servlet.view.InternalResourceView;
+import ua.com.vertex.beans.Course;
 import ua.com.vertex.context.TestConfig;
 import ua.com.vertex.logic.interfaces.CourseLogic;
 import ua.com.vertex.logic.interfaces.UserLogic;
+import ua.com.vertex.utils.CourseTableCache;
+import ua.com.vertex.utils.DataNavigator;
 import ua.com.vertex.utils.EmailExtractor;
 
+import java.util.Collections;
 import java.util.TreeMap;
 
 import static org.hamcrest.Matchers.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -39,6 +47,9 @@ public class ViewCoursesControllerTest {
     @Mock
     private EmailExtractor emailExtractor;
 
+    @Mock
+    private CourseLogic mockedCourseLogic;
+
     private MockMvc mockMvc;
 
     @Autowired
@@ -46,7 +57,8 @@ public class ViewCoursesControllerTest {
 
     @Test
     public void viewAllCoursesTest() throws Exception {
-        MockMvc mockMvc = standaloneSetup(new ViewCoursesController(logic, userLogic, emailExtractor))
+        MockMvc mockMvc = standaloneSetup(new ViewCoursesController(logic, userLogic, emailExtractor,
+                new CourseTableCache(100, 10)))
                 .setSingleView(new InternalResourceView("viewCourses"))
                 .build();
         mockMvc.perform(get("/viewCourses/all"))
@@ -76,7 +88,8 @@ public class ViewCoursesControllerTest {
         //when(certificateLogic.getAllCertificatesByUserEmail("test")).thenReturn(certificates);
         when(emailExtractor.getEmailFromAuthentication()).thenReturn("teacher@test.com");
 
-        MockMvc mockMvc = standaloneSetup(new ViewCoursesController(logic, userLogic, emailExtractor))
+        MockMvc mockMvc = standaloneSetup(new ViewCoursesController(logic, userLogic, emailExtractor,
+                new CourseTableCache(100, 10)))
                 .setSingleView(new InternalResourceView("viewCourses"))
                 .build();
         mockMvc.perform(get("/viewCourses/teacher"))
@@ -100,4 +113,56 @@ public class ViewCoursesControllerTest {
                 }}))));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void repeatViewIsRenderedFromCachedTable() throws Exception {
+        MockMvc mockMvc = getMockMvcWithMockedLogic(new CourseTableCache(100, 10));
+
+        mockMvc.perform(get("/viewCourses/all"))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("courses", "courseTable"));
+        mockMvc.perform(get("/viewCourses/all"))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeDoesNotExist("courses"))
+                .andExpect(model().attributeExists("courseTable"));
+
+        verify(mockedCourseLogic, times(1)).getCoursesPerPage(any(DataNavigator.class));
+    }
+
+    @Test
+    public void matchingETagGetsNotModified() throws Exception {
+        MockMvc mockMvc = getMockMvcWithMockedLogic(new CourseTableCache(100, 10));
+
+        String eTag = mockMvc.perform(get("/viewCourses/all"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/viewCourses/all").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        verify(mockedCourseLogic, times(1)).getCoursesPerPage(any(DataNavigator.class));
+    }
+
+    @Test
+    public void changedCoursesAreQueriedAgain() throws Exception {
+        CourseTableCache courseTableCache = new CourseTableCache(100, 10);
+        MockMvc mockMvc = getMockMvcWithMockedLogic(courseTableCache);
+
+        mockMvc.perform(get("/viewCourses/all")).andExpect(status().isOk());
+        courseTableCache.coursesChanged();
+        mockMvc.perform(get("/viewCourses/all"))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("courses"));
+
+        verify(mockedCourseLogic, times(2)).getCoursesPerPage(any(DataNavigator.class));
+    }
+
+    private MockMvc getMockMvcWithMockedLogic(CourseTableCache courseTableCache) {
+        when(mockedCourseLogic.getQuantityCourses()).thenReturn(1);
+        when(mockedCourseLogic.getCoursesPerPage(any(DataNavigator.class)))
+                .thenReturn(Collections.singletonList(new Course.Builder().setId(1).getInstance()));
+
+        return standaloneSetup(new ViewCoursesController(mockedCourseLogic, userLogic, emailExtractor,
+                courseTableCache))
+                .setSingleView(new InternalResourceView("viewCourses"))
+                .build();
+    }
+}
@@ -48,4 +48,19 @@ class AccountingDaoImplForTestImpl implements AccountingDaoImplForTest {
         }
         return Optional.ofNullable(accounting);
     }
+
+    public double getCourseDebtTotal(int courseId) {
+        String query = "SELECT debt_total FROM Course_debt_summary WHERE course_id = :course_id";
+        return jdbcTemplate.queryForObject(query, new MapSqlParameterSource(COURSE_ID, courseId), Double.class);
+    }
+
+    public int getCourseDebtors(int courseId) {
+        String query = "SELECT debtors FROM Course_debt_summary WHERE course_id = :course_id";
+        return jdbcTemplate.queryForObject(query, new MapSqlParameterSource(COURSE_ID, courseId), Integer.class);
+    }
+
+    public void deleteCourseDebtSummary(int courseId) {
+        String query = "DELETE FROM Course_debt_summary WHERE course_id = :course_id";
+        jdbcTemplate.update(query, new MapSqlParameterSource(COURSE_ID, courseId));
+    }
 }
@@ -9,11 +9,20 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.transaction.annotation.Transactional;
 import ua.com.vertex.beans.Accounting;
+import ua.com.vertex.beans.User;
 import ua.com.vertex.context.TestConfig;
 import ua.com.vertex.dao.interfaces.AccountingDaoImplForTest;
 import ua.com.vertex.dao.interfaces.AccountingDaoInf;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration(classes = TestConfig.class)
@@ -51,4 +60,135 @@ public class AccountingDaoImplTest {
                 accountingDaoImplForTest.getAccountingByCourseIdAndUserId(2, 2).orElse(new Accounting()));
     }
 
+    @Test
+    public void getCourseDebtorsSkipsUsersWithoutDebt() throws Exception {
+
+        accountingDaoInf.updateUserDept(1, 1, 4000d);
+        List<Integer> debtors = accountingDaoInf.getCourseDebtors(1).stream().map(User::getUserId)
+                .collect(Collectors.toList());
+
+        assertEquals("Maybe method was changed", 1, debtors.size());
+        assertTrue(debtors.contains(2));
+    }
+
+    @Test
+    public void insertAccountingRowsInsertsAllRowsInOneBatch() throws Exception {
+        Accounting first = new Accounting.Builder().setUserId(22).setCourseId(2).setCourseCoast(8000d)
+                .setDept(8000d).getInstance();
+        Accounting second = new Accounting.Builder().setUserId(33).setCourseId(2).setCourseCoast(8000d)
+                .setDept(8000d).getInstance();
+
+        accountingDaoInf.insertAccountingRows(Arrays.asList(first, second));
+
+        assertEquals("Maybe method was changed", 8000d,
+                accountingDaoImplForTest.getAccountingByCourseIdAndUserId(2, 22).orElse(new Accounting()).getDebt(),
+                0);
+        assertEquals("Maybe method was changed", 8000d,
+                accountingDaoImplForTest.getAccountingByCourseIdAndUserId(2, 33).orElse(new Accounting()).getDebt(),
+                0);
+    }
+
+    @Test
+    public void insertAccountingRowAddsDebtToSummary() throws Exception {
+        accountingDaoInf.insertAccountingRow(new Accounting.Builder().setUserId(22).setCourseId(2)
+                .setCourseCoast(8000d).setDept(8000d).getInstance());
+
+        assertEquals("Maybe method was changed", 8000d, accountingDaoImplForTest.getCourseDebtTotal(2), 0);
+        assertEquals("Maybe method was changed", 1, accountingDaoImplForTest.getCourseDebtors(2));
+    }
+
+    @Test
+    public void insertAccountingRowsAddDebtsToSummary() throws Exception {
+        accountingDaoInf.insertAccountingRows(Arrays.asList(
+                new Accounting.Builder().setUserId(22).setCourseId(2).setCourseCoast(8000d).setDept(8000d)
+                        .getInstance(),
+                new Accounting.Builder().setUserId(33).setCourseId(2).setCourseCoast(8000d).setDept(8000d)
+                        .getInstance(),
+                new Accounting.Builder().setUserId(33).setCourseId(3).setCourseCoast(0d).setDept(0d)
+                        .getInstance()));
+
+        assertEquals("Maybe method was changed", 16000d, accountingDaoImplForTest.getCourseDebtTotal(2), 0);
+        assertEquals("Maybe method was changed", 2, accountingDaoImplForTest.getCourseDebtors(2));
+        assertEquals("Maybe method was changed", 0, accountingDaoImplForTest.getCourseDebtors(3));
+    }
+
+    @Test
+    public void insertAccountingRowAtCoursePriceCopiesPriceAndAddsItToSummary() throws Exception {
+        assertTrue(accountingDaoInf.insertAccountingRowAtCoursePrice(22, 2));
+
+        Accounting accounting = accountingDaoImplForTest.getAccountingByCourseIdAndUserId(2, 22)
+                .orElseThrow(AssertionError::new);
+        assertEquals("Maybe method was changed", 8000d, accounting.getCourseCoast(), 0);
+        assertEquals("Maybe method was changed", 8000d, accounting.getDebt(), 0);
+        assertEquals("Maybe method was changed", 8000d, accountingDaoImplForTest.getCourseDebtTotal(2), 0);
+        assertEquals("Maybe method was changed", 1, accountingDaoImplForTest.getCourseDebtors(2));
+    }
+
+    @Test
+    public void insertAccountingRowAtCoursePriceCreatesMissingSummaryRow() throws Exception {
+        accountingDaoImplForTest.deleteCourseDebtSummary(2);
+
+        accountingDaoInf.insertAccountingRowAtCoursePrice(22, 2);
+
+        assertEquals("Maybe method was changed", 8000d, accountingDaoImplForTest.getCourseDebtTotal(2), 0);
+        assertEquals("Maybe method was changed", 1, accountingDaoImplForTest.getCourseDebtors(2));
+    }
+
+    @Test
+    public void insertAccountingRowAtCoursePriceToNotExistingCourseReturnsFalse() throws Exception {
+        assertFalse(accountingDaoInf.insertAccountingRowAtCoursePrice(22, 5555));
+        assertFalse(accountingDaoImplForTest.getAccountingByCourseIdAndUserId(5555, 22).isPresent());
+    }
+
+    @Test
+    public void updateUserDeptChangesSummaryAndCountsOverpaymentAsNoDebt() throws Exception {
+        accountingDaoInf.updateUserDept(1, 1, 1000d);
+        assertEquals("Maybe method was changed", 7000d, accountingDaoImplForTest.getCourseDebtTotal(1), 0);
+        assertEquals("Maybe method was changed", 2, accountingDaoImplForTest.getCourseDebtors(1));
+
+        accountingDaoInf.updateUserDept(1, 1, 5000d);
+        assertEquals("Maybe method was changed", 4000d, accountingDaoImplForTest.getCourseDebtTotal(1), 0);
+        assertEquals("Maybe method was changed", 1, accountingDaoImplForTest.getCourseDebtors(1));
+    }
+
+    @Test
+    public void missingSummaryRowIsCreatedFromAccounting() throws Exception {
+        accountingDaoInf.insertAccountingRow(new Accounting.Builder().setUserId(22).setCourseId(5555)
+                .setCourseCoast(500d).setDept(500d).getInstance());
+
+        assertEquals("Maybe method was changed", 500d, accountingDaoImplForTest.getCourseDebtTotal(5555), 0);
+        assertEquals("Maybe method was changed", 1, accountingDaoImplForTest.getCourseDebtors(5555));
+    }
+
+    @Test
+    public void reconcileDebtSummaryRecountsFromAccounting() throws Exception {
+        accountingDaoInf.updateUserDept(1, 2, 4000d);
+        accountingDaoInf.reconcileDebtSummary();
+
+        assertEquals("Maybe method was changed", 4000d, accountingDaoImplForTest.getCourseDebtTotal(1), 0);
+        assertEquals("Maybe method was changed", 1, accountingDaoImplForTest.getCourseDebtors(1));
+        assertEquals("Maybe method was changed", 0, accountingDaoImplForTest.getCourseDebtors(2));
+    }
+
+    @Test
+    public void getDealsReturnsDealsOfCoursesAndUsers() throws Exception {
+        List<Integer> dealIds = accountingDaoInf.getDeals(Arrays.asList(1, 2), Arrays.asList(1, 3)).stream()
+                .map(Accounting::getDealId).collect(Collectors.toList());
+        assertEquals("Maybe method was changed", Arrays.asList(1), dealIds);
+    }
+
+    @Test
+    public void decreaseDebtsChangesDebtsAndSummary() throws Exception {
+        Map<Integer, Double> amountsByDeal = new HashMap<>();
+        amountsByDeal.put(1, 1000d);
+        amountsByDeal.put(2, 5000d);
+        accountingDaoInf.decreaseDebts(amountsByDeal);
+
+        assertEquals("Maybe method was changed", 3000d, accountingDaoImplForTest.getAccountingByCourseIdAndUserId(1, 1)
+                .orElse(new Accounting()).getDebt(), 0);
+        assertEquals("Maybe method was changed", -1000d, accountingDaoImplForTest
+                .getAccountingByCourseIdAndUserId(1, 2).orElse(new Accounting()).getDebt(), 0);
+        assertEquals("Maybe method was changed", 3000d, accountingDaoImplForTest.getCourseDebtTotal(1), 0);
+        assertEquals("Maybe method was changed", 1, accountingDaoImplForTest.getCourseDebtors(1));
+    }
 }
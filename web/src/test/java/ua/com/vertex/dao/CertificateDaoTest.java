@@ -9,12 +9,16 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
 import ua.com.vertex.beans.Certificate;
+import ua.com.vertex.beans.CertificateWithHolder;
 import ua.com.vertex.context.TestConfig;
 import ua.com.vertex.dao.interfaces.CertificateDaoInf;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -108,7 +112,7 @@ public class CertificateDaoTest {
 
         Certificate certificate = new Certificate.Builder()
                 .setUserId(44)
-                .setCertificateUid("1492779828793891")
+                .setCertificateUid("1492779828793999")
                 .setCertificationDate(LocalDate.parse("2016-12-01"))
                 .setCourseName("Java Professional")
                 .setLanguage("Java")
@@ -119,6 +123,76 @@ public class CertificateDaoTest {
         assertEquals(MSG, certificate, certificateDao.getCertificateById(result).orElse(EMPTY_CERTIFICATE));
     }
 
+    @Test
+    @WithAnonymousUser
+    @Transactional
+    public void addCertificatesInsertsAllCertificatesInOneBatch() {
+        List<Certificate> certificates = new ArrayList<>();
+        for (long uid = 1492779828794100L; uid < 1492779828794103L; uid++) {
+            certificates.add(new Builder()
+                    .setUserId(44)
+                    .setCertificateUid(String.valueOf(uid))
+                    .setCertificationDate(LocalDate.parse("2018-03-01"))
+                    .setCourseName("Java Professional")
+                    .setLanguage("Java")
+                    .getInstance());
+        }
+
+        certificateDao.addCertificates(certificates);
+
+        for (Certificate certificate : certificates) {
+            assertEquals(MSG, certificate.getUserId(), certificateDao.getCertificateByUid(
+                    Long.parseLong(certificate.getCertificateUidWithoutDashes())).orElse(EMPTY_CERTIFICATE).getUserId());
+        }
+    }
+
+    @Test
+    @WithAnonymousUser
+    public void getCertificatesWithHolderByUserIdReturnsCertificatesOfUser() {
+        List<CertificateWithHolder> result = certificateDao.getCertificatesWithHolderByUserId(2);
+
+        assertEquals(MSG, 2, result.size());
+        assertEquals(MSG, 2, result.get(0).getCertificate().getCertificationId());
+        assertEquals(MSG, 3, result.get(1).getCertificate().getCertificationId());
+        assertEquals(MSG, 2, result.get(0).getHolder().getUserId());
+    }
+
+    @Test
+    @WithAnonymousUser
+    @Transactional
+    public void getCertificatesWithHolderByCourseIdReturnsCertificatesOfCourseUsersOnly() {
+        int certificationId = certificateDao.addCertificate(new Builder()
+                .setUserId(401)
+                .setCertificateUid("1492779828794200")
+                .setCertificationDate(LocalDate.parse("2018-03-01"))
+                .setCourseName("JavaPro")
+                .setLanguage("Java")
+                .getInstance());
+        certificateDao.addCertificate(new Builder()
+                .setUserId(403)
+                .setCertificateUid("1492779828794201")
+                .setCertificationDate(LocalDate.parse("2018-03-01"))
+                .setCourseName("JavaPro")
+                .setLanguage("Java")
+                .getInstance());
+
+        List<CertificateWithHolder> result = certificateDao.getCertificatesWithHolderByCourseId(1);
+
+        assertEquals(MSG, 1, result.size());
+        assertEquals(MSG, certificationId, result.get(0).getCertificate().getCertificationId());
+        assertEquals(MSG, "user1@email.com", result.get(0).getHolder().getEmail());
+    }
+
+    @Test
+    @WithAnonymousUser
+    public void getCertificateHolderIdsReturnsDistinctHoldersOfCourseName() {
+        List<Integer> result = certificateDao.getCertificateHolderIds("Java Professional");
+
+        assertTrue(MSG, result.containsAll(Arrays.asList(1, 2, 22, 33)));
+        assertEquals(MSG, result.size(), new HashSet<>(result).size());
+        assertTrue(MSG, certificateDao.getCertificateHolderIds("Unknown").isEmpty());
+    }
+
     @Test
     @WithAnonymousUser
     public void getCertificateByUidReturnsCertificate() {
@@ -129,12 +203,32 @@ public class CertificateDaoTest {
                 .setCertificationDate(LocalDate.parse("2016-12-01"))
                 .setCourseName("Java Professional")
                 .setLanguage("Java")
-                .getInstance(), certificateDao.getCertificateByUid("1492779828793888").orElse(EMPTY_CERTIFICATE));
+                .getInstance(), certificateDao.getCertificateByUid(1492779828793888L).orElse(EMPTY_CERTIFICATE));
     }
 
     @Test
     @WithAnonymousUser
     public void getCertificateByNonExistingUidReturnsEmptyOptional() {
-        assertEquals(EMPTY_CERTIFICATE, certificateDao.getCertificateByUid("0").orElse(EMPTY_CERTIFICATE));
+        assertEquals(EMPTY_CERTIFICATE, certificateDao.getCertificateByUid(0L).orElse(EMPTY_CERTIFICATE));
+    }
+
+    @Test
+    @WithAnonymousUser
+    public void getCertificateWithHolderByUidReturnsCertificateAndHolderName() {
+        CertificateWithHolder result = certificateDao.getCertificateWithHolderByUid(1492779828793888L)
+                .orElseThrow(NoSuchElementException::new);
+
+        assertEquals(MSG, 222, result.getCertificate().getCertificationId());
+        assertEquals(MSG, 22, result.getHolder().getUserId());
+        assertEquals(MSG, "FirstName", result.getHolder().getFirstName());
+        assertEquals(MSG, "LastName", result.getHolder().getLastName());
+        assertNull(MSG, result.getHolder().getPhoto());
+        assertNull(MSG, result.getHolder().getPassportScan());
+    }
+
+    @Test
+    @WithAnonymousUser
+    public void getCertificateWithHolderByNonExistingUidReturnsEmptyOptional() {
+        assertFalse(MSG, certificateDao.getCertificateWithHolderByUid(0L).isPresent());
     }
 }
@@ -4,23 +4,31 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.transaction.annotation.Transactional;
+import ua.com.vertex.beans.Accounting;
 import ua.com.vertex.beans.Course;
 import ua.com.vertex.beans.DtoCourseUser;
 import ua.com.vertex.beans.User;
 import ua.com.vertex.context.TestConfig;
+import ua.com.vertex.dao.interfaces.AccountingDaoImplForTest;
 import ua.com.vertex.dao.interfaces.CourseDaoForTest;
 import ua.com.vertex.dao.interfaces.CourseDaoInf;
 import ua.com.vertex.utils.DataNavigator;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.Matchers.hasItem;
@@ -41,6 +49,9 @@ public class CourseDaoImplTest {
     @Autowired
     private CourseDaoForTest courseDaoForTest;
 
+    @Autowired
+    private AccountingDaoImplForTest accountingDaoImplForTest;
+
     private Course course;
     private User user1;
     private User user3;
@@ -74,6 +85,13 @@ public class CourseDaoImplTest {
         assertEquals(MSG, courseDaoInf.getCourseById(courseId).orElse(new Course()), course);
     }
 
+    @Test
+    public void addCourseCreatesEmptyDebtSummary() throws Exception {
+        int courseId = courseDaoInf.addCourse(course);
+        assertEquals(MSG, 0d, accountingDaoImplForTest.getCourseDebtTotal(courseId), 0);
+        assertEquals(MSG, 0, accountingDaoImplForTest.getCourseDebtors(courseId));
+    }
+
     @Test
     public void addCourseIncorrectInsert() throws Exception {
         int courseId = courseDaoInf.addCourse(course);
@@ -125,18 +143,19 @@ public class CourseDaoImplTest {
     }
 
     @Test
-    public void searchCourseByNameAndStatusReturnCorrectData() throws Exception {
-        Course courseForSearch = new Course.Builder().setName("ava").setFinished(true).getInstance();
-        List<Course> courses = courseDaoInf.searchCourseByNameAndStatus(courseForSearch.getName(), courseForSearch.isFinished());
-        assertFalse(MSG, courses.isEmpty());
-        courses.forEach(course -> assertTrue(course.getName().contains(courseForSearch.getName())
-                && course.isFinished()));
+    public void getCoursesByIdsReturnCoursesWithTeacher() throws Exception {
+        List<Course> courses = courseDaoInf.getCoursesByIds(Arrays.asList(1, 2, 999));
+        assertEquals(MSG, 2, courses.size());
+        courses.forEach(course -> assertEquals(MSG, 1, course.getTeacher().getUserId()));
+        assertTrue(MSG, courses.stream().allMatch(course -> course.getTeacher().getEmail() != null));
     }
 
     @Test
-    public void searchCourseByNameAndStatusReturnEmptyList() throws Exception {
-        Course courseForSearch = new Course.Builder().setName("wwwwwwwwwwww").setFinished(false).getInstance();
-        assertTrue(courseDaoInf.searchCourseByNameAndStatus(courseForSearch.getName(), courseForSearch.isFinished()).isEmpty());
+    public void forEachCourseVisitsEveryCourse() throws Exception {
+        List<Course> courses = new ArrayList<>();
+        courseDaoInf.forEachCourse(courses::add);
+        assertEquals(MSG, courseDaoInf.getQuantityCourses(), courses.size());
+        assertTrue(MSG, courses.stream().anyMatch(course -> course.getId() == 3 && course.isFinished()));
     }
 
     @Test
@@ -163,6 +182,13 @@ public class CourseDaoImplTest {
         assertFalse(MSG, courseDaoInf.getCourseById(33333).isPresent());
     }
 
+    @Test
+    @Transactional
+    public void lockCourseReturnsWhetherCourseExists() {
+        assertTrue(MSG, courseDaoInf.lockCourse(COURSE_ID));
+        assertFalse(MSG, courseDaoInf.lockCourse(33333));
+    }
+
     @Test
     @WithAnonymousUser
     public void getUsersAssignedToCourse1ReturnsNotEmptyListOfUsers() {
@@ -207,6 +233,37 @@ public class CourseDaoImplTest {
         assertThat(courseDaoInf.getUsersAssignedToCourse(COURSE_ID), hasItem(user3));
     }
 
+    @Test
+    @WithAnonymousUser
+    public void getUsersAssignedToCourseByIdsReturnsOnlyAssignedUsers() {
+        assertEquals(MSG, Collections.singletonList(user1), courseDaoInf.getUsersAssignedToCourse(COURSE_ID,
+                Arrays.asList(user1.getUserId(), user3.getUserId())));
+    }
+
+    @Test
+    @WithAnonymousUser
+    public void assignUsersToCourseInsertsAllUsersInOneBatch() {
+        courseDaoInf.assignUsersToCourse(3, Arrays.asList(user1.getUserId(), user3.getUserId()));
+
+        List<User> users = courseDaoInf.getUsersAssignedToCourse(3);
+        assertThat(users, hasItem(user1));
+        assertThat(users, hasItem(user3));
+    }
+
+    @Test(expected = DuplicateKeyException.class)
+    @WithAnonymousUser
+    public void assignUsersToCourseRejectsUserAlreadyAssigned() {
+        courseDaoInf.assignUsersToCourse(COURSE_ID, Collections.singletonList(user1.getUserId()));
+    }
+
+    @Test(expected = DataIntegrityViolationException.class)
+    @WithAnonymousUser
+    public void assignUserToNotExistingCourseIsRejected() {
+        dto.setCourseId(5555);
+        dto.setUserId(user1.getUserId());
+        courseDaoInf.assignUserToCourse(dto);
+    }
+
     @Test
     @WithAnonymousUser
     public void searchUsersByFirstNameFullMatch() {
@@ -214,7 +271,7 @@ public class CourseDaoImplTest {
         dto.setSearchType(SEARCH_TYPE_FIRST_NAME);
         dto.setSearchParam(fullMatchingName);
 
-        List<User> users = courseDaoInf.searchForUsersToAssign(dto);
+        List<User> users = courseDaoInf.searchUsers(dto);
 
         assertTrue(users.size() > 0);
     }
@@ -226,7 +283,7 @@ public class CourseDaoImplTest {
         dto.setSearchType(SEARCH_TYPE_FIRST_NAME);
         dto.setSearchParam(partialMatchingName);
 
-        List<User> users = courseDaoInf.searchForUsersToAssign(dto);
+        List<User> users = courseDaoInf.searchUsers(dto);
 
         assertTrue(users.size() > 0);
     }
@@ -238,7 +295,7 @@ public class CourseDaoImplTest {
         dto.setSearchType(SEARCH_TYPE_FIRST_NAME);
         dto.setSearchParam(nonMatchingName);
 
-        List<User> users = courseDaoInf.searchForUsersToAssign(dto);
+        List<User> users = courseDaoInf.searchUsers(dto);
 
         assertTrue(users.size() == 0);
     }
@@ -250,7 +307,7 @@ public class CourseDaoImplTest {
         dto.setSearchType(SEARCH_TYPE_LAST_NAME);
         dto.setSearchParam(fullMatchingName);
 
-        List<User> users = courseDaoInf.searchForUsersToAssign(dto);
+        List<User> users = courseDaoInf.searchUsers(dto);
 
         assertTrue(users.size() > 0);
     }
@@ -262,7 +319,7 @@ public class CourseDaoImplTest {
         dto.setSearchType(SEARCH_TYPE_LAST_NAME);
         dto.setSearchParam(partialMatchingName);
 
-        List<User> users = courseDaoInf.searchForUsersToAssign(dto);
+        List<User> users = courseDaoInf.searchUsers(dto);
 
         assertTrue(users.size() > 0);
     }
@@ -274,7 +331,7 @@ public class CourseDaoImplTest {
         dto.setSearchType(SEARCH_TYPE_LAST_NAME);
         dto.setSearchParam(nonMatchingName);
 
-        List<User> users = courseDaoInf.searchForUsersToAssign(dto);
+        List<User> users = courseDaoInf.searchUsers(dto);
 
         assertTrue(users.size() == 0);
     }
@@ -286,7 +343,7 @@ public class CourseDaoImplTest {
         dto.setSearchType(SEARCH_TYPE_EMAIL);
         dto.setSearchParam(fullMatchingEmail);
 
-        List<User> users = courseDaoInf.searchForUsersToAssign(dto);
+        List<User> users = courseDaoInf.searchUsers(dto);
 
         assertTrue(users.size() > 0);
     }
@@ -298,7 +355,7 @@ public class CourseDaoImplTest {
         dto.setSearchType(SEARCH_TYPE_EMAIL);
         dto.setSearchParam(partialMatchingEmail);
 
-        List<User> users = courseDaoInf.searchForUsersToAssign(dto);
+        List<User> users = courseDaoInf.searchUsers(dto);
 
         assertTrue(users.size() > 0);
     }
@@ -312,7 +369,7 @@ public class CourseDaoImplTest {
         dto.setSearchType(SEARCH_TYPE_EMAIL);
         dto.setSearchParam(nonMatchingEmail);
 
-        List<User> users = courseDaoInf.searchForUsersToAssign(dto);
+        List<User> users = courseDaoInf.searchUsers(dto);
 
         assertTrue(users.size() == 0);
         Course course = new Course.Builder().setId(1).setName("JavaPro")
@@ -352,4 +409,13 @@ public class CourseDaoImplTest {
         assertEquals("In test DB quantity of courses, where teacher is a user with id = 7, is not 1",
                 1, result );
     }
+
+    @Test
+    public void getQuantityCoursesPerTeacherMatchesCountByTeacher() throws Exception {
+        Map<Integer, Integer> result = courseDaoInf.getQuantityCoursesPerTeacher();
+
+        assertEquals(MSG, courseDaoInf.getQuantityCourses(teacher), result.get(teacher.getUserId()).intValue());
+        assertEquals(MSG, courseDaoInf.getQuantityCourses(),
+                result.values().stream().mapToInt(Integer::intValue).sum());
+    }
 }
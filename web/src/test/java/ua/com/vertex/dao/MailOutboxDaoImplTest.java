@@ -0,0 +1,104 @@
+package ua.com.vertex.dao;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+import ua.com.vertex.beans.OutboxMail;
+import ua.com.vertex.context.TestConfig;
+import ua.com.vertex.dao.interfaces.MailOutboxDaoInf;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = TestConfig.class)
+@WebAppConfiguration
+@ActiveProfiles("test")
+@Transactional
+public class MailOutboxDaoImplTest {
+    private static final String MSG = "Maybe method was changed";
+
+    @Autowired
+    private MailOutboxDaoInf mailOutboxDao;
+
+    private long addTestMail() {
+        return mailOutboxDao.addMail(OutboxMail.builder()
+                .sender("from@test.com")
+                .recipient("to@test.com")
+                .subject("Subject")
+                .body("Body")
+                .build());
+    }
+
+    private OutboxMail findReadyMail(long id) {
+        return mailOutboxDao.getMailsReadyToSend(LocalDateTime.now().plusSeconds(1), 100).stream()
+                .filter(mail -> mail.getId() == id).findFirst().orElse(null);
+    }
+
+    @Test
+    public void addedMailIsReadyToSend() {
+        long id = addTestMail();
+        OutboxMail mail = findReadyMail(id);
+
+        assertNotNull(MSG, mail);
+        assertEquals(MSG, OutboxMail.PENDING, mail.getStatus());
+        assertEquals(MSG, "to@test.com", mail.getRecipient());
+        assertEquals(MSG, 0, mail.getAttempts());
+    }
+
+    @Test
+    public void mailCanBeClaimedOnlyOnce() {
+        long id = addTestMail();
+
+        assertTrue(MSG, mailOutboxDao.claimMail(id));
+        assertFalse(MSG, mailOutboxDao.claimMail(id));
+        assertNull(MSG, findReadyMail(id));
+    }
+
+    @Test
+    public void mailMarkedForRetryIsNotReadyBeforeNextAttemptTime() {
+        long id = addTestMail();
+        mailOutboxDao.claimMail(id);
+        mailOutboxDao.markForRetry(id, 1, LocalDateTime.now().plusHours(1), "error");
+
+        assertNull(MSG, findReadyMail(id));
+        List<OutboxMail> later = mailOutboxDao.getMailsReadyToSend(LocalDateTime.now().plusHours(2), 100);
+        assertTrue(MSG, later.stream().anyMatch(mail -> mail.getId() == id && mail.getAttempts() == 1));
+    }
+
+    @Test
+    public void sentAndDeadMailsAreNotReadyToSend() {
+        long sentId = addTestMail();
+        long deadId = addTestMail();
+        mailOutboxDao.markSent(sentId);
+        mailOutboxDao.markDead(deadId, 6, "error");
+
+        assertNull(MSG, findReadyMail(sentId));
+        assertNull(MSG, findReadyMail(deadId));
+    }
+
+    @Test
+    public void releaseClaimedMailsReturnsExpiredClaimsToQueue() {
+        long id = addTestMail();
+        mailOutboxDao.claimMail(id);
+
+        assertTrue(MSG, mailOutboxDao.releaseClaimedMails(LocalDateTime.now().plusSeconds(1)) >= 1);
+        assertNotNull(MSG, findReadyMail(id));
+    }
+
+    @Test
+    public void releaseClaimedMailsKeepsClaimsThatAreNotExpired() {
+        long id = addTestMail();
+        mailOutboxDao.claimMail(id);
+
+        mailOutboxDao.releaseClaimedMails(LocalDateTime.now().minusMinutes(10));
+        assertNull(MSG, findReadyMail(id));
+    }
+}
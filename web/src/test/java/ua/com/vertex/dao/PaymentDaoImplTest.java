@@ -7,11 +7,20 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
 import ua.com.vertex.beans.Payment;
+import ua.com.vertex.beans.PaymentLedgerEntry;
+import ua.com.vertex.beans.StatementPayment;
 import ua.com.vertex.context.TestConfig;
 import ua.com.vertex.dao.interfaces.PaymentDaoInf;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 
@@ -19,6 +28,7 @@ import static org.junit.Assert.assertEquals;
 @ContextConfiguration(classes = TestConfig.class)
 @WebAppConfiguration
 @ActiveProfiles("test")
+@Transactional
 public class PaymentDaoImplTest {
 
     @Autowired
@@ -36,4 +46,64 @@ public class PaymentDaoImplTest {
         assertEquals("Maybe method was changed", payment, paymentDaoInf.getPaymentByIdWithOutDate(result).
                 orElse(new Payment()));
     }
+
+    @Test
+    public void insertStatementPaymentsStoresBankReferences() throws Exception {
+        paymentDaoInf.insertStatementPayments(Arrays.asList(
+                new StatementPayment(1, "BANK-1", 1, 1, BigDecimal.valueOf(100.0), 1),
+                new StatementPayment(2, "BANK-2", 1, 2, BigDecimal.valueOf(200.0), 2)));
+
+        assertEquals("Maybe method was changed", Collections.singleton("BANK-2"),
+                paymentDaoInf.getImportedReferences(Arrays.asList("BANK-2", "BANK-3")));
+    }
+
+    @Test
+    public void getUserPaymentsReturnsPagesFromNewestPayment() throws Exception {
+        insertPayments();
+
+        List<PaymentLedgerEntry> firstPage = paymentDaoInf.getUserPayments(1, Integer.MAX_VALUE, 2);
+        assertEquals("Maybe method was changed", Arrays.asList("BANK-3", "BANK-2"), getReferences(firstPage));
+        assertEquals("Maybe method was changed", "JavaPro", firstPage.get(0).getCourseName());
+        assertEquals("Maybe method was changed", "email1", firstPage.get(0).getEmail());
+
+        List<PaymentLedgerEntry> secondPage = paymentDaoInf.getUserPayments(1, firstPage.get(1).getPaymentId(), 2);
+        assertEquals("Maybe method was changed", Collections.singletonList("BANK-1"), getReferences(secondPage));
+    }
+
+    @Test
+    public void getCoursePaymentsReturnsPaymentsOfAllCourseUsers() throws Exception {
+        insertPayments();
+
+        assertEquals("Maybe method was changed", Arrays.asList("BANK-4", "BANK-3", "BANK-2", "BANK-1"),
+                getReferences(paymentDaoInf.getCoursePayments(1, Integer.MAX_VALUE, 10)));
+    }
+
+    @Test
+    public void forEachPaymentPassesPaymentsOfDateRange() throws Exception {
+        insertPayments();
+        LocalDate today = LocalDate.now();
+
+        List<PaymentLedgerEntry> payments = new ArrayList<>();
+        paymentDaoInf.forEachPayment(today.minusDays(1).atStartOfDay(), today.plusDays(2).atStartOfDay(),
+                payments::add);
+        assertEquals("Maybe method was changed", Arrays.asList("BANK-1", "BANK-2", "BANK-3", "BANK-4"),
+                getReferences(payments));
+
+        payments.clear();
+        paymentDaoInf.forEachPayment(today.minusDays(3).atStartOfDay(), today.minusDays(1).atStartOfDay(),
+                payments::add);
+        assertEquals("Maybe method was changed", Collections.emptyList(), payments);
+    }
+
+    private void insertPayments() {
+        paymentDaoInf.insertStatementPayments(Arrays.asList(
+                new StatementPayment(1, "BANK-1", 1, 1, BigDecimal.valueOf(100.0), 1),
+                new StatementPayment(2, "BANK-2", 1, 1, BigDecimal.valueOf(200.0), 1),
+                new StatementPayment(3, "BANK-3", 1, 1, BigDecimal.valueOf(300.0), 1),
+                new StatementPayment(4, "BANK-4", 1, 2, BigDecimal.valueOf(400.0), 2)));
+    }
+
+    private List<String> getReferences(List<PaymentLedgerEntry> payments) {
+        return payments.stream().map(PaymentLedgerEntry::getBankReference).collect(Collectors.toList());
+    }
 }
@@ -9,4 +9,10 @@ import java.util.Optional;
 public interface AccountingDaoImplForTest {
 
     Optional<Accounting> getAccountingByCourseIdAndUserId(int courseId, int userId);
+
+    double getCourseDebtTotal(int courseId);
+
+    int getCourseDebtors(int courseId);
+
+    void deleteCourseDebtSummary(int courseId);
 }
@@ -3,18 +3,35 @@ package ua.com.vertex.logic;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import ua.com.vertex.beans.Certificate;
+import ua.com.vertex.beans.CertificateWithHolder;
+import ua.com.vertex.beans.Course;
+import ua.com.vertex.beans.CourseGraduation;
+import ua.com.vertex.beans.GraduationResult;
 import ua.com.vertex.beans.User;
+import ua.com.vertex.controllers.exceptionHandling.exceptions.NoCertificateException;
+import ua.com.vertex.dao.interfaces.AccountingDaoInf;
 import ua.com.vertex.dao.interfaces.CertificateDaoInf;
+import ua.com.vertex.dao.interfaces.CourseDaoInf;
 import ua.com.vertex.dao.interfaces.UserDaoInf;
+import ua.com.vertex.utils.CertificateUidGenerator;
+import ua.com.vertex.utils.CertificateVerificationCache;
+import ua.com.vertex.utils.RowCounts;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -30,9 +47,22 @@ public class CertificateLogicImplTest {
     @Mock
     private UserDaoInf userDao;
 
+    @Mock
+    private CourseDaoInf courseDao;
+
+    @Mock
+    private AccountingDaoInf accountingDao;
+
+    @Mock
+    private RowCounts rowCounts;
+
+    private CertificateVerificationCache verificationCache;
+
     @Before
     public void setUp() throws Exception {
-        certificateLogic = new CertificateLogicImpl(userDao, certificateDao);
+        verificationCache = new CertificateVerificationCache(certificateDao, 1000, 100, 10, 10);
+        certificateLogic = new CertificateLogicImpl(userDao, certificateDao, courseDao, accountingDao,
+                new CertificateUidGenerator(0), verificationCache, rowCounts);
         certificate = new Certificate.Builder().setUserId(1).setCertificationDate(LocalDate.parse("2016-12-01"))
                 .setCourseName("Java Professional").setLanguage("Java").getInstance();
         user = new User.Builder().setUserId(1).setEmail("test@mail.ru").setFirstName("test").setLastName("test")
@@ -78,17 +108,101 @@ public class CertificateLogicImplTest {
         certificateLogic.addCertificateAndCreateUser(certificate, user);
         verify(certificateDao).addCertificate(certificate);
         verify(userDao).addUserForCreateCertificate(user);
+        verify(rowCounts).userAdded();
     }
 
     @Test
     public void setUserAndCertificateInvokesDao() throws SQLException {
-        when(certificateDao.getCertificateByUid("1492779828793888"))
-                .thenReturn(Optional.of(new Certificate.Builder().setUserId(22).getInstance()));
-        when(userDao.getUser(22)).thenReturn(Optional.of(new User()));
+        verificationCache.register(1492779828793888L);
+        when(certificateDao.getCertificateWithHolderByUid(1492779828793888L))
+                .thenReturn(Optional.of(new CertificateWithHolder(certificate, user)));
+
+        certificateLogic.getUserAndCertificate(1492779828793888L);
+        verify(certificateDao, times(1)).getCertificateWithHolderByUid(1492779828793888L);
+        verify(userDao, never()).getUser(anyInt());
+    }
+
+    @Test
+    public void getUserAndCertificateServesRepeatedRequestsFromCache() {
+        verificationCache.register(1492779828793888L);
+        when(certificateDao.getCertificateWithHolderByUid(1492779828793888L))
+                .thenReturn(Optional.of(new CertificateWithHolder(certificate, user)));
+
+        certificateLogic.getUserAndCertificate(1492779828793888L);
+        certificateLogic.getUserAndCertificate(1492779828793888L);
+        verify(certificateDao, times(1)).getCertificateWithHolderByUid(1492779828793888L);
+    }
+
+    @Test
+    public void getUserAndCertificateRejectsNeverIssuedUidWithoutDao() {
+        try {
+            certificateLogic.getUserAndCertificate(1492779828793888L);
+            fail(MSG);
+        } catch (NoCertificateException e) {
+            verifyZeroInteractions(certificateDao, userDao);
+        }
+    }
+
+    @Test
+    public void addCertificateRegistersUidInCache() {
+        certificateLogic.addCertificate(certificate);
+        assertTrue(verificationCache.mightExist(Long.parseLong(certificate.getCertificateUidWithoutDashes())));
+    }
+
+    @Test
+    public void graduateCourseIssuesCertificatesForAllAssignedUsers() {
+        mockCourseWithUsers();
+
+        assertEquals(MSG, new GraduationResult(2, 0),
+                certificateLogic.graduateCourse(new CourseGraduation(1, "Java", false)));
+        verify(certificateDao).addCertificates(argThat(new ArgumentMatcher<List<Certificate>>() {
+            @Override
+            public boolean matches(Object argument) {
+                List<?> certificates = (List<?>) argument;
+                return certificates.size() == 2 && certificates.stream().map(Certificate.class::cast)
+                        .allMatch(c -> "Java Professional".equals(c.getCourseName()) && "Java".equals(c.getLanguage())
+                                && verificationCache.mightExist(Long.parseLong(c.getCertificateUidWithoutDashes())));
+            }
+        }));
+        verify(accountingDao, never()).getCourseDebtors(anyInt());
+    }
+
+    @Test
+    public void graduateCourseSkipsDebtorsWhenRequested() {
+        mockCourseWithUsers();
+        when(accountingDao.getCourseDebtors(1)).thenReturn(Collections.singletonList(user));
+
+        assertEquals(MSG, new GraduationResult(1, 0),
+                certificateLogic.graduateCourse(new CourseGraduation(1, "Java", true)));
+    }
+
+    @Test
+    public void graduateCourseSkipsUsersAlreadyCertified() {
+        mockCourseWithUsers();
+        when(certificateDao.getCertificateHolderIds("Java Professional")).thenReturn(Arrays.asList(2, 5));
+
+        assertEquals(MSG, new GraduationResult(1, 1),
+                certificateLogic.graduateCourse(new CourseGraduation(1, "Java", false)));
+        verify(certificateDao).addCertificates(argThat(new ArgumentMatcher<List<Certificate>>() {
+            @Override
+            public boolean matches(Object argument) {
+                List<?> certificates = (List<?>) argument;
+                return certificates.size() == 1 && ((Certificate) certificates.get(0)).getUserId() != 2;
+            }
+        }));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void graduateCourseRejectsUnknownCourse() {
+        certificateLogic.graduateCourse(new CourseGraduation(1, "Java", false));
+    }
 
-        certificateLogic.getUserAndCertificate("1492779828793888");
-        verify(certificateDao, times(1)).getCertificateByUid("1492779828793888");
-        verify(userDao, times(1)).getUser(22);
+    private void mockCourseWithUsers() {
+        Course course = new Course.Builder().setId(1).setName("Java Professional").getInstance();
+        User anotherUser = new User.Builder().setUserId(2).getInstance();
+        when(courseDao.lockCourse(1)).thenReturn(true);
+        when(courseDao.getCourseById(1)).thenReturn(Optional.of(course));
+        when(courseDao.getUsersAssignedToCourse(1)).thenReturn(Arrays.asList(user, anotherUser));
     }
 
     @Test
@@ -8,18 +8,29 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.dao.DataIntegrityViolationException;
 import ua.com.vertex.beans.Accounting;
 import ua.com.vertex.beans.Course;
+import ua.com.vertex.beans.CourseSearchPage;
 import ua.com.vertex.beans.DtoCourseUser;
+import ua.com.vertex.beans.EnrolmentResult;
 import ua.com.vertex.beans.User;
 import ua.com.vertex.dao.interfaces.AccountingDaoInf;
 import ua.com.vertex.dao.interfaces.CourseDaoInf;
 import ua.com.vertex.logic.interfaces.CourseLogic;
+import ua.com.vertex.utils.CourseMembershipIndex;
+import ua.com.vertex.utils.CourseRosterCache;
+import ua.com.vertex.utils.CourseSearchIndex;
+import ua.com.vertex.utils.CourseTableCache;
 import ua.com.vertex.utils.DataNavigator;
+import ua.com.vertex.utils.RowCounts;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
@@ -37,6 +48,13 @@ public class CourseLogicImplTest {
     @Mock
     private AccountingDaoInf accountingDaoInf;
 
+    @Mock
+    private RowCounts rowCounts;
+
+    @Mock
+    private CourseTableCache courseTableCache;
+
+    private CourseSearchIndex searchIndex;
     private CourseLogic courseLogic;
 
     private Course course;
@@ -44,7 +62,10 @@ public class CourseLogicImplTest {
 
     @Before
     public void setUp() {
-        courseLogic = new CourseLogicImpl(courseDaoInf, accountingDaoInf);
+        searchIndex = new CourseSearchIndex(courseDaoInf, 300);
+        courseLogic = new CourseLogicImpl(courseDaoInf, accountingDaoInf, rowCounts,
+                new CourseRosterCache(courseDaoInf, 100, 10), new CourseMembershipIndex(courseDaoInf, 300), searchIndex,
+                courseTableCache);
         course = new Course.Builder().setId(1).setName("test").setFinished(false).setPrice(new BigDecimal(10000)).
                 setStart(LocalDate.of(2017, 5, 28)).setNotes("test").
                 setNotes("test").getInstance();
@@ -71,12 +92,29 @@ public class CourseLogicImplTest {
         fail(EXCEPTION_MSG);
     }
 
-    @Test(expected = DataIntegrityViolationException.class)
-    public void searchCourseByNameAndStatusVerifyCourseDaoAndReturnException() throws Exception {
-        when(courseDaoInf.searchCourseByNameAndStatus(course.getName(), course.isFinished())).
-                thenThrow(new DataIntegrityViolationException("Test"));
-        courseDaoInf.searchCourseByNameAndStatus(course.getName(), course.isFinished());
-        fail(EXCEPTION_MSG);
+    @Test
+    public void searchCourseByNameAndStatusReturnsRequestedPageInRankOrder() throws Exception {
+        Course javaStart = new Course.Builder().setId(5).setName("Java Start").setFinished(false)
+                .setStart(LocalDate.of(2017, 1, 1)).getInstance();
+        Course javaPro = new Course.Builder().setId(6).setName("JavaPro").setFinished(false)
+                .setStart(LocalDate.of(2018, 1, 1)).getInstance();
+        Course javaScript = new Course.Builder().setId(7).setName("JavaScript").setFinished(false)
+                .setStart(LocalDate.of(2016, 1, 1)).getInstance();
+        Arrays.asList(javaStart, javaPro, javaScript).forEach(searchIndex::courseSaved);
+        when(courseDaoInf.getCoursesByIds(Collections.singletonList(javaScript.getId())))
+                .thenReturn(Collections.singletonList(javaScript));
+
+        CourseSearchPage page = courseLogic.searchCourseByNameAndStatus("java", false, 2, 2);
+
+        assertEquals(new CourseSearchPage(Collections.singletonList(javaScript), 2, 2, 3), page);
+    }
+
+    @Test
+    public void searchCourseByNameAndStatusDoesNotQueryDaoWhenNothingFound() throws Exception {
+        CourseSearchPage page = courseLogic.searchCourseByNameAndStatus("java", true, 1, 20);
+
+        assertEquals(new CourseSearchPage(Collections.emptyList(), 1, 1, 0), page);
+        verify(courseDaoInf, never()).getCoursesByIds(anyListOf(Integer.class));
     }
 
     @Test(expected = DataIntegrityViolationException.class)
@@ -107,20 +145,17 @@ public class CourseLogicImplTest {
 
     @Test
     public void assignUserToCourseInvokesDao() {
-        Accounting accounting = new Accounting.Builder().setUserId(USER_ID).setCourseId(COURSE_ID)
-                .setCourseCoast(8000d).setDept(8000d).getInstance();
-
-        when(courseDaoInf.getCourseById(COURSE_ID)).thenReturn(Optional.ofNullable(
-                new Course.Builder().setId(COURSE_ID).setPrice(new BigDecimal(8000)).getInstance()));
+        when(accountingDaoInf.insertAccountingRowAtCoursePrice(USER_ID, COURSE_ID)).thenReturn(true);
 
         courseLogic.assignUserToCourse(dto);
         verify(courseDaoInf, times(1)).assignUserToCourse(dto);
-        verify(accountingDaoInf, times(1)).insertAccountingRow(accounting);
+        verify(courseDaoInf, never()).getCourseById(anyInt());
+        verify(accountingDaoInf, never()).insertAccountingRow(any(Accounting.class));
     }
 
     @Test(expected = NoSuchElementException.class)
     public void assignUserToCourseReturnException() {
-        when(courseDaoInf.getCourseById(anyInt())).thenReturn(Optional.empty());
+        when(accountingDaoInf.insertAccountingRowAtCoursePrice(anyInt(), anyInt())).thenReturn(false);
 
         courseLogic.assignUserToCourse(dto);
         fail("We throw no exception when cannot find course!");
@@ -130,6 +165,111 @@ public class CourseLogicImplTest {
     public void searchForUsersToAssignInvokesDao() {
         DtoCourseUser dto = new DtoCourseUser();
         courseLogic.searchForUsersToAssign(dto);
-        verify(courseDaoInf, times(1)).searchForUsersToAssign(dto);
+        verify(courseDaoInf, times(1)).searchUsers(dto);
+    }
+
+    @Test
+    public void searchForUsersToAssignExcludesEnrolledUsers() {
+        User enrolled = new User.Builder().setUserId(USER_ID).getInstance();
+        User free = new User.Builder().setUserId(USER_ID + 1).getInstance();
+        when(accountingDaoInf.insertAccountingRowAtCoursePrice(USER_ID, COURSE_ID)).thenReturn(true);
+        when(courseDaoInf.searchUsers(dto)).thenReturn(Arrays.asList(enrolled, free));
+
+        courseLogic.assignUserToCourse(dto);
+
+        assertEquals(Collections.singletonList(free), courseLogic.searchForUsersToAssign(dto));
+    }
+
+    @Test
+    public void getQuantityCoursesReadsRowCountsInsteadOfDao() {
+        when(rowCounts.getCourses()).thenReturn(6);
+        when(rowCounts.getCourses(7)).thenReturn(1);
+
+        assertEquals(6, courseLogic.getQuantityCourses());
+        assertEquals(1, courseLogic.getQuantityCourses(new User.Builder().setUserId(7).getInstance()));
+        verify(courseDaoInf, never()).getQuantityCourses();
+        verify(courseDaoInf, never()).getQuantityCourses(any(User.class));
+    }
+
+    @Test
+    public void addCourseCountsCourseOfTeacher() {
+        course.setTeacher(new User.Builder().setUserId(7).getInstance());
+        when(courseDaoInf.addCourse(course)).thenReturn(COURSE_ID);
+
+        assertEquals(COURSE_ID, courseLogic.addCourse(course));
+        verify(rowCounts, times(1)).courseAdded(7);
+        verify(courseTableCache, times(1)).coursesChanged();
+    }
+
+    @Test
+    public void updateCourseExceptPricePassesPreviousAndNewTeacher() {
+        course.setTeacher(new User.Builder().setUserId(7).getInstance());
+        when(courseDaoInf.getCourseById(course.getId())).thenReturn(Optional.of(new Course.Builder()
+                .setId(course.getId()).setTeacher(new User.Builder().setUserId(1).getInstance()).getInstance()));
+        when(courseDaoInf.updateCourseExceptPrice(course)).thenReturn(1);
+
+        courseLogic.updateCourseExceptPrice(course);
+        verify(rowCounts, times(1)).courseTeacherChanged(1, 7);
+        verify(courseTableCache, times(1)).coursesChanged();
+    }
+
+    @Test
+    public void updateCourseExceptPriceOfMissingCourseDoesNotTouchCounts() {
+        course.setTeacher(new User.Builder().setUserId(7).getInstance());
+        when(courseDaoInf.getCourseById(course.getId())).thenReturn(Optional.empty());
+
+        courseLogic.updateCourseExceptPrice(course);
+        verify(rowCounts, never()).courseTeacherChanged(anyInt(), anyInt());
+        verify(courseTableCache, never()).coursesChanged();
+    }
+
+    @Test
+    public void getUsersAssignedToCourseReadsRosterOnce() {
+        User user = new User.Builder().setUserId(USER_ID).getInstance();
+        when(courseDaoInf.getUsersAssignedToCourse(COURSE_ID)).thenReturn(Collections.singletonList(user));
+
+        courseLogic.getUsersAssignedToCourse(COURSE_ID);
+        courseLogic.removeUserFromCourse(dto);
+
+        assertEquals(Collections.emptyList(), courseLogic.getUsersAssignedToCourse(COURSE_ID));
+        verify(courseDaoInf, times(1)).getUsersAssignedToCourse(COURSE_ID);
+    }
+
+    @Test
+    public void assignUsersToCourseBatchesInsertsAndReportsDuplicates() {
+        when(courseDaoInf.lockCourse(COURSE_ID)).thenReturn(true);
+        when(courseDaoInf.getCourseById(COURSE_ID)).thenReturn(Optional.ofNullable(
+                new Course.Builder().setId(COURSE_ID).setPrice(new BigDecimal(8000)).getInstance()));
+        when(courseDaoInf.getUsersAssignedToCourse(COURSE_ID, Arrays.asList(USER_ID, 4, 5)))
+                .thenReturn(Collections.singletonList(new User.Builder().setUserId(USER_ID).getInstance()));
+
+        EnrolmentResult result = courseLogic.assignUsersToCourse(COURSE_ID, Arrays.asList(USER_ID, 4, 5, 4));
+
+        assertEquals(Arrays.asList(4, 5), result.getEnrolled());
+        assertEquals(Collections.singletonList(USER_ID), result.getAlreadyEnrolled());
+        verify(courseDaoInf, times(1)).assignUsersToCourse(COURSE_ID, Arrays.asList(4, 5));
+        verify(accountingDaoInf, times(1)).insertAccountingRows(Arrays.asList(
+                new Accounting(0, 4, COURSE_ID, 8000d, 8000d), new Accounting(0, 5, COURSE_ID, 8000d, 8000d)));
+        verify(courseDaoInf, times(1)).getCourseById(COURSE_ID);
+    }
+
+    @Test
+    public void assignUsersToCourseSkipsInsertsWhenAllAreEnrolled() {
+        when(courseDaoInf.lockCourse(COURSE_ID)).thenReturn(true);
+        when(courseDaoInf.getCourseById(COURSE_ID)).thenReturn(Optional.ofNullable(
+                new Course.Builder().setId(COURSE_ID).setPrice(new BigDecimal(8000)).getInstance()));
+        when(courseDaoInf.getUsersAssignedToCourse(COURSE_ID, Collections.singletonList(USER_ID)))
+                .thenReturn(Collections.singletonList(new User.Builder().setUserId(USER_ID).getInstance()));
+
+        EnrolmentResult result = courseLogic.assignUsersToCourse(COURSE_ID, Collections.singletonList(USER_ID));
+
+        assertTrue(result.getEnrolled().isEmpty());
+        verify(courseDaoInf, never()).assignUsersToCourse(anyInt(), anyListOf(Integer.class));
+        verify(accountingDaoInf, never()).insertAccountingRows(anyListOf(Accounting.class));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void assignUsersToCourseRejectsUnknownCourse() {
+        courseLogic.assignUsersToCourse(COURSE_ID, Collections.singletonList(USER_ID));
     }
 }
@@ -5,17 +5,20 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
-import ua.com.vertex.beans.Payment;
-import ua.com.vertex.beans.PaymentForm;
+import ua.com.vertex.beans.*;
 import ua.com.vertex.dao.interfaces.AccountingDaoInf;
 import ua.com.vertex.dao.interfaces.PaymentDaoInf;
 import ua.com.vertex.logic.interfaces.PaymentLogic;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.*;
 
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
 
 
 @RunWith(MockitoJUnitRunner.class)
@@ -48,4 +51,76 @@ public class PaymentLogicImplTest {
                 paymentForm.getUserID(), paymentForm.getPayment().getAmount().doubleValue());
     }
 
+    @Test
+    public void importStatementPaymentsRecordsMatchedPaymentsAndReportsTheRest() throws Exception {
+        StatementPayment first = new StatementPayment(1, "BANK-1", 1, 1, BigDecimal.valueOf(1000), 0);
+        StatementPayment imported = new StatementPayment(2, "BANK-2", 1, 1, BigDecimal.valueOf(500), 0);
+        StatementPayment repeated = new StatementPayment(3, "BANK-1", 1, 1, BigDecimal.valueOf(1000), 0);
+        StatementPayment unmatched = new StatementPayment(4, "BANK-4", 1, 5, BigDecimal.valueOf(700), 0);
+        StatementPayment second = new StatementPayment(5, "BANK-5", 1, 1, BigDecimal.valueOf(200), 0);
+        when(paymentDaoInf.getImportedReferences(any())).thenReturn(Collections.singleton("BANK-2"));
+        when(accountingDaoInf.getDeals(any(), any())).thenReturn(Collections.singletonList(
+                new Accounting(7, 1, 1, 4000, 4000)));
+
+        PaymentImportResult result = paymentLogic.importStatementPayments(Arrays.asList(first, imported, repeated,
+                unmatched, second));
+
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getAlreadyImported());
+        assertEquals(Collections.singletonList(unmatched), result.getUnmatched());
+        assertEquals(7, first.getDealId());
+        verify(paymentDaoInf, times(1)).insertStatementPayments(Arrays.asList(first, second));
+        verify(accountingDaoInf, times(1)).decreaseDebts(Collections.singletonMap(7, 1200d));
+    }
+
+    @Test
+    public void importStatementPaymentsWithoutMatchesWritesNothing() throws Exception {
+        when(paymentDaoInf.getImportedReferences(any())).thenReturn(Collections.emptySet());
+        when(accountingDaoInf.getDeals(any(), any())).thenReturn(Collections.emptyList());
+
+        PaymentImportResult result = paymentLogic.importStatementPayments(Collections.singletonList(
+                new StatementPayment(1, "BANK-1", 1, 5, BigDecimal.valueOf(700), 0)));
+
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getUnmatched().size());
+        verify(paymentDaoInf, never()).insertStatementPayments(any());
+        verify(accountingDaoInf, never()).decreaseDebts(any());
+    }
+
+    @Test
+    public void getUserLedgerReturnsPageAndKeyOfNextPage() throws Exception {
+        List<PaymentLedgerEntry> entries = Arrays.asList(getLedgerEntry(9), getLedgerEntry(7), getLedgerEntry(4));
+        when(paymentDaoInf.getUserPayments(1, Integer.MAX_VALUE, 3)).thenReturn(entries);
+
+        PaymentLedgerPage page = paymentLogic.getUserLedger(1, 0, 2);
+
+        assertEquals(entries.subList(0, 2), page.getEntries());
+        assertEquals(7, page.getNextBefore());
+    }
+
+    @Test
+    public void getCourseLedgerLastPageHasNoNextPage() throws Exception {
+        List<PaymentLedgerEntry> entries = Collections.singletonList(getLedgerEntry(4));
+        when(paymentDaoInf.getCoursePayments(1, 7, 3)).thenReturn(entries);
+
+        PaymentLedgerPage page = paymentLogic.getCourseLedger(1, 7, 2);
+
+        assertEquals(entries, page.getEntries());
+        assertEquals(0, page.getNextBefore());
+    }
+
+    @Test
+    public void forEachPaymentIncludesWholeLastDay() throws Exception {
+        paymentLogic.forEachPayment(LocalDate.of(2018, 1, 1), LocalDate.of(2018, 1, 31), entry -> {
+        });
+
+        verify(paymentDaoInf, times(1)).forEachPayment(eq(LocalDateTime.of(2018, 1, 1, 0, 0)),
+                eq(LocalDateTime.of(2018, 2, 1, 0, 0)), any());
+    }
+
+    private PaymentLedgerEntry getLedgerEntry(int paymentId) {
+        PaymentLedgerEntry entry = new PaymentLedgerEntry();
+        entry.setPaymentId(paymentId);
+        return entry;
+    }
 }
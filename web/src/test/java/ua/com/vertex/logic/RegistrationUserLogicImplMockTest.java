@@ -9,8 +9,8 @@ import org.springframework.validation.BindingResult;
 import ua.com.vertex.beans.User;
 import ua.com.vertex.beans.UserFormRegistration;
 import ua.com.vertex.logic.interfaces.EmailLogic;
+import ua.com.vertex.logic.interfaces.MailOutboxLogic;
 import ua.com.vertex.logic.interfaces.UserLogic;
-import ua.com.vertex.utils.MailService;
 
 import java.util.Optional;
 
@@ -35,14 +35,14 @@ public class RegistrationUserLogicImplMockTest {
     private UserLogic userLogic;
 
     @Mock
-    private MailService mailService;
+    private MailOutboxLogic mailOutboxLogic;
 
     @Mock
     private EmailLogic emailLogic;
 
     @Before
     public void setUp() {
-        registrationUserLogic = new RegistrationUserLogicImpl(userLogic, mailService, emailLogic);
+        registrationUserLogic = new RegistrationUserLogicImpl(userLogic, mailOutboxLogic, emailLogic);
         userFormRegistrationCorrect = new UserFormRegistration();
         userFormRegistrationCorrect.setEmail(EMAIL);
         String PASSWORD = "111111";
@@ -15,8 +15,8 @@ import org.springframework.validation.BindingResult;
 import ua.com.vertex.beans.UserFormRegistration;
 import ua.com.vertex.context.TestConfigWithMockBeans;
 import ua.com.vertex.logic.interfaces.EmailLogic;
+import ua.com.vertex.logic.interfaces.MailOutboxLogic;
 import ua.com.vertex.logic.interfaces.RegistrationUserLogic;
-import ua.com.vertex.utils.MailService;
 
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
@@ -36,7 +36,7 @@ public class RegistrationUserLogicImplSpringTest {
     private JdbcTemplate template;
 
     @Autowired
-    private MailService mailService;
+    private MailOutboxLogic mailOutboxLogic;
 
     @Autowired
     private EmailLogic emailLogic;
@@ -64,7 +64,7 @@ public class RegistrationUserLogicImplSpringTest {
 
         assertTrue(result);
         verify(emailLogic, times(1)).createRegistrationMessage(form);
-        verify(mailService, times(1)).sendMail(OUR_EMAIL, form.getEmail(), "Confirmation of registration",
+        verify(mailOutboxLogic, times(1)).addMail(OUR_EMAIL, form.getEmail(), "Confirmation of registration",
                 emailLogic.createRegistrationMessage(form));
     }
 
@@ -20,6 +20,7 @@ import ua.com.vertex.testutils.TransactionProvider;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import static org.junit.Assert.*;
@@ -78,6 +79,15 @@ public class TransactionsInLogicTest {
 
     }
 
+    @Test(expected = NoSuchElementException.class)
+    public void assignUserToNotExistingCourseThrowsNoSuchElementException() {
+        DtoCourseUser dto = new DtoCourseUser();
+        dto.setCourseId(5555);
+        dto.setUserId(401);
+
+        courseLogic.assignUserToCourse(dto);
+    }
+
     @Test
     public void addCertificateAndCreateUserTransactionRollbackCorrectly() {
         String userEmail = "addCertificateAndCreateTest@test.com";
@@ -11,6 +11,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import ua.com.vertex.beans.User;
 import ua.com.vertex.dao.interfaces.UserDaoInf;
 import ua.com.vertex.logic.interfaces.UserLogic;
+import ua.com.vertex.utils.RowCounts;
 
 import java.sql.SQLException;
 import java.time.LocalDateTime;
@@ -32,6 +33,9 @@ public class UserLogicImplTest {
     @InjectMocks
     private BCryptPasswordEncoder bCryptPasswordEncoder;
 
+    @Mock
+    private RowCounts rowCounts;
+
     private UserLogic logic;
 
     private User user;
@@ -43,7 +47,7 @@ public class UserLogicImplTest {
 
     @Before
     public void setUp() {
-        logic = new UserLogicImpl(dao, bCryptPasswordEncoder);
+        logic = new UserLogicImpl(dao, bCryptPasswordEncoder, rowCounts);
         user = new User.Builder().setUserId(EXISTING_ID).setEmail(EMAIL).setPassword(NAME).setFirstName(NAME)
                 .setLastName(NAME).setDiscount(0).getInstance();
     }
@@ -94,6 +98,7 @@ public class UserLogicImplTest {
         String passwordBeforeInsert = user.getPassword();
         logic.registrationUserInsert(user);
         verify(dao, times(1)).registrationUserInsert(user);
+        verify(rowCounts, times(1)).userAdded();
         assertNotEquals(MSG, passwordBeforeInsert, user.getPassword());
     }
 
@@ -170,4 +175,12 @@ public class UserLogicImplTest {
         logic.setParamsToRestorePassword(email, uuid, dateTime);
         verify(dao, times(1)).setParamsToRestorePassword(email, uuid, dateTime);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getQuantityUsersReadsRowCountsInsteadOfDao() {
+        when(rowCounts.getUsers()).thenReturn(42);
+
+        assertEquals(MSG, 42, logic.getQuantityUsers());
+        verify(dao, never()).getQuantityUsers();
+    }
+}
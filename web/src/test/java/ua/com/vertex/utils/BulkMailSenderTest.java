@@ -0,0 +1,101 @@
+package ua.com.vertex.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import ua.com.vertex.beans.BulkMailProgress;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+public class BulkMailSenderTest {
+    private static final int MESSAGES = 25;
+    private static final int BATCH_SIZE = 10;
+
+    private EmbeddedSmtpServer smtpServer;
+    private JavaMailSenderImpl javaMailSender;
+
+    @Before
+    public void setUp() throws IOException {
+        smtpServer = new EmbeddedSmtpServer(0);
+        smtpServer.start();
+        javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(smtpServer.getPort());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        smtpServer.stop();
+    }
+
+    @Test
+    public void allMessagesAreDeliveredOverOneConnectionPerBatch() {
+        BulkMailSender sender = new BulkMailSender(javaMailSender, BATCH_SIZE, 1000);
+        BulkMailProgress progress = new BulkMailProgress("job", 1, MESSAGES);
+
+        sender.send(createMessages(), progress);
+
+        assertEquals(MESSAGES, smtpServer.getReceivedMails().size());
+        assertEquals(3, smtpServer.getConnectionCount());
+        assertEquals(MESSAGES, progress.getSent());
+        assertEquals(0, progress.getFailed());
+        assertEquals(100, progress.getPercent());
+        assertTrue(progress.isFinished());
+    }
+
+    @Test
+    public void failedMessagesOfBatchAreCounted() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        doThrow(new MailSendException(Collections.singletonMap(new Object(), new Exception("rejected"))))
+                .when(mailSender).send(Matchers.<SimpleMailMessage[]>anyVararg());
+        BulkMailSender sender = new BulkMailSender(mailSender, BATCH_SIZE, 1000);
+        BulkMailProgress progress = new BulkMailProgress("job", 1, MESSAGES);
+
+        sender.send(createMessages(), progress);
+
+        assertEquals(22, progress.getSent());
+        assertEquals(3, progress.getFailed());
+        assertTrue(progress.isFinished());
+    }
+
+    @Test
+    public void wholeBatchFailsWhenServerRejectsConnection() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        doThrow(new MailAuthenticationException("bad credentials"))
+                .when(mailSender).send(Matchers.<SimpleMailMessage[]>anyVararg());
+        BulkMailSender sender = new BulkMailSender(mailSender, BATCH_SIZE, 1000);
+        BulkMailProgress progress = new BulkMailProgress("job", 1, MESSAGES);
+
+        sender.send(createMessages(), progress);
+
+        assertEquals(0, progress.getSent());
+        assertEquals(MESSAGES, progress.getFailed());
+    }
+
+    private List<SimpleMailMessage> createMessages() {
+        List<SimpleMailMessage> messages = new ArrayList<>();
+        for (int i = 0; i < MESSAGES; i++) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom("from@test.com");
+            message.setTo(String.format("user%d@test.com", i));
+            message.setSubject("Schedule");
+            message.setText("Lesson moved to Friday");
+            messages.add(message);
+        }
+        return messages;
+    }
+}
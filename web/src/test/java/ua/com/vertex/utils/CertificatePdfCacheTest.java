@@ -0,0 +1,117 @@
+package ua.com.vertex.utils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import ua.com.vertex.beans.PdfDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CertificatePdfCacheTest {
+    private static final int PDF_SIZE = 100;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private PdfGenerator pdfGenerator;
+
+    private CertificatePdfCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        when(pdfGenerator.getLayoutVersion()).thenReturn("v1");
+        cache = new CertificatePdfCache(pdfGenerator, folder.getRoot().getPath(), 2 * PDF_SIZE, 0);
+        cache.load();
+    }
+
+    @Test
+    public void keyDependsOnLayoutAndRenderedFields() {
+        PdfDto dto = new PdfDto("email", "First", "Last", "Java", "2016-12-01", "1492-7798-2879-3891");
+        String key = cache.getKey(dto);
+
+        assertTrue(key.startsWith("1492779828793891-"));
+        assertEquals(key, cache.getKey(new PdfDto("other", "First", "Last", "Java", "2016-12-01",
+                "1492-7798-2879-3891")));
+        assertNotEquals(key, cache.getKey(new PdfDto("email", "Changed", "Last", "Java", "2016-12-01",
+                "1492-7798-2879-3891")));
+
+        when(pdfGenerator.getLayoutVersion()).thenReturn("v2");
+        assertNotEquals(key, cache.getKey(dto));
+    }
+
+    @Test
+    public void keyDoesNotEscapeCacheDirectory() {
+        assertFalse(cache.getKey(new PdfDto("email", "First", "Last", "Java", "2016-12-01", "../../etc/passwd"))
+                .contains("/"));
+    }
+
+    @Test
+    public void putStoresPdfWithoutLeavingTemporaryFiles() throws Exception {
+        cache.put("a", pdf());
+
+        Path file = cache.get("a").orElseThrow(AssertionError::new);
+        assertEquals(PDF_SIZE, Files.size(file));
+        //noinspection ConstantConditions
+        assertEquals(1, folder.getRoot().listFiles().length);
+    }
+
+    @Test
+    public void leastRecentlyUsedPdfIsEvicted() throws Exception {
+        cache.put("a", pdf());
+        cache.put("b", pdf());
+        cache.get("a");
+        cache.put("c", pdf());
+
+        assertTrue(cache.get("a").isPresent());
+        assertFalse(cache.get("b").isPresent());
+        assertTrue(cache.get("c").isPresent());
+        assertFalse(new File(folder.getRoot(), "b.pdf").exists());
+        assertEquals(2 * PDF_SIZE, cache.getTotalBytes());
+    }
+
+    @Test
+    public void evictedPdfStaysOnDiskUntilDeleteDelayPasses() throws Exception {
+        CertificatePdfCache delayed = new CertificatePdfCache(pdfGenerator, folder.getRoot().getPath(), PDF_SIZE,
+                3600);
+        delayed.load();
+
+        delayed.put("a", pdf());
+        Path served = delayed.get("a").orElseThrow(AssertionError::new);
+        delayed.put("b", pdf());
+
+        assertFalse(delayed.get("a").isPresent());
+        assertTrue(Files.exists(served));
+        assertEquals(PDF_SIZE, delayed.getTotalBytes());
+    }
+
+    @Test
+    public void loadPicksUpCachedFilesAndRemovesUnfinishedWrites() throws Exception {
+        cache.put("a", pdf());
+        assertTrue(new File(folder.getRoot(), "b123.tmp").createNewFile());
+
+        CertificatePdfCache reloaded = new CertificatePdfCache(pdfGenerator, folder.getRoot().getPath(), 2 * PDF_SIZE, 0);
+        reloaded.load();
+
+        assertTrue(reloaded.get("a").isPresent());
+        assertEquals(PDF_SIZE, reloaded.getTotalBytes());
+        assertFalse(new File(folder.getRoot(), "b123.tmp").exists());
+    }
+
+    private ByteArrayOutputStream pdf() {
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        pdf.write(new byte[PDF_SIZE], 0, PDF_SIZE);
+        return pdf;
+    }
+}
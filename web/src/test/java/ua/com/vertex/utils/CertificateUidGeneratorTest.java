@@ -0,0 +1,72 @@
+package ua.com.vertex.utils;
+
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CertificateUidGeneratorTest {
+    private static final int THREADS = 4;
+    private static final int UIDS_PER_THREAD = 100_000;
+
+    @Test
+    public void uidHasSixteenDigits() {
+        assertEquals(16, String.valueOf(new CertificateUidGenerator(3).nextUid()).length());
+    }
+
+    @Test
+    public void uidsAreMonotonic() {
+        CertificateUidGenerator generator = new CertificateUidGenerator(0);
+        long previous = generator.nextUid();
+        for (int i = 0; i < UIDS_PER_THREAD; i++) {
+            long next = generator.nextUid();
+            assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void uidsAreUniqueAcrossThreads() throws InterruptedException {
+        CertificateUidGenerator generator = new CertificateUidGenerator(0);
+        Set<Long> uids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int i = 0; i < THREADS; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < UIDS_PER_THREAD; j++) {
+                    uids.add(generator.nextUid());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(THREADS * UIDS_PER_THREAD, uids.size());
+    }
+
+    @Test
+    public void differentNodesNeverCollide() {
+        assertTrue(new CertificateUidGenerator(1).nextUid() % 4 == 1);
+        assertTrue(new CertificateUidGenerator(2).nextUid() % 4 == 2);
+    }
+
+    @Test
+    public void issuedAtReturnsTimeOfGeneratorUidsOnly() {
+        long before = System.currentTimeMillis();
+        long issuedAt = CertificateUidGenerator.issuedAt(new CertificateUidGenerator(2).nextUid());
+
+        assertTrue(issuedAt >= before && issuedAt <= System.currentTimeMillis());
+        assertEquals(-1, CertificateUidGenerator.issuedAt(1492779828793888L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nodeOutOfRangeIsRejected() {
+        new CertificateUidGenerator(4);
+    }
+}
@@ -0,0 +1,84 @@
+package ua.com.vertex.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import ua.com.vertex.beans.Certificate;
+import ua.com.vertex.beans.CertificateWithHolder;
+import ua.com.vertex.beans.User;
+import ua.com.vertex.dao.interfaces.CertificateDaoInf;
+
+import java.util.function.LongConsumer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CertificateVerificationCacheTest {
+    private static final long ISSUED_UID = 1492779828793888L;
+    private static final long UNKNOWN_UID = 1111222233334444L;
+
+    @Mock
+    private CertificateDaoInf certificateDao;
+
+    private CertificateVerificationCache cache;
+
+    @Before
+    public void setUp() {
+        doAnswer(invocation -> {
+            ((LongConsumer) invocation.getArguments()[0]).accept(ISSUED_UID);
+            return null;
+        }).when(certificateDao).forEachCertificateUid(any(LongConsumer.class));
+
+        cache = new CertificateVerificationCache(certificateDao, 1000, 1, 10, 10);
+        cache.load();
+    }
+
+    @Test
+    public void loadRegistersAllIssuedUids() {
+        assertTrue(cache.mightExist(ISSUED_UID));
+        assertFalse(cache.mightExist(UNKNOWN_UID));
+    }
+
+    @Test
+    public void registeredUidIsKnown() {
+        cache.register(UNKNOWN_UID);
+        assertTrue(cache.mightExist(UNKNOWN_UID));
+    }
+
+    @Test
+    public void uidIssuedOnAnotherNodeAfterLoadIsNotRejected() {
+        long uid = new CertificateUidGenerator(1).nextUid();
+        assertTrue(cache.mightExist(uid));
+    }
+
+    @Test
+    public void uidIssuedLongBeforeLoadIsRejectedUntilRebuild() {
+        long uid = 1L << 52 | 1234L << 12;
+        assertFalse(cache.mightExist(uid));
+
+        doAnswer(invocation -> {
+            ((LongConsumer) invocation.getArguments()[0]).accept(uid);
+            return null;
+        }).when(certificateDao).forEachCertificateUid(any(LongConsumer.class));
+        cache.load();
+
+        assertTrue(cache.mightExist(uid));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() {
+        CertificateWithHolder first = new CertificateWithHolder(new Certificate(), new User());
+        CertificateWithHolder second = new CertificateWithHolder(new Certificate(), new User());
+
+        cache.put(ISSUED_UID, first);
+        assertEquals(first, cache.get(ISSUED_UID).orElse(null));
+        cache.put(UNKNOWN_UID, second);
+
+        assertFalse(cache.get(ISSUED_UID).isPresent());
+        assertTrue(cache.get(UNKNOWN_UID).isPresent());
+    }
+}
@@ -0,0 +1,122 @@
+package ua.com.vertex.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import ua.com.vertex.beans.Certificate;
+import ua.com.vertex.beans.CertificateWithHolder;
+import ua.com.vertex.beans.PdfDto;
+import ua.com.vertex.beans.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CertificateZipWriterTest {
+    private static final int CERTIFICATES = 10;
+
+    @Mock
+    private PdfGenerator pdfGenerator;
+
+    @Mock
+    private CertificatePdfCache pdfCache;
+
+    private CertificateZipWriter zipWriter;
+    private List<CertificateWithHolder> certificates;
+
+    @Before
+    public void setUp() throws Exception {
+        zipWriter = new CertificateZipWriter(pdfGenerator, pdfCache, 3);
+        when(pdfCache.getKey(any(PdfDto.class))).thenAnswer(invocation ->
+                ((PdfDto) invocation.getArguments()[0]).getCertificateUid());
+        when(pdfCache.get(anyString())).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            PdfDto dto = (PdfDto) invocation.getArguments()[1];
+            ((OutputStream) invocation.getArguments()[0]).write(dto.getCertificateUid().getBytes());
+            return null;
+        }).when(pdfGenerator).generatePdf(any(OutputStream.class), any(PdfDto.class));
+
+        certificates = new ArrayList<>();
+        for (int i = 0; i < CERTIFICATES; i++) {
+            Certificate certificate = new Certificate.Builder().setCertificateUid("149277982879390" + i)
+                    .setCertificationDate(LocalDate.parse("2016-12-01")).setCourseName("Java Professional")
+                    .getInstance();
+            User holder = new User.Builder().setEmail("user" + i + "@test.com").setFirstName("First")
+                    .setLastName("Last").getInstance();
+            certificates.add(new CertificateWithHolder(certificate, holder));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        zipWriter.stop();
+    }
+
+    @Test
+    public void writeZipContainsEveryCertificate() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertEquals(CERTIFICATES, zipWriter.writeZip(certificates, outputStream));
+
+        Map<String, String> entries = readZip(outputStream.toByteArray());
+        assertEquals(CERTIFICATES, entries.size());
+        for (CertificateWithHolder certificate : certificates) {
+            String uid = certificate.getCertificate().getCertificateUidWithoutDashes();
+            assertEquals(certificate.getCertificate().getCertificateUid(),
+                    entries.get("certificate_" + uid + ".pdf"));
+        }
+        verify(pdfCache, times(CERTIFICATES)).put(anyString(), any(ByteArrayOutputStream.class));
+    }
+
+    @Test
+    public void writeZipOfNoCertificatesIsEmptyArchive() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertEquals(0, zipWriter.writeZip(Collections.emptyList(), outputStream));
+        assertEquals(0, readZip(outputStream.toByteArray()).size());
+    }
+
+    @Test
+    public void renderingFailureAbortsArchive() throws Exception {
+        doThrow(new IOException("broken")).when(pdfGenerator).generatePdf(any(OutputStream.class), any(PdfDto.class));
+
+        try {
+            zipWriter.writeZip(certificates, new ByteArrayOutputStream());
+            fail();
+        } catch (IOException e) {
+            assertEquals("broken", e.getCause().getMessage());
+        }
+    }
+
+    private Map<String, String> readZip(byte[] zip) throws IOException {
+        Map<String, String> entries = new HashMap<>();
+        try (ZipInputStream inputStream = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = inputStream.getNextEntry()) != null) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                byte[] buffer = new byte[1024];
+                int read;
+                while ((read = inputStream.read(buffer)) > 0) {
+                    content.write(buffer, 0, read);
+                }
+                entries.put(entry.getName(), content.toString());
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,62 @@
+package ua.com.vertex.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import ua.com.vertex.dao.interfaces.CourseDaoInf;
+
+import java.util.function.BiConsumer;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CourseMembershipIndexTest {
+    private static final int COURSE_ID = 1;
+
+    @Mock
+    private CourseDaoInf courseDao;
+
+    private CourseMembershipIndex index;
+
+    @Before
+    public void setUp() {
+        mockCourseUsers(401);
+        index = new CourseMembershipIndex(courseDao, 300);
+        index.load();
+    }
+
+    @Test
+    public void loadIndexesEnrolledUsers() {
+        assertTrue(index.isMember(COURSE_ID, 401));
+        assertFalse(index.isMember(COURSE_ID, 402));
+    }
+
+    @Test
+    public void assignedUserCanNotBeAssignedAgain() {
+        assertTrue(index.userAssigned(COURSE_ID, 402));
+        assertFalse(index.userAssigned(COURSE_ID, 402));
+    }
+
+    @Test
+    public void rebuildRepairsChangesMadeOutsideThisInstance() {
+        mockCourseUsers(402);
+
+        index.load();
+
+        assertFalse(index.isMember(COURSE_ID, 401));
+        assertTrue(index.isMember(COURSE_ID, 402));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockCourseUsers(int userId) {
+        doAnswer(invocation -> {
+            ((BiConsumer<Integer, Integer>) invocation.getArguments()[0]).accept(COURSE_ID, userId);
+            return null;
+        }).when(courseDao).forEachCourseUser(any(BiConsumer.class));
+    }
+}
@@ -0,0 +1,104 @@
+package ua.com.vertex.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.com.vertex.beans.User;
+import ua.com.vertex.dao.interfaces.CourseDaoInf;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CourseRosterCacheTest {
+    private static final int COURSE_ID = 1;
+
+    @Mock
+    private CourseDaoInf courseDao;
+
+    private CourseRosterCache cache;
+    private User user1, user2;
+
+    @Before
+    public void setUp() {
+        user1 = new User.Builder().setUserId(401).setEmail("user1@email.com").getInstance();
+        user2 = new User.Builder().setUserId(402).setEmail("user2@email.com").getInstance();
+        when(courseDao.getUsersAssignedToCourse(COURSE_ID)).thenReturn(Collections.singletonList(user1));
+        when(courseDao.getUsersAssignedToCourse(COURSE_ID, Collections.singletonList(user2.getUserId())))
+                .thenReturn(Collections.singletonList(user2));
+
+        cache = new CourseRosterCache(courseDao, 100, 10);
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void rosterIsLoadedOnce() {
+        cache.getRoster(COURSE_ID);
+        assertEquals(Collections.singletonList(user1), cache.getRoster(COURSE_ID));
+        verify(courseDao, times(1)).getUsersAssignedToCourse(COURSE_ID);
+    }
+
+    @Test
+    public void assignAndRemoveUpdateCachedRosterWithoutReload() {
+        cache.getRoster(COURSE_ID);
+
+        cache.userAssigned(COURSE_ID, user2.getUserId());
+        assertEquals(Arrays.asList(user1, user2), cache.getRoster(COURSE_ID));
+
+        cache.userRemoved(COURSE_ID, user1.getUserId());
+        assertEquals(Collections.singletonList(user2), cache.getRoster(COURSE_ID));
+        verify(courseDao, times(1)).getUsersAssignedToCourse(COURSE_ID);
+    }
+
+    @Test
+    public void transactionReadsOwnChangesAndCacheIsPatchedOnCommit() {
+        cache.getRoster(COURSE_ID);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.userAssigned(COURSE_ID, user2.getUserId());
+        when(courseDao.getUsersAssignedToCourse(COURSE_ID)).thenReturn(Arrays.asList(user1, user2));
+        assertEquals(Arrays.asList(user1, user2), cache.getRoster(COURSE_ID));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals(Arrays.asList(user1, user2), cache.getRoster(COURSE_ID));
+        verify(courseDao, times(2)).getUsersAssignedToCourse(COURSE_ID);
+    }
+
+    @Test
+    public void rosterLoadedWhileChangeCommittedIsNotCached() {
+        when(courseDao.getUsersAssignedToCourse(COURSE_ID)).thenAnswer(invocation -> {
+            cache.userRemoved(COURSE_ID, user1.getUserId());
+            return Collections.singletonList(user1);
+        }).thenReturn(Collections.emptyList());
+
+        assertEquals(Collections.singletonList(user1), cache.getRoster(COURSE_ID));
+        assertEquals(Collections.emptyList(), cache.getRoster(COURSE_ID));
+        verify(courseDao, times(2)).getUsersAssignedToCourse(COURSE_ID);
+    }
+
+    @Test
+    public void rolledBackChangesNeverReachCache() {
+        cache.getRoster(COURSE_ID);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.userRemoved(COURSE_ID, user1.getUserId());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(Collections.singletonList(user1), cache.getRoster(COURSE_ID));
+    }
+}
@@ -0,0 +1,128 @@
+package ua.com.vertex.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.com.vertex.beans.Course;
+import ua.com.vertex.dao.interfaces.CourseDaoInf;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CourseSearchIndexTest {
+
+    @Mock
+    private CourseDaoInf courseDao;
+
+    private CourseSearchIndex index;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        doAnswer(invocation -> {
+            Consumer<Course> consumer = (Consumer<Course>) invocation.getArguments()[0];
+            consumer.accept(course(1, "JavaPro", false, 2017));
+            consumer.accept(course(2, "Java Start", false, 2018));
+            consumer.accept(course(3, "JavaScript basics", false, 2019));
+            consumer.accept(course(4, "JavaPro", true, 2016));
+            consumer.accept(course(5, "Python 3", false, 2016));
+            return null;
+        }).when(courseDao).forEachCourse(any());
+
+        index = new CourseSearchIndex(courseDao, 300);
+        index.load();
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void searchIsCaseInsensitivePrefixMatch() {
+        assertEquals(Collections.singletonList(1), index.search("JAVAP", false));
+        assertEquals(Collections.singletonList(5), index.search("pyth", false));
+    }
+
+    @Test
+    public void camelCaseAndDigitPartsAreSearchable() {
+        assertEquals(Collections.singletonList(1), index.search("pro", false));
+        assertEquals(Collections.singletonList(3), index.search("script", false));
+        assertEquals(Collections.singletonList(5), index.search("python3", false));
+    }
+
+    @Test
+    public void everyQueryWordMustMatch() {
+        assertEquals(Collections.singletonList(2), index.search("ja st", false));
+        assertTrue(index.search("java python", false).isEmpty());
+    }
+
+    @Test
+    public void searchIsPartitionedByFinishedFlag() {
+        assertEquals(Collections.singletonList(4), index.search("java", true));
+        assertEquals(Collections.singletonList(4), index.search("", true));
+    }
+
+    @Test
+    public void exactWordsRankAboveNewerPrefixMatches() {
+        index.courseSaved(course(6, "Javanese", false, 2020));
+        assertEquals(Arrays.asList(3, 2, 1, 6), index.search("java", false));
+        assertEquals(Arrays.asList(6, 3, 2, 1), index.search("jav", false));
+    }
+
+    @Test
+    public void savedCourseReplacesItsPreviousWords() {
+        index.courseSaved(course(1, "Kotlin", true, 2017));
+
+        assertTrue(index.search("pro", false).isEmpty());
+        assertEquals(Collections.singletonList(1), index.search("kot", true));
+        assertEquals(Arrays.asList(3, 2, 5), index.search("", false));
+    }
+
+    @Test
+    public void savedCourseIsIndexedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.courseSaved(course(6, "Kotlin", false, 2020));
+        assertTrue(index.search("kotlin", false).isEmpty());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(Collections.singletonList(6), index.search("kotlin", false));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void rebuildPicksUpCoursesChangedOutsideThisInstance() {
+        doAnswer(invocation -> {
+            Consumer<Course> consumer = (Consumer<Course>) invocation.getArguments()[0];
+            consumer.accept(course(1, "Kotlin", false, 2017));
+            consumer.accept(course(6, "Scala", false, 2020));
+            return null;
+        }).when(courseDao).forEachCourse(any());
+
+        index.load();
+
+        assertTrue(index.search("javapro", false).isEmpty());
+        assertEquals(Collections.singletonList(1), index.search("kot", false));
+        assertEquals(Collections.singletonList(6), index.search("scala", false));
+    }
+
+    private Course course(int id, String name, boolean finished, int year) {
+        return new Course.Builder().setId(id).setName(name).setFinished(finished)
+                .setStart(LocalDate.of(year, 1, 1)).getInstance();
+    }
+}
@@ -0,0 +1,71 @@
+package ua.com.vertex.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EmailTemplateEngineTest {
+    private static final String NOTIFICATION_TEMPLATE = "courseNotification.body";
+    private static final String PASSWORD_RESET_TEMPLATE = "passwordReset.body";
+
+    private EmailTemplateEngine engine;
+    private Map<String, Object> values;
+
+    @Before
+    public void setUp() {
+        engine = new EmailTemplateEngine("https://vertex.test/");
+        values = new HashMap<>();
+        values.put("firstName", "Ivan");
+        values.put("lastName", "Petrenko");
+        values.put("text", "Lesson moved to Friday");
+    }
+
+    @Test
+    public void renderSubstitutesVariables() {
+        assertEquals("Hello, Ivan Petrenko.\n\nLesson moved to Friday",
+                engine.render(NOTIFICATION_TEMPLATE, Locale.ENGLISH, values));
+    }
+
+    @Test
+    public void renderUsesConfiguredBaseUrl() {
+        Map<String, Object> resetValues = new HashMap<>();
+        resetValues.put("id", 5L);
+        resetValues.put("uuid", "abc");
+        resetValues.put("expireMinutes", 10);
+
+        String message = engine.render(PASSWORD_RESET_TEMPLATE, Locale.ENGLISH, resetValues);
+
+        assertTrue(message.contains("https://vertex.test/passwordEnterNew?id=5&uuid=abc"));
+        assertTrue(message.contains("https://vertex.test/resetPassword"));
+        assertTrue(message.contains("within 10 minutes"));
+    }
+
+    @Test
+    public void renderUsesLocaleVariant() {
+        assertTrue(engine.render(NOTIFICATION_TEMPLATE, new Locale("uk", "UA"), values)
+                .startsWith("Вітаємо, Ivan Petrenko."));
+    }
+
+    @Test
+    public void renderFallsBackToDefaultTemplatesForUnknownLocale() {
+        assertEquals(engine.render(NOTIFICATION_TEMPLATE, Locale.ENGLISH, values),
+                engine.render(NOTIFICATION_TEMPLATE, Locale.JAPANESE, values));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void renderUnknownTemplateThrowsException() {
+        engine.render("unknown", Locale.ENGLISH, values);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void renderWithMissingValueThrowsException() {
+        values.remove("text");
+        engine.render(NOTIFICATION_TEMPLATE, Locale.ENGLISH, values);
+    }
+}
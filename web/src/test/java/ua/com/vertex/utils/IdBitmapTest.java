@@ -0,0 +1,57 @@
+package ua.com.vertex.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IdBitmapTest {
+
+    @Test
+    public void addContainsAndRemoveAcrossChunks() {
+        IdBitmap bitmap = new IdBitmap();
+        int[] ids = {0, 7, 65535, 65536, 1 << 20, Integer.MAX_VALUE};
+
+        for (int id : ids) {
+            assertTrue(bitmap.add(id));
+        }
+        assertFalse(bitmap.add(7));
+        assertEquals(ids.length, bitmap.getCardinality());
+        for (int id : ids) {
+            assertTrue(bitmap.contains(id));
+        }
+        assertFalse(bitmap.contains(8));
+
+        assertTrue(bitmap.remove(65536));
+        assertFalse(bitmap.remove(65536));
+        assertFalse(bitmap.contains(65536));
+        assertEquals(ids.length - 1, bitmap.getCardinality());
+    }
+
+    @Test
+    public void denseChunkSwitchesToBitmapAndBack() {
+        IdBitmap bitmap = new IdBitmap();
+        for (int id = 0; id < 10000; id += 2) {
+            bitmap.add(id);
+        }
+        assertEquals(5000, bitmap.getCardinality());
+        assertTrue(bitmap.contains(9998));
+        assertFalse(bitmap.contains(9999));
+
+        for (int id = 0; id < 2000; id += 2) {
+            bitmap.remove(id);
+        }
+        assertEquals(4000, bitmap.getCardinality());
+        assertFalse(bitmap.contains(1998));
+        assertTrue(bitmap.contains(2000));
+        assertTrue(bitmap.contains(9998));
+    }
+
+    @Test
+    public void andNotKeepsCandidatesOutsideBitmapInOrder() {
+        IdBitmap bitmap = new IdBitmap();
+        bitmap.add(401);
+        bitmap.add(402);
+
+        assertArrayEquals(new int[]{33, 1, 403}, bitmap.andNot(new int[]{401, 33, 1, 402, 403}));
+    }
+}
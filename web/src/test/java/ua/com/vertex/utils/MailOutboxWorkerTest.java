@@ -0,0 +1,91 @@
+package ua.com.vertex.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.util.ReflectionTestUtils;
+import ua.com.vertex.beans.OutboxMail;
+import ua.com.vertex.dao.interfaces.MailOutboxDaoInf;
+
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MailOutboxWorkerTest {
+
+    @Mock
+    private MailOutboxDaoInf mailOutboxDao;
+
+    @Mock
+    private MailService mailService;
+
+    private MailOutboxWorker worker;
+    private OutboxMail mail;
+
+    @Before
+    public void setUp() {
+        worker = new MailOutboxWorker(mailOutboxDao, mailService);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(worker, "initialBackoff", 30L);
+        ReflectionTestUtils.setField(worker, "maxBackoff", 100L);
+        mail = OutboxMail.builder().id(1).sender("from").recipient("to").subject("subject").body("body")
+                .status(OutboxMail.SENDING).build();
+    }
+
+    @Test
+    public void deliveredMailIsMarkedSent() {
+        worker.deliver(mail);
+
+        verify(mailService).sendMail("from", "to", "subject", "body");
+        verify(mailOutboxDao).markSent(1);
+    }
+
+    @Test
+    public void failedMailIsScheduledForRetry() {
+        doThrow(new MailSendException("smtp is down")).when(mailService).sendMail("from", "to", "subject", "body");
+
+        worker.deliver(mail);
+
+        verify(mailOutboxDao).markForRetry(eq(1L), eq(1), any(LocalDateTime.class), eq("smtp is down"));
+        verify(mailOutboxDao, never()).markSent(anyLong());
+    }
+
+    @Test
+    public void mailIsMovedToDeadLettersAfterMaxAttempts() {
+        mail.setAttempts(2);
+        doThrow(new MailSendException("smtp is down")).when(mailService).sendMail("from", "to", "subject", "body");
+
+        worker.deliver(mail);
+
+        verify(mailOutboxDao).markDead(1L, 3, "smtp is down");
+        verify(mailOutboxDao, never()).markForRetry(anyLong(), anyInt(), any(LocalDateTime.class), anyString());
+    }
+
+    @Test
+    public void mailThatWasSentButNotMarkedIsNotRetried() {
+        doThrow(new DataAccessResourceFailureException("db is down")).when(mailOutboxDao).markSent(1);
+
+        worker.deliver(mail);
+
+        verify(mailService, times(1)).sendMail("from", "to", "subject", "body");
+        verify(mailOutboxDao, never()).markForRetry(anyLong(), anyInt(), any(LocalDateTime.class), anyString());
+        verify(mailOutboxDao, never()).markDead(anyLong(), anyInt(), anyString());
+    }
+
+    @Test
+    public void backoffGrowsExponentiallyUpToMaximum() {
+        assertEquals(30, worker.getBackoffSeconds(1));
+        assertEquals(60, worker.getBackoffSeconds(2));
+        assertEquals(100, worker.getBackoffSeconds(3));
+        assertEquals(100, worker.getBackoffSeconds(100));
+    }
+}
@@ -0,0 +1,96 @@
+package ua.com.vertex.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DuplicateKeyException;
+import ua.com.vertex.beans.PaymentImportResult;
+import ua.com.vertex.beans.StatementPayment;
+import ua.com.vertex.logic.interfaces.PaymentLogic;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PaymentStatementImporterTest {
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private PaymentLogic paymentLogic;
+
+    @Captor
+    private ArgumentCaptor<List<StatementPayment>> chunks;
+
+    private PaymentStatementImporter importer;
+
+    @Before
+    public void setUp() {
+        importer = new PaymentStatementImporter(paymentLogic, CHUNK_SIZE);
+        when(paymentLogic.importStatementPayments(any())).thenAnswer(invocation -> {
+            PaymentImportResult result = new PaymentImportResult();
+            result.setImported(((List<?>) invocation.getArguments()[0]).size());
+            return result;
+        });
+    }
+
+    @Test
+    public void importStatementSkipsHeaderAndImportsInChunks() throws Exception {
+        PaymentImportResult result = importer.importStatement(toStream("reference,course,user,amount\n" +
+                "BANK-1,1,1,1000.00\n" +
+                "\"BANK-2\", 1, 2, \"250.50\"\n" +
+                "\n" +
+                "BANK-3,2,1,300\n"));
+
+        verify(paymentLogic, times(2)).importStatementPayments(chunks.capture());
+        assertEquals(Arrays.asList(2, 1), chunks.getAllValues().stream().map(List::size)
+                .collect(Collectors.toList()));
+        assertEquals(new StatementPayment(3, "BANK-2", 1, 2, new BigDecimal("250.50"), 0),
+                chunks.getAllValues().get(0).get(1));
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getInvalidLines().size());
+    }
+
+    @Test
+    public void importStatementReportsInvalidLines() throws Exception {
+        PaymentImportResult result = importer.importStatement(toStream("BANK-1,1,1,1000\n" +
+                "BANK-2,1,x,100\n" +
+                "BANK-3,1,1,-100\n" +
+                ",1,1,100\n" +
+                "BANK-5,1,1\n"));
+
+        assertEquals(1, result.getImported());
+        assertEquals(Arrays.asList("2: BANK-2,1,x,100", "3: BANK-3,1,1,-100", "4: ,1,1,100", "5: BANK-5,1,1"),
+                result.getInvalidLines());
+    }
+
+    @Test
+    public void importStatementChecksChunkAgainAfterConcurrentImport() throws Exception {
+        PaymentImportResult alreadyImported = new PaymentImportResult();
+        alreadyImported.setAlreadyImported(1);
+        doThrow(new DuplicateKeyException("BANK-1")).doReturn(alreadyImported).when(paymentLogic)
+                .importStatementPayments(any());
+
+        PaymentImportResult result = importer.importStatement(toStream("BANK-1,1,1,1000\n"));
+
+        verify(paymentLogic, times(2)).importStatementPayments(any());
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getAlreadyImported());
+    }
+
+    private InputStream toStream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
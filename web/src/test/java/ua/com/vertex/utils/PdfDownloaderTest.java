@@ -1,57 +1,121 @@
 package ua.com.vertex.utils;
 
-import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.Spy;
+import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import ua.com.vertex.beans.PdfDto;
 
-import javax.servlet.ServletOutputStream;
-import javax.servlet.http.HttpServletResponse;
-import java.io.File;
-import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
-@SuppressWarnings("ResultOfMethodCallIgnored")
 @RunWith(MockitoJUnitRunner.class)
 public class PdfDownloaderTest {
+    private static final byte[] PDF = "%PDF-1.4 test".getBytes();
+    private static final String KEY = "key";
 
-    @Spy
-    private final HttpServletResponse response = new MockHttpServletResponse();
+    @Mock
+    private PdfGenerator pdfGenerator;
 
-    private PdfDownloader pdfDownloader;
-    private static final String PDF_FILE_NAME = "PdfDownloaderTest.pdf";
-    private final File file = new File(PDF_FILE_NAME);
+    @Mock
+    private CertificatePdfCache pdfCache;
+
+    private final PdfDto dto = new PdfDto();
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
 
     @Before
-    public void setUp() throws IOException {
-        if (!file.exists()) {
-            file.createNewFile();
-        }
-        pdfDownloader = new PdfDownloader();
+    public void setUp() {
+        when(pdfCache.getKey(dto)).thenReturn(KEY);
+        when(pdfCache.get(KEY)).thenReturn(Optional.empty());
+    }
+
+    @Test
+    public void bufferedDownloadSetsContentLengthAndCachesPdf() throws Exception {
+        mockGeneratedPdf();
+
+        int status = new PdfDownloader(pdfGenerator, pdfCache, true).downloadPdf(dto, request, response);
+
+        assertEquals(200, status);
+        assertEquals("application/pdf", response.getContentType());
+        assertEquals("attachment; filename=certificate.pdf", response.getHeader("Content-Disposition"));
+        assertEquals(PDF.length, response.getContentLength());
+        assertEquals(new String(PDF), response.getContentAsString());
+        verify(pdfCache).put(eq(KEY), any(ByteArrayOutputStream.class));
+    }
+
+    @Test
+    public void streamingDownloadWritesPdfToResponse() throws Exception {
+        mockGeneratedPdf();
+
+        new PdfDownloader(pdfGenerator, pdfCache, false).downloadPdf(dto, request, response);
+
+        assertNull(response.getHeader("Content-Length"));
+        assertEquals(new String(PDF), response.getContentAsString());
+        verify(pdfCache, never()).put(anyString(), any(ByteArrayOutputStream.class));
     }
 
-    @After
-    public void tearDown() {
-        if (file.exists()) {
-            file.delete();
+    @Test
+    public void cachedPdfIsServedWithoutRendering() throws Exception {
+        Path file = Files.createTempFile("PdfDownloaderTest", ".pdf");
+        try {
+            Files.write(file, PDF);
+            when(pdfCache.get(KEY)).thenReturn(Optional.of(file));
+
+            new PdfDownloader(pdfGenerator, pdfCache, true).downloadPdf(dto, request, response);
+
+            assertEquals(PDF.length, response.getContentLength());
+            assertEquals(new String(PDF), response.getContentAsString());
+            verify(pdfGenerator, never()).generatePdf(any(OutputStream.class), any(PdfDto.class));
+        } finally {
+            Files.deleteIfExists(file);
         }
     }
 
     @Test
-    public void downloadPdfReturnsHttpStatusOk() throws IOException {
-        ServletOutputStream stream = mock(ServletOutputStream.class);
-        when(response.getOutputStream()).thenReturn(stream);
+    public void cachedPdfIsHandedToSendfileWhenSupported() throws Exception {
+        Path file = Files.createTempFile("PdfDownloaderTest", ".pdf");
+        try {
+            Files.write(file, PDF);
+            when(pdfCache.get(KEY)).thenReturn(Optional.of(file));
+            request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
 
-        int status = pdfDownloader.downloadPdf(PDF_FILE_NAME, response);
+            new PdfDownloader(pdfGenerator, pdfCache, true).downloadPdf(dto, request, response);
 
-        verify(response).setContentType("application/pdf");
-        verify(response).addHeader("Content-Disposition", "attachment; filename=certificate.pdf");
-        verify(stream).flush();
-        assertEquals(200, status);
+            assertEquals(file.toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+            assertEquals((long) PDF.length, request.getAttribute("org.apache.tomcat.sendfile.end"));
+            assertEquals(0, response.getContentAsByteArray().length);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void mockGeneratedPdf() throws Exception {
+        doAnswer(invocation -> {
+            ((OutputStream) invocation.getArguments()[0]).write(PDF);
+            return null;
+        }).when(pdfGenerator).generatePdf(any(OutputStream.class), eq(dto));
+    }
+
+    @Test
+    public void renderPdfReturnsBytesAndCachesThem() throws Exception {
+        mockGeneratedPdf();
+
+        assertArrayEquals(PDF, new PdfDownloader(pdfGenerator, pdfCache, true).renderPdf(dto));
+        verify(pdfCache).put(eq(KEY), any(ByteArrayOutputStream.class));
     }
 }
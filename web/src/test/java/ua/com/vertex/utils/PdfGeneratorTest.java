@@ -1,10 +1,8 @@
 package ua.com.vertex.utils;
 
-import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -12,9 +10,10 @@ import org.springframework.test.context.web.WebAppConfiguration;
 import ua.com.vertex.beans.PdfDto;
 import ua.com.vertex.context.TestConfig;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -24,39 +23,31 @@ import static org.junit.Assert.assertTrue;
 public class PdfGeneratorTest {
 
     private PdfGenerator pdfGenerator;
-    private final File file = new File(PDF_FILE_NAME);
-    private static final String PDF_FILE_NAME = "PdfGeneratorTest.pdf";
 
     @Before
-    public void setUp() throws IOException {
-        if (file.exists()) {
-            file.delete();
-        }
+    public void setUp() {
         pdfGenerator = new PdfGenerator();
     }
 
-    @After
-    public void tearDown() {
-        if (file.exists()) {
-            file.delete();
-        }
+    @Test
+    public void generatePdfWritesPdfDocumentToStream() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        pdfGenerator.generatePdf(outputStream, new PdfDto("email", "FirstName", "LastName", "Java Professional",
+                "2016-12-01", "id"));
+
+        assertTrue(new String(outputStream.toByteArray(), 0, 5, StandardCharsets.US_ASCII).startsWith("%PDF-"));
     }
 
     @Test
-    @WithMockUser
-    public void generatePdfCreatesFileOnDisk() throws Exception {
-        final String email = "email";
-        final String firstName = "FirstName";
-        final String lastName = "LastName";
-        final String courseName = "Java Professional";
-        final String certificationDate = "2016-12-01";
-        final String certificationId = "id";
-
-        PdfDto dto = new PdfDto(email, firstName, lastName, courseName,
-                certificationDate, certificationId);
-
-        pdfGenerator.generatePdf(PDF_FILE_NAME, dto);
-        assertTrue(file.exists());
-        assertTrue(file.length() > 0);
+    public void optimizedProfileProducesSmallerPdfWithOwnLayoutVersion() throws Exception {
+        PdfGenerator optimizedGenerator = new PdfGenerator(true, 1120, 0.8f);
+        PdfDto dto = new PdfDto("email", "FirstName", "LastName", "Java Professional", "2016-12-01", "id");
+
+        pdfGenerator.generatePdf(new ByteArrayOutputStream(), dto);
+        optimizedGenerator.generatePdf(new ByteArrayOutputStream(), dto);
+
+        assertTrue(optimizedGenerator.getAverageBytesPerPdf() < pdfGenerator.getAverageBytesPerPdf());
+        assertNotEquals(pdfGenerator.getLayoutVersion(), optimizedGenerator.getLayoutVersion());
     }
 }
@@ -0,0 +1,97 @@
+package ua.com.vertex.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+import ua.com.vertex.beans.PdfDto;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PdfRenderExecutorTest {
+    private static final byte[] PDF = "%PDF-1.4 test".getBytes();
+
+    @Mock
+    private PdfDownloader pdfDownloader;
+
+    private PdfRenderExecutor renderExecutor;
+    private final PdfDto dto = new PdfDto();
+
+    @Before
+    public void setUp() {
+        renderExecutor = new PdfRenderExecutor(pdfDownloader, 1, 1, 10000);
+    }
+
+    @After
+    public void tearDown() {
+        renderExecutor.stop();
+    }
+
+    @Test
+    public void renderedPdfIsReturnedWithContentLength() throws Exception {
+        when(pdfDownloader.renderPdf(dto)).thenReturn(PDF);
+
+        ResponseEntity<?> response = awaitResult(renderExecutor.render(dto));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(PDF.length, response.getHeaders().getContentLength());
+        assertArrayEquals(PDF, (byte[]) response.getBody());
+        assertEquals(1, renderExecutor.getStats().getCompleted());
+    }
+
+    @Test
+    public void fullQueueIsRejectedWithServiceUnavailable() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(pdfDownloader.renderPdf(any(PdfDto.class))).thenAnswer(invocation -> {
+            release.await();
+            return PDF;
+        });
+
+        renderExecutor.render(dto);
+        renderExecutor.render(dto);
+        DeferredResult<ResponseEntity<byte[]>> rejected = renderExecutor.render(dto);
+
+        ResponseEntity<?> response = (ResponseEntity<?>) rejected.getResult();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("5", response.getHeaders().getFirst("Retry-After"));
+        assertEquals(1, renderExecutor.getStats().getRejected());
+        release.countDown();
+    }
+
+    @Test
+    public void renderFailureIsReturnedAsErrorResult() throws Exception {
+        IOException exception = new IOException("broken");
+        when(pdfDownloader.renderPdf(dto)).thenThrow(exception);
+
+        DeferredResult<ResponseEntity<byte[]>> result = renderExecutor.render(dto);
+
+        awaitCompletion(result);
+        assertSame(exception, result.getResult());
+        assertEquals(1, renderExecutor.getStats().getFailed());
+    }
+
+    private ResponseEntity<?> awaitResult(DeferredResult<ResponseEntity<byte[]>> result) throws Exception {
+        awaitCompletion(result);
+        return (ResponseEntity<?>) result.getResult();
+    }
+
+    private void awaitCompletion(DeferredResult<ResponseEntity<byte[]>> result) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!result.hasResult() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(result.hasResult());
+    }
+}
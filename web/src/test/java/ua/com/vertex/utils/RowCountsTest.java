@@ -0,0 +1,101 @@
+package ua.com.vertex.utils;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.com.vertex.dao.interfaces.CourseDaoInf;
+import ua.com.vertex.dao.interfaces.UserDaoInf;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RowCountsTest {
+    private static final int TEACHER_ID = 7;
+    private static final int OTHER_TEACHER_ID = 1;
+
+    @Mock
+    private UserDaoInf userDao;
+
+    @Mock
+    private CourseDaoInf courseDao;
+
+    private RowCounts rowCounts;
+
+    @Before
+    public void setUp() {
+        when(userDao.getQuantityUsers()).thenReturn(10);
+        when(courseDao.getQuantityCourses()).thenReturn(6);
+        when(courseDao.getQuantityCoursesPerTeacher())
+                .thenReturn(ImmutableMap.of(TEACHER_ID, 1, OTHER_TEACHER_ID, 5));
+
+        rowCounts = new RowCounts(userDao, courseDao, 300);
+        rowCounts.reconcile();
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void reconcileLoadsCountsFromDatabase() {
+        assertEquals(10, rowCounts.getUsers());
+        assertEquals(6, rowCounts.getCourses());
+        assertEquals(1, rowCounts.getCourses(TEACHER_ID));
+        assertEquals(0, rowCounts.getCourses(99));
+    }
+
+    @Test
+    public void insertsOutsideTransactionAreCountedImmediately() {
+        rowCounts.userAdded();
+        rowCounts.courseAdded(TEACHER_ID);
+
+        assertEquals(11, rowCounts.getUsers());
+        assertEquals(7, rowCounts.getCourses());
+        assertEquals(2, rowCounts.getCourses(TEACHER_ID));
+    }
+
+    @Test
+    public void insertsInTransactionAreCountedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        rowCounts.userAdded();
+        rowCounts.courseAdded(TEACHER_ID);
+
+        assertEquals(10, rowCounts.getUsers());
+        assertEquals(6, rowCounts.getCourses());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(11, rowCounts.getUsers());
+        assertEquals(7, rowCounts.getCourses());
+        assertEquals(2, rowCounts.getCourses(TEACHER_ID));
+    }
+
+    @Test
+    public void teacherChangeMovesCourseBetweenTeachers() {
+        rowCounts.courseTeacherChanged(OTHER_TEACHER_ID, TEACHER_ID);
+
+        assertEquals(6, rowCounts.getCourses());
+        assertEquals(4, rowCounts.getCourses(OTHER_TEACHER_ID));
+        assertEquals(2, rowCounts.getCourses(TEACHER_ID));
+    }
+
+    @Test
+    public void reconcileRepairsDrift() {
+        rowCounts.userAdded();
+        rowCounts.courseAdded(42);
+        rowCounts.reconcile();
+
+        assertEquals(10, rowCounts.getUsers());
+        assertEquals(6, rowCounts.getCourses());
+        assertEquals(0, rowCounts.getCourses(42));
+    }
+}
@@ -28,7 +28,8 @@ CREATE TABLE Certificate
   certification_date DATE         NOT NULL,
   course_name        VARCHAR(500) NOT NULL,
   language           VARCHAR(255) NOT NULL,
-  certificate_uid    BIGINT(20)   NOT NULL
+  certificate_uid    BIGINT(20)   NOT NULL,
+  UNIQUE (certificate_uid)
 );
 
 CREATE TABLE Payments
@@ -36,7 +37,8 @@ CREATE TABLE Payments
   payment_id   INT(11)   NOT NULL AUTO_INCREMENT PRIMARY KEY,
   deal_id      INT(11)   NOT NULL,
   amount       DOUBLE    NOT NULL,
-  payment_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+  payment_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  bank_reference VARCHAR(64) DEFAULT NULL UNIQUE
 );
 
 CREATE TABLE Accounting
@@ -66,7 +68,18 @@ CREATE TABLE Course_users
   id         INT(11)      NOT NULL AUTO_INCREMENT,
   course_id  INT(11)      NOT NULL,
   user_id    INT(11)      NOT NULL,
-  PRIMARY KEY (id)
+  PRIMARY KEY (id),
+  UNIQUE (course_id, user_id),
+  FOREIGN KEY (course_id) REFERENCES Courses(id),
+  FOREIGN KEY (user_id) REFERENCES Users(user_id)
+);
+
+CREATE TABLE Course_debt_summary
+(
+  course_id  INT(11) NOT NULL,
+  debt_total DOUBLE  NOT NULL DEFAULT 0,
+  debtors    INT(11) NOT NULL DEFAULT 0,
+  PRIMARY KEY (course_id)
 );
 
 CREATE TABLE Password_reset
@@ -78,6 +91,22 @@ CREATE TABLE Password_reset
   PRIMARY KEY (id)
 );
 
+CREATE TABLE Mail_outbox
+(
+  id                BIGINT(20)   NOT NULL AUTO_INCREMENT,
+  sender            VARCHAR(255) NOT NULL,
+  recipient         VARCHAR(255) NOT NULL,
+  subject           VARCHAR(255) NOT NULL,
+  body              TEXT,
+  status            VARCHAR(10)  NOT NULL DEFAULT 'PENDING',
+  attempts          INT(11)      NOT NULL DEFAULT 0,
+  next_attempt_time TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  creation_time     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  last_error        VARCHAR(999),
+  claimed_time      TIMESTAMP    NULL,
+  PRIMARY KEY (id)
+);
+
 INSERT INTO Roles (role_id, name)
 VALUES (1, 'ROLE_ADMIN');
 
@@ -184,6 +213,9 @@ INSERT INTO Courses (id, name, start, finished, price, teacher_id, schedule, not
 INSERT INTO Courses (id, name, start, finished, price, teacher_id, schedule, notes)
 VALUES (7, 'Teacher JAVA', '2017-04-01', 0, 850.09, 7, 'Sat, Sun', 'Welcome (=');
 
+INSERT INTO Course_debt_summary (course_id, debt_total, debtors) VALUES
+  (1, 8000, 2), (2, 0, 0), (3, 0, 0), (111, 0, 0), (222, 0, 0), (7, 0, 0);
+
 INSERT INTO Course_users (course_id, user_id)
 VALUES (1, 401);
 